@@ -1,6 +1,7 @@
 package io.swagger.v3.parser.core.models;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 public class ParseOptions {
     private boolean resolve;
@@ -23,6 +24,11 @@ public class ParseOptions {
     private List<String> remoteRefBlockList;
     private boolean explicitStyleAndExplode = true;
     private boolean explicitObjectSchema = true;
+    private boolean prefetchExternalRefs;
+    private int prefetchThreads = 8;
+    private int prefetchMaxRequestsPerHost = 2;
+    private ExecutorService prefetchExecutor;
+    private boolean parallelConversion;
 
 
     public boolean isResolve() {
@@ -188,4 +194,64 @@ public class ParseOptions {
         this.explicitObjectSchema = explicitObjectSchema;
     }
 
+    public boolean isPrefetchExternalRefs() {
+        return prefetchExternalRefs;
+    }
+
+    /**
+     * If set to true, external documents referenced by the spec (directly or through other
+     * referenced documents) are fetched and parsed concurrently before resolving, instead of one
+     * by one as the resolver reaches each reference. Default is false.
+     */
+    public void setPrefetchExternalRefs(boolean prefetchExternalRefs) {
+        this.prefetchExternalRefs = prefetchExternalRefs;
+    }
+
+    public int getPrefetchThreads() {
+        return prefetchThreads;
+    }
+
+    /**
+     * Maximum number of documents fetched at the same time when prefetching external refs.
+     */
+    public void setPrefetchThreads(int prefetchThreads) {
+        this.prefetchThreads = prefetchThreads;
+    }
+
+    public int getPrefetchMaxRequestsPerHost() {
+        return prefetchMaxRequestsPerHost;
+    }
+
+    /**
+     * Maximum number of documents fetched at the same time from a single host when prefetching
+     * external refs.
+     */
+    public void setPrefetchMaxRequestsPerHost(int prefetchMaxRequestsPerHost) {
+        this.prefetchMaxRequestsPerHost = prefetchMaxRequestsPerHost;
+    }
+
+    public ExecutorService getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    /**
+     * Executor external refs are prefetched on, e.g. to share a pool across parses; it is not shut down by the
+     * parser. If not set, each parse prefetches on a pool of {@link #getPrefetchThreads()} threads of its own.
+     */
+    public void setPrefetchExecutor(ExecutorService prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    public boolean isParallelConversion() {
+        return parallelConversion;
+    }
+
+    /**
+     * If set to true, the paths and definitions of a Swagger 2.0 definition are converted to OpenAPI 3.0 in
+     * parallel, instead of one by one. The result is the same, in the same order. Default is false.
+     */
+    public void setParallelConversion(boolean parallelConversion) {
+        this.parallelConversion = parallelConversion;
+    }
+
 }
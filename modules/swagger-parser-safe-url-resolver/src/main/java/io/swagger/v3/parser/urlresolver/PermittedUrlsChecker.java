@@ -3,6 +3,7 @@ package io.swagger.v3.parser.urlresolver;
 import io.swagger.v3.parser.urlresolver.exceptions.HostDeniedException;
 import io.swagger.v3.parser.urlresolver.matchers.UrlPatternMatcher;
 import io.swagger.v3.parser.urlresolver.models.ResolvedUrl;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
 import io.swagger.v3.parser.urlresolver.utils.NetUtils;
 
 import java.net.InetAddress;
@@ -11,18 +12,33 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PermittedUrlsChecker {
 
     protected final UrlPatternMatcher allowlistMatcher;
     protected final UrlPatternMatcher denylistMatcher;
+    protected final HostAddressCache hostAddressCache;
+
+    private static final int MAX_VERIFIED_URLS = 1024;
+    private final Map<String, ResolvedUrl> verifiedUrls = new ConcurrentHashMap<>();
 
     public PermittedUrlsChecker() {
         this.allowlistMatcher = new UrlPatternMatcher(Collections.emptyList());
         this.denylistMatcher = new UrlPatternMatcher(Collections.emptyList());
+        this.hostAddressCache = new HostAddressCache();
     }
 
     public PermittedUrlsChecker(List<String> allowlist, List<String> denylist) {
+        this(allowlist, denylist, new HostAddressCache());
+    }
+
+    /**
+     * @param hostAddressCache the cache of resolved host addresses, which may be shared between checkers
+     */
+    public PermittedUrlsChecker(List<String> allowlist, List<String> denylist, HostAddressCache hostAddressCache) {
+        this.hostAddressCache = hostAddressCache;
         if(allowlist != null) {
             this.allowlistMatcher = new UrlPatternMatcher(allowlist);
         } else {
@@ -57,7 +73,7 @@ public class PermittedUrlsChecker {
         }
 
         if (this.allowlistMatcher.matches(url)) {
-            return new ResolvedUrl(url, hostname);
+            return verified(url, new ResolvedUrl(url, hostname));
         }
 
         if (this.denylistMatcher.matches(url)) {
@@ -66,7 +82,7 @@ public class PermittedUrlsChecker {
 
         InetAddress ip;
         try {
-            ip = NetUtils.getHostByName(hostname);
+            ip = hostAddressCache.resolve(hostname);
         } catch (UnknownHostException e) {
             throw new HostDeniedException(
                     String.format("Failed to resolve IP from hostname. Hostname [%s]", hostname), e);
@@ -80,19 +96,43 @@ public class PermittedUrlsChecker {
                     String.format("Failed to create new URL with IP. IP [%s] URL [%s]", ip.getHostAddress(), url), e);
         }
 
-        if (this.allowlistMatcher.matches(urlWithIp)) {
-            return new ResolvedUrl(urlWithIp, hostname);
+        if (this.allowlistMatcher.matches(urlWithIp, ip)) {
+            return verified(url, new ResolvedUrl(urlWithIp, hostname, ip));
         }
 
         if (isRestrictedIpRange(ip)) {
             throw new HostDeniedException(String.format("IP is restricted. URL [%s]", urlWithIp));
         }
 
-        if (this.denylistMatcher.matches(urlWithIp)) {
+        if (this.denylistMatcher.matches(urlWithIp, ip)) {
             throw new HostDeniedException(String.format("IP is part of the explicit denylist. URL [%s]", urlWithIp));
         }
 
-        return new ResolvedUrl(urlWithIp, hostname);
+        return verified(url, new ResolvedUrl(urlWithIp, hostname, ip));
+    }
+
+    private ResolvedUrl verified(String url, ResolvedUrl resolved) {
+        if (verifiedUrls.size() >= MAX_VERIFIED_URLS) {
+            verifiedUrls.clear();
+        }
+        verifiedUrls.put(url, resolved);
+        return resolved;
+    }
+
+    /**
+     * Returns the result of the last successful {@link #verify(String)} of the url, as long as the address it was
+     * verified with is still cached, so that the url can be fetched from that address without resolving its host
+     * again.
+     *
+     * @return null if the url was not verified or its address expired
+     */
+    public ResolvedUrl getVerifiedUrl(String url) {
+        final ResolvedUrl resolved = verifiedUrls.get(url);
+        if (resolved == null || resolved.getAddress() == null) {
+            return resolved;
+        }
+        final InetAddress cached = hostAddressCache.getIfPresent(resolved.getHostHeader());
+        return resolved.getAddress().equals(cached) ? resolved : null;
     }
 
     protected boolean isRestrictedIpRange(InetAddress ip) {
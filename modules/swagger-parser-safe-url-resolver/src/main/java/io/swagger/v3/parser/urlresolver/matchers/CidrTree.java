@@ -0,0 +1,56 @@
+package io.swagger.v3.parser.urlresolver.matchers;
+
+/**
+ * Binary prefix tree of address blocks, matching an address in at most one step per bit.
+ */
+final class CidrTree {
+
+    private static final class Node {
+        private Node zero;
+        private Node one;
+        private boolean block;
+    }
+
+    private final Node root = new Node();
+    private boolean empty = true;
+
+    void add(byte[] address, int prefixLength) {
+        Node node = root;
+        for (int i = 0; i < prefixLength && !node.block; i++) {
+            if (bit(address, i)) {
+                if (node.one == null) {
+                    node.one = new Node();
+                }
+                node = node.one;
+            } else {
+                if (node.zero == null) {
+                    node.zero = new Node();
+                }
+                node = node.zero;
+            }
+        }
+        node.block = true;
+        empty = false;
+    }
+
+    boolean contains(byte[] address) {
+        if (empty) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            if (node.block) {
+                return true;
+            }
+            if (i == address.length * 8) {
+                return false;
+            }
+            node = bit(address, i) ? node.one : node.zero;
+        }
+        return false;
+    }
+
+    private static boolean bit(byte[] address, int index) {
+        return (address[index >> 3] & (0x80 >> (index & 7))) != 0;
+    }
+}
@@ -0,0 +1,75 @@
+package io.swagger.v3.parser.urlresolver.matchers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Host names and {@code *.suffix} patterns, stored by label from the top level domain down, so a host is matched by
+ * walking its labels from the right.
+ */
+final class HostTrie {
+
+    private static final class Node {
+        private Map<String, Node> children;
+        // the labels down to this node are a host name
+        private boolean host;
+        // any host with more labels below this node matches
+        private boolean subdomains;
+
+        Node child(String label) {
+            return children != null ? children.get(label) : null;
+        }
+
+        Node addChild(String label) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(label, l -> new Node());
+        }
+    }
+
+    private final Node root = new Node();
+
+    void addHost(String host) {
+        node(host).host = true;
+    }
+
+    /**
+     * Adds the hosts matched by {@code *.suffix}: those ending with {@code .suffix}.
+     */
+    void addSubdomains(String suffix) {
+        node(suffix).subdomains = true;
+    }
+
+    private Node node(String name) {
+        Node node = root;
+        int end = name.length();
+        while (true) {
+            final int dot = name.lastIndexOf('.', end - 1);
+            node = node.addChild(name.substring(dot + 1, end));
+            if (dot < 0) {
+                return node;
+            }
+            end = dot;
+        }
+    }
+
+    boolean matches(String host) {
+        Node node = root;
+        int end = host.length();
+        while (true) {
+            final int dot = host.lastIndexOf('.', end - 1);
+            node = node.child(host.substring(dot + 1, end));
+            if (node == null) {
+                return false;
+            }
+            if (dot < 0) {
+                return node.host;
+            }
+            if (node.subdomains) {
+                return true;
+            }
+            end = dot;
+        }
+    }
+}
@@ -3,37 +3,74 @@ package io.swagger.v3.parser.urlresolver.matchers;
 import io.swagger.v3.parser.urlresolver.utils.NetUtils;
 
 import java.net.IDN;
+import java.net.Inet6Address;
+import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.apache.commons.io.FilenameUtils.wildcardMatch;
 
+/**
+ * Matches urls against {@code host[:port]} wildcard patterns, such as {@code *.example.com}, {@code 10.100.*.*} or
+ * {@code example.com:8443}, and against address blocks in CIDR notation, such as {@code 10.0.0.0/8},
+ * {@code 10.0.0.0/8:443} or {@code fd00::/8}.
+ *
+ * The patterns are compiled once, indexed by port: host names and {@code *.domain} patterns into a trie of their
+ * labels, and address blocks, including addresses with wildcard trailing octets, into prefix trees. A url is then
+ * matched in time proportional to the length of its host; only patterns with other wildcards are tried one by one.
+ *
+ * Address blocks are matched against the address a url's host resolves to when it is given, as
+ * {@code PermittedUrlsChecker} does; otherwise only against hosts written as a dotted quad IPv4 address or an IPv6
+ * literal, not against other forms such as {@code 167772161} or {@code 010.0.0.1}.
+ */
 public class UrlPatternMatcher {
 
+    // the compiled host:port patterns, matched one by one against IPv6 hosts, which contain colons
     private final List<String> patterns;
 
+    private final HostIndex anyPort = new HostIndex();
+    private final Map<Integer, HostIndex> ports = new HashMap<>();
+    private final List<String[]> portWildcards = new ArrayList<>();
+
     public UrlPatternMatcher(List<String> patterns) {
         this.patterns = new ArrayList<>();
 
         patterns.forEach(pattern -> {
             String patternLower = pattern.toLowerCase();
+            if (patternLower.contains("/")) {
+                addBlock(patternLower);
+                return;
+            }
+
             String hostAndPort = pattern.contains(":") ? patternLower : patternLower + ":*";
             String[] split = hostAndPort.split(":");
             String host = Character.isDigit(split[0].charAt(0)) ? split[0] : IDN.toASCII(split[0], IDN.ALLOW_UNASSIGNED);
             String port = split.length > 1 ? split[1] : "*";
 
             // Ignore domains that end in a wildcard
-            if (host.length() > 1 && !NetUtils.isIPv4(host.replace("*", "0")) && host.endsWith("*")) {
+            if (host.length() > 1 && host.endsWith("*") && !NetUtils.isIPv4(host.replace("*", "0"))) {
                 return;
             }
 
             this.patterns.add(String.format("%s:%s", host, port));
+            add(host, port);
         });
     }
 
     public boolean matches(String url) {
+        return matches(url, null);
+    }
+
+    /**
+     * @param address the address the host of the url resolves to, which address blocks are then matched against
+     *                instead of the host; null to match them against address literal hosts only
+     */
+    public boolean matches(String url, InetAddress address) {
         URL parsed;
         try {
             parsed = new URL(url.toLowerCase());
@@ -42,19 +79,248 @@ public class UrlPatternMatcher {
         }
 
         String host = IDN.toASCII(parsed.getHost(), IDN.ALLOW_UNASSIGNED);
-        String hostAndPort;
-        if (parsed.getPort() == -1) {
+        int port = parsed.getPort();
+        if (port == -1) {
             if (parsed.getProtocol().equals("http")) {
-                hostAndPort = host + ":80";
+                port = 80;
             } else if (parsed.getProtocol().equals("https")) {
-                hostAndPort = host + ":443";
+                port = 443;
             } else {
                 return false;
             }
-        } else {
-            hostAndPort = host + ":" + parsed.getPort();
         }
 
+        byte[] resolved = address != null ? address.getAddress() : null;
+        if (host.startsWith("[") && host.endsWith("]")) {
+            return matchesIPv6(host, port, resolved);
+        }
+
+        HostIndex index = ports.get(port);
+        if (resolved != null && resolved.length == 16
+                && (anyPort.ipv6.contains(resolved) || index != null && index.ipv6.contains(resolved))) {
+            return true;
+        }
+        byte[] ipv4 = resolved != null ? (resolved.length == 4 ? resolved : null) : ipv4(host);
+        if (anyPort.matches(host, ipv4)) {
+            return true;
+        }
+        if (index != null && index.matches(host, ipv4)) {
+            return true;
+        }
+        if (!portWildcards.isEmpty()) {
+            String portString = String.valueOf(port);
+            for (String[] pattern : portWildcards) {
+                if (wildcardMatch(host, pattern[0]) && wildcardMatch(portString, pattern[1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesIPv6(String host, int port, byte[] resolved) {
+        byte[] address = resolved != null ? resolved : ipv6(host.substring(1, host.length() - 1));
+        if (address != null) {
+            CidrTree blocks = address.length == 4 ? anyPort.ipv4 : anyPort.ipv6;
+            if (blocks.contains(address)) {
+                return true;
+            }
+            HostIndex index = ports.get(port);
+            if (index != null && (address.length == 4 ? index.ipv4 : index.ipv6).contains(address)) {
+                return true;
+            }
+        }
+        String hostAndPort = host + ":" + port;
         return this.patterns.stream().anyMatch(pattern -> wildcardMatch(hostAndPort, pattern));
     }
+
+    private void add(String host, String port) {
+        if (port.equals("*")) {
+            anyPort.add(host);
+        } else if (isPortNumber(port)) {
+            ports.computeIfAbsent(Integer.parseInt(port), p -> new HostIndex()).add(host);
+        } else {
+            portWildcards.add(new String[]{host, port});
+        }
+    }
+
+    /**
+     * Adds a pattern in CIDR notation, followed by a port if the address is IPv4 or enclosed in brackets. Patterns
+     * that are not valid address blocks are ignored.
+     */
+    private void addBlock(String pattern) {
+        String block = pattern;
+        String port = "*";
+        if (pattern.startsWith("[")) {
+            int end = pattern.indexOf(']');
+            if (end < 0) {
+                return;
+            }
+            String rest = pattern.substring(end + 1);
+            int colon = rest.indexOf(':');
+            if (colon >= 0) {
+                port = rest.substring(colon + 1);
+                rest = rest.substring(0, colon);
+            }
+            block = pattern.substring(1, end) + rest;
+        } else if (pattern.indexOf(':') == pattern.lastIndexOf(':')) {
+            int colon = pattern.indexOf(':');
+            if (colon >= 0) {
+                port = pattern.substring(colon + 1);
+                block = pattern.substring(0, colon);
+            }
+        }
+
+        int slash = block.indexOf('/');
+        String prefix = block.substring(slash + 1);
+        if (prefix.isEmpty() || prefix.length() > 3 || !isDigits(prefix)) {
+            return;
+        }
+        byte[] address = block.contains(":") ? ipv6(block.substring(0, slash)) : ipv4(block.substring(0, slash));
+        int prefixLength = Integer.parseInt(prefix);
+        if (address == null || prefixLength > address.length * 8) {
+            return;
+        }
+
+        HostIndex index;
+        if (port.equals("*")) {
+            index = anyPort;
+        } else if (isPortNumber(port)) {
+            index = ports.computeIfAbsent(Integer.parseInt(port), p -> new HostIndex());
+        } else {
+            return;
+        }
+        (address.length == 4 ? index.ipv4 : index.ipv6).add(address, prefixLength);
+    }
+
+    private static boolean isPortNumber(String port) {
+        return !port.isEmpty() && port.length() <= 5 && isDigits(port) && (port.length() == 1 || port.charAt(0) != '0');
+    }
+
+    private static boolean isDigits(String s) {
+        return s.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    /**
+     * @return the address of a dotted quad IPv4 address in its canonical form, null for anything else
+     */
+    static byte[] ipv4(String host) {
+        if (host.isEmpty() || host.charAt(0) < '0' || host.charAt(0) > '9') {
+            return null;
+        }
+        byte[] address = new byte[4];
+        int octet = 0;
+        int start = 0;
+        for (int i = 0; i <= host.length(); i++) {
+            if (i < host.length() && host.charAt(i) != '.') {
+                char c = host.charAt(i);
+                if (c < '0' || c > '9' || i - start == 3) {
+                    return null;
+                }
+                continue;
+            }
+            if (octet == 4 || i == start || (i - start > 1 && host.charAt(start) == '0')) {
+                return null;
+            }
+            int value = Integer.parseInt(host.substring(start, i));
+            if (value > 255) {
+                return null;
+            }
+            address[octet++] = (byte) value;
+            start = i + 1;
+        }
+        return octet == 4 ? address : null;
+    }
+
+    private static byte[] ipv6(String literal) {
+        // only literals with a colon are parsed, which never looks anything up
+        if (!literal.contains(":") || !literal.chars().allMatch(c -> Character.digit(c, 16) >= 0 || c == ':' || c == '.')) {
+            return null;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(literal);
+            return address instanceof Inet6Address ? address.getAddress() : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The host patterns for one port.
+     */
+    private static class HostIndex {
+        private final HostTrie hosts = new HostTrie();
+        private final CidrTree ipv4 = new CidrTree();
+        private final CidrTree ipv6 = new CidrTree();
+        // address patterns compiled into ipv4, which as wildcards also match host names starting with digits
+        private final List<String> addressWildcards = new ArrayList<>();
+        private final List<String> wildcards = new ArrayList<>();
+        private boolean anyHost;
+
+        void add(String host) {
+            if (host.equals("*")) {
+                anyHost = true;
+            } else if (!hasWildcard(host)) {
+                hosts.addHost(host);
+            } else if (host.startsWith("*.") && host.length() > 2 && !hasWildcard(host.substring(2))) {
+                hosts.addSubdomains(host.substring(2));
+            } else if (!addAddressWildcard(host)) {
+                wildcards.add(host);
+            }
+        }
+
+        /**
+         * Adds a pattern such as {@code 10.100.*.*}, whose wildcards are all trailing octets, as an address block.
+         */
+        private boolean addAddressWildcard(String host) {
+            String[] octets = host.split("\\.", -1);
+            int literal = 0;
+            while (literal < octets.length && !octets[literal].equals("*")) {
+                literal++;
+            }
+            if (octets.length != 4 || literal == 0 || literal == 4) {
+                return false;
+            }
+            for (int i = literal; i < 4; i++) {
+                if (!octets[i].equals("*")) {
+                    return false;
+                }
+                octets[i] = "0";
+            }
+            byte[] address = ipv4(String.join(".", octets));
+            if (address == null) {
+                return false;
+            }
+            ipv4.add(address, literal * 8);
+            addressWildcards.add(host);
+            return true;
+        }
+
+        boolean matches(String host, byte[] address) {
+            if (anyHost || hosts.matches(host)) {
+                return true;
+            }
+            if (address != null) {
+                if (ipv4.contains(address)) {
+                    return true;
+                }
+            } else if (!host.isEmpty() && Character.isDigit(host.charAt(0))) {
+                for (String pattern : addressWildcards) {
+                    if (wildcardMatch(host, pattern)) {
+                        return true;
+                    }
+                }
+            }
+            for (String pattern : wildcards) {
+                if (wildcardMatch(host, pattern)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasWildcard(String pattern) {
+            return pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0;
+        }
+    }
 }
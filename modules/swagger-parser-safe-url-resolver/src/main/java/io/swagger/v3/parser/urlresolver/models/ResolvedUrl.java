@@ -1,15 +1,24 @@
 package io.swagger.v3.parser.urlresolver.models;
 
+import java.net.InetAddress;
+
 public class ResolvedUrl {
 
     private String url;
     private String hostHeader;
+    private InetAddress address;
 
     public ResolvedUrl(String url, String hostHeader) {
         this.url = url;
         this.hostHeader = hostHeader;
     }
 
+    public ResolvedUrl(String url, String hostHeader, InetAddress address) {
+        this.url = url;
+        this.hostHeader = hostHeader;
+        this.address = address;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -26,11 +35,24 @@ public class ResolvedUrl {
         this.hostHeader = hostHeader;
     }
 
+    /**
+     * @return the address the host was verified with, which connections should be made to; null if the url was
+     * permitted without resolving its host
+     */
+    public InetAddress getAddress() {
+        return address;
+    }
+
+    public void setAddress(InetAddress address) {
+        this.address = address;
+    }
+
     @Override
     public String toString() {
         return "ResolvedUrl{" +
                 "url='" + url + '\'' +
                 ", hostHeader='" + hostHeader + '\'' +
+                ", address=" + address +
                 '}';
     }
 }
@@ -0,0 +1,103 @@
+package io.swagger.v3.parser.urlresolver.utils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the address a hostname resolves to for a fixed time, so a host referenced many times is looked up once per
+ * TTL. Failed lookups are not cached.
+ */
+public class HostAddressCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 30_000;
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final HostAddressCache DEFAULT = new HostAddressCache();
+
+    public interface Resolver {
+
+        InetAddress resolve(String hostname) throws UnknownHostException;
+    }
+
+    private final long ttlMillis;
+    private final Resolver resolver;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public HostAddressCache() {
+        this(DEFAULT_TTL_MILLIS);
+    }
+
+    public HostAddressCache(long ttlMillis) {
+        this(ttlMillis, NetUtils::getHostByName, System::currentTimeMillis);
+    }
+
+    public HostAddressCache(long ttlMillis, Resolver resolver, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.resolver = resolver;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cache shared by the parsers
+     */
+    public static HostAddressCache getDefault() {
+        return DEFAULT;
+    }
+
+    public InetAddress resolve(String hostname) throws UnknownHostException {
+        final InetAddress cached = getIfPresent(hostname);
+        if (cached != null) {
+            return cached;
+        }
+        final InetAddress address = resolver.resolve(hostname);
+        if (entries.size() >= MAX_ENTRIES) {
+            purge();
+        }
+        entries.put(key(hostname), new Entry(address, clock.getAsLong() + ttlMillis));
+        return address;
+    }
+
+    /**
+     * @return the cached address of the hostname, or null if it is not cached or expired
+     */
+    public InetAddress getIfPresent(String hostname) {
+        final Entry entry = entries.get(key(hostname));
+        return entry != null && clock.getAsLong() < entry.expires ? entry.address : null;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void purge() {
+        final long now = clock.getAsLong();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (now >= it.next().expires) {
+                it.remove();
+            }
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+    }
+
+    private static String key(String hostname) {
+        return hostname.toLowerCase();
+    }
+
+    private static class Entry {
+        private final InetAddress address;
+        private final long expires;
+
+        Entry(InetAddress address, long expires) {
+            this.address = address;
+            this.expires = expires;
+        }
+    }
+}
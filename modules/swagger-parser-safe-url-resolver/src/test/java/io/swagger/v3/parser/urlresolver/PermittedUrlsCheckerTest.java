@@ -2,6 +2,7 @@ package io.swagger.v3.parser.urlresolver;
 
 import io.swagger.v3.parser.urlresolver.exceptions.HostDeniedException;
 import io.swagger.v3.parser.urlresolver.models.ResolvedUrl;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
 import io.swagger.v3.parser.urlresolver.utils.NetUtils;
 import mockit.*;
 import org.testng.Assert;
@@ -252,6 +253,23 @@ public class PermittedUrlsCheckerTest {
         checker.verify(url);
     }
 
+    @Test(expectedExceptions = HostDeniedException.class, expectedExceptionsMessageRegExp = ".*IP is part of the explicit denylist.*")
+    public void shouldBlockResolvedIPInDenylistedBlock() throws Exception {
+        String url = "http://134744072/";
+        String expectedHost = "134744072";
+        String expectedIp = "8.8.8.8";
+        List<String> denylist = Collections.singletonList("8.8.8.0/24");
+
+        new Expectations() {{
+            NetUtils.getHostFromUrl(url); times = 1; result = expectedHost;
+            NetUtils.getHostByName(expectedHost); times = 1; result = InetAddress.getByName(expectedIp);
+            NetUtils.setHost(url, expectedIp); times = 1; result = url;
+        }};
+
+        this.checker = new PermittedUrlsChecker(emptyAllowlist, denylist);
+        checker.verify(url);
+    }
+
     @Test(expectedExceptions = HostDeniedException.class, expectedExceptionsMessageRegExp = ".*URL is part of the explicit denylist.*")
     public void shouldBlockURLMatchingWildcardPattern() throws Exception {
         String url = "https://foo.example.com";
@@ -280,4 +298,30 @@ public class PermittedUrlsCheckerTest {
         checker.verify(url);
     }
 
+    @Test
+    public void shouldResolveHostOncePerTtlAndRememberVerifiedUrl() throws Exception {
+        String url = "https://smartbear.com:3000/1";
+        String expectedUrl = "https://1.2.3.4:3000/1";
+        String expectedHost = "smartbear.com";
+        String expectedIp = "1.2.3.4";
+
+        new Expectations() {{
+            NetUtils.getHostFromUrl(url); times = 2; result = expectedHost;
+            NetUtils.getHostByName(expectedHost); times = 1; result = InetAddress.getByName(expectedIp);
+            NetUtils.setHost(url, expectedIp); times = 2; result = expectedUrl;
+        }};
+
+        HostAddressCache hostAddressCache = new HostAddressCache();
+        this.checker = new PermittedUrlsChecker(emptyAllowlist, emptyDenylist, hostAddressCache);
+        Assert.assertNull(checker.getVerifiedUrl(url));
+        checker.verify(url);
+        ResolvedUrl result = new PermittedUrlsChecker(emptyAllowlist, emptyDenylist, hostAddressCache).verify(url);
+
+        Assert.assertEquals(result.getAddress(), InetAddress.getByName(expectedIp));
+        Assert.assertEquals(checker.getVerifiedUrl(url).getUrl(), expectedUrl);
+
+        hostAddressCache.clear();
+        Assert.assertNull(checker.getVerifiedUrl(url));
+    }
+
 }
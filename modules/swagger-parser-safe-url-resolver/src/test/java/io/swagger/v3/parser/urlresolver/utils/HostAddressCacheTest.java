@@ -0,0 +1,63 @@
+package io.swagger.v3.parser.urlresolver.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HostAddressCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @BeforeMethod
+    public void reset() {
+        now.set(0);
+        lookups.set(0);
+    }
+
+    private HostAddressCache cache(String ip) {
+        return new HostAddressCache(1000, hostname -> {
+            lookups.incrementAndGet();
+            if (ip == null) {
+                throw new UnknownHostException(hostname);
+            }
+            return InetAddress.getByName(ip);
+        }, now::get);
+    }
+
+    @Test
+    public void resolveShouldLookHostUpOncePerTtl() throws Exception {
+        HostAddressCache cache = cache("1.2.3.4");
+
+        Assert.assertEquals(cache.resolve("example.com"), InetAddress.getByName("1.2.3.4"));
+        now.set(999);
+        Assert.assertEquals(cache.resolve("EXAMPLE.com"), InetAddress.getByName("1.2.3.4"));
+        Assert.assertEquals(lookups.get(), 1);
+
+        now.set(1000);
+        Assert.assertNull(cache.getIfPresent("example.com"));
+        cache.resolve("example.com");
+        Assert.assertEquals(lookups.get(), 2);
+    }
+
+    @Test
+    public void resolveShouldNotCacheFailures() throws Exception {
+        HostAddressCache cache = cache(null);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.resolve("example.com");
+                Assert.fail("expected UnknownHostException");
+            } catch (UnknownHostException expected) {
+                // not cached
+            }
+        }
+        Assert.assertEquals(lookups.get(), 2);
+        Assert.assertNull(cache.getIfPresent("example.com"));
+    }
+}
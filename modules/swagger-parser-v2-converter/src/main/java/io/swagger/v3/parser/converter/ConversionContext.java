@@ -0,0 +1,78 @@
+package io.swagger.v3.parser.converter;
+
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.v3.oas.models.Components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of the conversion of one Swagger 2.0 definition: its global media types and parameters, which the
+ * operations default to or refer to, and the components converted from it. {@link SwaggerConverter} keeps no state of
+ * its own, so that a single instance can convert several definitions at the same time, each with its own context.
+ *
+ * The global parts are fixed when the context is created; the components are filled in before the paths referring to
+ * them are converted, and only read afterwards.
+ */
+public final class ConversionContext {
+
+    private final List<String> globalConsumes;
+    private final List<String> globalProduces;
+    private final Map<String, Parameter> globalV2Parameters;
+    private final Components components;
+
+    /**
+     * A context without global parts, for converting parts of a definition on their own.
+     */
+    public ConversionContext() {
+        this(null);
+    }
+
+    public ConversionContext(Swagger swagger) {
+        this(swagger, new Components());
+    }
+
+    /**
+     * A context for converting parts of a definition, referring to components already converted from it.
+     */
+    ConversionContext(Swagger swagger, Components components) {
+        List<String> consumes = new ArrayList<>();
+        List<String> produces = new ArrayList<>();
+        Map<String, Parameter> parameters = new HashMap<>();
+        if (swagger != null) {
+            if (swagger.getConsumes() != null) {
+                consumes.addAll(swagger.getConsumes());
+            }
+            if (swagger.getProduces() != null) {
+                produces.addAll(swagger.getProduces());
+            }
+            if (swagger.getParameters() != null) {
+                parameters.putAll(swagger.getParameters());
+            }
+        }
+        this.globalConsumes = Collections.unmodifiableList(consumes);
+        this.globalProduces = Collections.unmodifiableList(produces);
+        this.globalV2Parameters = Collections.unmodifiableMap(parameters);
+        this.components = components;
+    }
+
+    List<String> getGlobalConsumes() {
+        return globalConsumes;
+    }
+
+    List<String> getGlobalProduces() {
+        return globalProduces;
+    }
+
+    Parameter getGlobalV2Parameter(String name) {
+        return globalV2Parameters.get(name);
+    }
+
+    Components getComponents() {
+        return components;
+    }
+}
@@ -0,0 +1,181 @@
+package io.swagger.v3.parser.converter;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills in a converted definition the values {@link io.swagger.v3.parser.util.OpenAPIDeserializer} sets when they are
+ * missing, so that it is resolved and flattened in memory as it would be after being written and parsed again: the
+ * {@code required}, {@code style} and {@code explode} of parameters and headers, and the type of schemas with an
+ * {@code enum}.
+ */
+@SuppressWarnings("rawtypes")
+final class DeserializationDefaults {
+
+    private final ParseOptions options;
+    private final Set<Schema> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private DeserializationDefaults(ParseOptions options) {
+        this.options = options;
+    }
+
+    static void apply(OpenAPI openAPI, ParseOptions options) {
+        new DeserializationDefaults(options).openAPI(openAPI);
+    }
+
+    private void openAPI(OpenAPI openAPI) {
+        Components components = openAPI.getComponents();
+        if (components != null) {
+            if (components.getSchemas() != null) {
+                components.getSchemas().values().forEach(this::schema);
+            }
+            if (components.getParameters() != null) {
+                components.getParameters().values().forEach(this::parameter);
+            }
+            if (components.getHeaders() != null) {
+                components.getHeaders().values().forEach(this::header);
+            }
+            if (components.getRequestBodies() != null) {
+                components.getRequestBodies().values().forEach(this::requestBody);
+            }
+            if (components.getResponses() != null) {
+                components.getResponses().values().forEach(this::response);
+            }
+        }
+        if (openAPI.getPaths() != null) {
+            for (PathItem pathItem : openAPI.getPaths().values()) {
+                parameters(pathItem.getParameters());
+                for (Operation operation : pathItem.readOperations()) {
+                    parameters(operation.getParameters());
+                    requestBody(operation.getRequestBody());
+                    if (operation.getResponses() != null) {
+                        operation.getResponses().values().forEach(this::response);
+                    }
+                }
+            }
+        }
+    }
+
+    private void parameters(List<Parameter> parameters) {
+        if (parameters != null) {
+            parameters.forEach(this::parameter);
+        }
+    }
+
+    private void parameter(Parameter parameter) {
+        if (parameter == null || parameter.get$ref() != null) {
+            return;
+        }
+        if (parameter.getRequired() == null) {
+            parameter.setRequired(false);
+        }
+        if (parameter.getContent() == null && options.isExplicitStyleAndExplode()) {
+            if (parameter.getStyle() == null) {
+                if ("query".equals(parameter.getIn()) || "cookie".equals(parameter.getIn())) {
+                    parameter.setStyle(Parameter.StyleEnum.FORM);
+                } else if ("path".equals(parameter.getIn()) || "header".equals(parameter.getIn())) {
+                    parameter.setStyle(Parameter.StyleEnum.SIMPLE);
+                }
+            }
+            if (parameter.getExplode() == null) {
+                parameter.setExplode(Parameter.StyleEnum.FORM.equals(parameter.getStyle()));
+            }
+        }
+        schema(parameter.getSchema());
+        content(parameter.getContent());
+    }
+
+    private void header(Header header) {
+        if (header == null || header.get$ref() != null) {
+            return;
+        }
+        if (options.isExplicitStyleAndExplode()) {
+            if (header.getStyle() == null) {
+                header.setStyle(Header.StyleEnum.SIMPLE);
+            }
+            if (header.getExplode() == null) {
+                header.setExplode(false);
+            }
+        }
+        schema(header.getSchema());
+        content(header.getContent());
+    }
+
+    private void requestBody(RequestBody requestBody) {
+        if (requestBody != null && requestBody.get$ref() == null) {
+            content(requestBody.getContent());
+        }
+    }
+
+    private void response(ApiResponse response) {
+        if (response == null || response.get$ref() != null) {
+            return;
+        }
+        if (response.getHeaders() != null) {
+            response.getHeaders().values().forEach(this::header);
+        }
+        content(response.getContent());
+    }
+
+    private void content(Content content) {
+        if (content != null) {
+            for (MediaType mediaType : content.values()) {
+                schema(mediaType.getSchema());
+            }
+        }
+    }
+
+    private void schema(Schema schema) {
+        if (schema == null || !visited.add(schema) || schema.get$ref() != null) {
+            return;
+        }
+        if (StringUtils.isBlank(schema.getType()) && schema.getEnum() != null && options.isInferSchemaType()) {
+            schema.setType(typeOf(schema.getEnum()));
+        }
+        if (schema.getProperties() != null) {
+            ((Map<String, Schema>) schema.getProperties()).values().forEach(this::schema);
+        }
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            schema((Schema) schema.getAdditionalProperties());
+        }
+        schema(schema.getItems());
+        schema(schema.getNot());
+        schemas(schema.getAllOf());
+        schemas(schema.getAnyOf());
+        schemas(schema.getOneOf());
+    }
+
+    private void schemas(List<Schema> schemas) {
+        if (schemas != null) {
+            schemas.forEach(this::schema);
+        }
+    }
+
+    // the type inferred by the deserializer, from the first value
+    private static String typeOf(List<?> values) {
+        if (!values.isEmpty() && values.get(0) instanceof Boolean) {
+            return "boolean";
+        }
+        if (!values.isEmpty() && values.get(0) instanceof Number) {
+            return "number";
+        }
+        return "string";
+    }
+}
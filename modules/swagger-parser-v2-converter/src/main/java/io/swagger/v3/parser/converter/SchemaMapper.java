@@ -0,0 +1,572 @@
+package io.swagger.v3.parser.converter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ExternalDocs;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.RefModel;
+import io.swagger.models.Xml;
+import io.swagger.models.properties.AbstractNumericProperty;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.BaseIntegerProperty;
+import io.swagger.models.properties.BinaryProperty;
+import io.swagger.models.properties.BooleanProperty;
+import io.swagger.models.properties.ByteArrayProperty;
+import io.swagger.models.properties.DateProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.DecimalProperty;
+import io.swagger.models.properties.DoubleProperty;
+import io.swagger.models.properties.EmailProperty;
+import io.swagger.models.properties.FileProperty;
+import io.swagger.models.properties.FloatProperty;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.PasswordProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.models.properties.UUIDProperty;
+import io.swagger.models.properties.UntypedProperty;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.ExternalDocumentation;
+import io.swagger.v3.oas.models.media.ArbitrarySchema;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.DateSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.EmailSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.PasswordSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import io.swagger.v3.oas.models.media.XML;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maps Swagger 2.0 properties and models to OpenAPI 3.0 schemas field by field, with the same result as
+ * {@code Json.mapper().convertValue(...)} but without serializing them into a token buffer and deserializing the
+ * buffer back through bean introspection.
+ *
+ * The fields set are the ones the v2 classes serialize, read from the same getters and set through the same setters,
+ * in the same order where a setter depends on another field. When converting to {@link Schema} itself, the schema
+ * class is chosen from the type and format as {@link io.swagger.v3.core.util.ModelDeserializer} does; values of the
+ * generic type of the schema ({@code default}, {@code enum}, {@code example}) and extensions are converted as Jackson
+ * reads them. The discriminator of a {@link ModelImpl}, which can't be converted this way, is left out.
+ *
+ * Properties and models of other classes, including subclasses of the v2 classes and composed properties, are
+ * converted with Jackson as before.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class SchemaMapper {
+
+    private static final Set<Class<?>> MAPPED_PROPERTIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            StringProperty.class, EmailProperty.class, ByteArrayProperty.class, PasswordProperty.class, BinaryProperty.class,
+            UUIDProperty.class, DateProperty.class, DateTimeProperty.class, IntegerProperty.class, LongProperty.class,
+            BaseIntegerProperty.class, DecimalProperty.class, FloatProperty.class, DoubleProperty.class,
+            BooleanProperty.class, FileProperty.class, UntypedProperty.class,
+            RefProperty.class, ObjectProperty.class, MapProperty.class, ArrayProperty.class)));
+
+    private static final Set<Class<?>> MAPPED_MODELS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ModelImpl.class, ArrayModel.class, RefModel.class)));
+
+    // as read by ModelDeserializer
+    private static final boolean USE_ARBITRARY_SCHEMA = useArbitrarySchema();
+
+    private static final Map<Class<?>, JavaType> ENUM_TYPES = new ConcurrentHashMap<>();
+
+    private static final Supplier<Schema> OBJECT = ObjectSchema::new;
+    private static final Supplier<Schema> ARBITRARY = ArbitrarySchema::new;
+    private static final Supplier<Schema> MAP = MapSchema::new;
+
+    private SchemaMapper() {
+    }
+
+    /**
+     * Same as {@code Json.mapper().convertValue(property, Schema.class)}.
+     */
+    static Schema toSchema(Property property) {
+        if (property == null) {
+            return null;
+        }
+        if (!MAPPED_PROPERTIES.contains(property.getClass()) || property.getBooleanValue() != null) {
+            return Json.mapper().convertValue(property, Schema.class);
+        }
+        if (property instanceof RefProperty) {
+            // its type is not written, and a schema with a $ref has nothing else
+            return new Schema().$ref(((RefProperty) property).get$ref());
+        }
+        Property additionalProperties = property instanceof MapProperty ? ((MapProperty) property).getAdditionalProperties() : null;
+        if (additionalProperties != null && additionalProperties.getBooleanValue() != null) {
+            return Json.mapper().convertValue(property, Schema.class);
+        }
+        Supplier<Schema> type = schemaType(property.getType(), property.getFormat(), additionalProperties != null);
+        if (type == null) {
+            return null;
+        }
+        Schema schema = type.get();
+        setProperty(schema, property);
+        if (additionalProperties != null) {
+            schema.setAdditionalProperties(toSchema(additionalProperties));
+        }
+        if (schema instanceof IntegerSchema && StringUtils.isBlank(property.getFormat())) {
+            schema.setFormat(null);
+        }
+        return schema;
+    }
+
+    /**
+     * Same as {@code Json.mapper().convertValue(property, type)} for a schema class other than {@link Schema}.
+     */
+    static <T extends Schema> T toSchema(Property property, Class<T> type) {
+        if (property == null) {
+            return null;
+        }
+        if (!MAPPED_PROPERTIES.contains(property.getClass()) || property.getBooleanValue() != null
+                || property instanceof MapProperty) {
+            return Json.mapper().convertValue(property, type);
+        }
+        T schema = newSchema(type);
+        setProperty(schema, property);
+        return schema;
+    }
+
+    /**
+     * Same as {@code Json.mapper().convertValue(model, Schema.class)}, but for the discriminator of a {@link ModelImpl}.
+     */
+    static Schema toSchema(Model model) {
+        if (model == null) {
+            return null;
+        }
+        if (!MAPPED_MODELS.contains(model.getClass()) || model.getBooleanValue() != null || model instanceof ArrayModel) {
+            return convertValue(model, Schema.class);
+        }
+        if (model instanceof RefModel) {
+            return new Schema().$ref(((RefModel) model).get$ref());
+        }
+        ModelImpl modelImpl = (ModelImpl) model;
+        boolean additionalProperties = modelImpl.getAdditionalProperties() != null;
+        Supplier<Schema> type = schemaType(modelImpl.getType(), modelImpl.getFormat(), additionalProperties);
+        if (type == null) {
+            return null;
+        }
+        if (additionalProperties && (type != MAP || modelImpl.getAdditionalProperties().getBooleanValue() != null)) {
+            // not a map, whose additional properties would be read as a plain map and rejected, or a boolean
+            return convertValue(model, Schema.class);
+        }
+        Schema schema = type.get();
+        setModel(schema, modelImpl);
+        if (additionalProperties) {
+            schema.setAdditionalProperties(toSchema(modelImpl.getAdditionalProperties()));
+        }
+        if (schema instanceof IntegerSchema && StringUtils.isBlank(modelImpl.getFormat())) {
+            schema.setFormat(null);
+        }
+        return schema;
+    }
+
+    /**
+     * Same as {@code Json.mapper().convertValue(model, type)} for a schema class other than {@link Schema}, but for
+     * the discriminator of a {@link ModelImpl}.
+     */
+    static <T extends Schema> T toSchema(Model model, Class<T> type) {
+        if (model == null) {
+            return null;
+        }
+        if (model.getBooleanValue() != null) {
+            return convertValue(model, type);
+        }
+        if (model.getClass() == ArrayModel.class) {
+            T schema = newSchema(type);
+            setArrayModel(schema, (ArrayModel) model);
+            return schema;
+        }
+        if (model.getClass() == ModelImpl.class && ((ModelImpl) model).getAdditionalProperties() == null) {
+            T schema = newSchema(type);
+            setModel(schema, (ModelImpl) model);
+            return schema;
+        }
+        return convertValue(model, type);
+    }
+
+    private static <T extends Schema> T convertValue(Model model, Class<T> type) {
+        if (model instanceof ModelImpl && ((ModelImpl) model).getDiscriminator() != null) {
+            // dropped from a copy rather than the model, which may be converted concurrently
+            ObjectNode node = Json.mapper().valueToTree(model);
+            node.remove("discriminator");
+            return Json.mapper().convertValue(node, type);
+        }
+        return Json.mapper().convertValue(model, type);
+    }
+
+    /**
+     * @return the schema class ModelDeserializer reads a v2 object into, or null if it reads none
+     */
+    private static Supplier<Schema> schemaType(String type, String format, boolean additionalProperties) {
+        if (type == null) {
+            return additionalProperties ? MAP : USE_ARBITRARY_SCHEMA ? ARBITRARY : OBJECT;
+        }
+        switch (type) {
+            case "array":
+                return ArraySchema::new;
+            case "integer":
+                return IntegerSchema::new;
+            case "number":
+                return NumberSchema::new;
+            case "boolean":
+                return BooleanSchema::new;
+            case "string":
+                if ("date".equals(format)) {
+                    return DateSchema::new;
+                } else if ("date-time".equals(format)) {
+                    return DateTimeSchema::new;
+                } else if ("email".equals(format)) {
+                    return EmailSchema::new;
+                } else if ("password".equals(format)) {
+                    return PasswordSchema::new;
+                } else if ("uuid".equals(format)) {
+                    return UUIDSchema::new;
+                }
+                return StringSchema::new;
+            case "object":
+                return additionalProperties ? MAP : OBJECT;
+            default:
+                return null;
+        }
+    }
+
+    private static void setProperty(Schema schema, Property property) {
+        if (property.getType() != null) {
+            schema.setType(property.getType());
+        }
+        if (property.getFormat() != null) {
+            schema.setFormat(property.getFormat());
+        }
+        if (property.getExample() != null) {
+            schema.setExample(untyped(property.getExample()));
+        }
+        if (property.getXml() != null) {
+            schema.setXml(toXml(property.getXml()));
+        }
+        if (property.getDescription() != null) {
+            schema.setDescription(property.getDescription());
+        }
+        if (property.getTitle() != null) {
+            schema.setTitle(property.getTitle());
+        }
+        if (property.getReadOnly() != null) {
+            schema.setReadOnly(property.getReadOnly());
+        }
+
+        if (property instanceof StringProperty) {
+            StringProperty string = (StringProperty) property;
+            setString(schema, string.getMinLength(), string.getMaxLength(), string.getPattern());
+            setDefaultAndEnum(schema, string.getDefault(), string.getEnum());
+        } else if (property instanceof PasswordProperty) {
+            PasswordProperty password = (PasswordProperty) property;
+            setString(schema, password.getMinLength(), password.getMaxLength(), password.getPattern());
+            setDefaultAndEnum(schema, password.getDefault(), password.getEnum());
+        } else if (property instanceof BinaryProperty) {
+            BinaryProperty binary = (BinaryProperty) property;
+            setString(schema, binary.getMinLength(), binary.getMaxLength(), binary.getPattern());
+            setDefaultAndEnum(schema, binary.getDefault(), binary.getEnum());
+        } else if (property instanceof UUIDProperty) {
+            UUIDProperty uuid = (UUIDProperty) property;
+            setString(schema, uuid.getMinLength(), uuid.getMaxLength(), uuid.getPattern());
+            setDefaultAndEnum(schema, uuid.getDefault(), uuid.getEnum());
+        } else if (property instanceof DateProperty) {
+            setDefaultAndEnum(schema, null, ((DateProperty) property).getEnum());
+        } else if (property instanceof DateTimeProperty) {
+            setDefaultAndEnum(schema, null, ((DateTimeProperty) property).getEnum());
+        } else if (property instanceof AbstractNumericProperty) {
+            AbstractNumericProperty numeric = (AbstractNumericProperty) property;
+            setNumeric(schema, numeric.getMinimum(), numeric.getMaximum(), numeric.getMultipleOf(),
+                    numeric.getExclusiveMinimum(), numeric.getExclusiveMaximum());
+            if (property instanceof IntegerProperty) {
+                setDefaultAndEnum(schema, ((IntegerProperty) property).getDefault(), ((IntegerProperty) property).getEnum());
+            } else if (property instanceof LongProperty) {
+                setDefaultAndEnum(schema, ((LongProperty) property).getDefault(), ((LongProperty) property).getEnum());
+            } else if (property instanceof FloatProperty) {
+                setDefaultAndEnum(schema, ((FloatProperty) property).getDefault(), ((FloatProperty) property).getEnum());
+            } else if (property instanceof DoubleProperty) {
+                setDefaultAndEnum(schema, ((DoubleProperty) property).getDefault(), ((DoubleProperty) property).getEnum());
+            }
+        } else if (property instanceof BooleanProperty) {
+            setDefaultAndEnum(schema, ((BooleanProperty) property).getDefault(), ((BooleanProperty) property).getEnum());
+        } else if (property instanceof ObjectProperty) {
+            ObjectProperty object = (ObjectProperty) property;
+            if (object.getProperties() != null) {
+                schema.setProperties(toSchemas(object.getProperties()));
+            }
+            // after the properties, which it is filtered by
+            if (object.getRequiredProperties() != null) {
+                schema.setRequired(object.getRequiredProperties());
+            }
+        } else if (property instanceof MapProperty) {
+            MapProperty map = (MapProperty) property;
+            if (map.getMinProperties() != null) {
+                schema.setMinProperties(map.getMinProperties());
+            }
+            if (map.getMaxProperties() != null) {
+                schema.setMaxProperties(map.getMaxProperties());
+            }
+        } else if (property instanceof ArrayProperty) {
+            ArrayProperty array = (ArrayProperty) property;
+            if (array.getUniqueItems() != null) {
+                schema.setUniqueItems(array.getUniqueItems());
+            }
+            if (array.getItems() != null) {
+                schema.setItems(toSchema(array.getItems()));
+            }
+            if (array.getMaxItems() != null) {
+                schema.setMaxItems(array.getMaxItems());
+            }
+            if (array.getMinItems() != null) {
+                schema.setMinItems(array.getMinItems());
+            }
+        }
+        setExtensions(schema, property.getVendorExtensions());
+    }
+
+    private static void setModel(Schema schema, ModelImpl model) {
+        if (model.getType() != null) {
+            schema.setType(model.getType());
+        }
+        // before the properties, so not filtered by them
+        if (model.getRequired() != null) {
+            schema.setRequired(model.getRequired());
+        }
+        if (model.getProperties() != null) {
+            schema.setProperties(toSchemas(model.getProperties()));
+        }
+        setAbstractModel(schema, model.getExternalDocs(), model.getTitle(), model.getXml());
+        setNumeric(schema, model.getMinimum(), model.getMaximum(), model.getMultipleOf(),
+                model.getExclusiveMinimum(), model.getExclusiveMaximum());
+        setString(schema, model.getMinLength(), model.getMaxLength(), model.getPattern());
+        if (model.getFormat() != null) {
+            schema.setFormat(model.getFormat());
+        }
+        if (model.getUniqueItems() != null) {
+            schema.setUniqueItems(model.getUniqueItems());
+        }
+        if (model.getDescription() != null) {
+            schema.setDescription(model.getDescription());
+        }
+        if (model.getExample() != null) {
+            schema.setExample(untyped(model.getExample()));
+        }
+        setDefaultAndEnum(schema, model.getDefaultValue(), model.getEnum());
+        setExtensions(schema, model.getVendorExtensions());
+    }
+
+    private static void setArrayModel(Schema schema, ArrayModel model) {
+        setAbstractModel(schema, model.getExternalDocs(), model.getTitle(), model.getXml());
+        setNumeric(schema, model.getMinimum(), model.getMaximum(), model.getMultipleOf(),
+                model.getExclusiveMinimum(), model.getExclusiveMaximum());
+        setString(schema, model.getMinLength(), model.getMaxLength(), model.getPattern());
+        if (model.getProperties() != null) {
+            schema.setProperties(toSchemas(model.getProperties()));
+        }
+        // after the properties, which it is filtered by
+        if (model.getRequired() != null) {
+            schema.setRequired(model.getRequired());
+        }
+        if (model.getType() != null) {
+            schema.setType(model.getType());
+        }
+        if (model.getDescription() != null) {
+            schema.setDescription(model.getDescription());
+        }
+        if (model.getItems() != null) {
+            schema.setItems(toSchema(model.getItems()));
+        }
+        if (model.getUniqueItems() != null) {
+            schema.setUniqueItems(model.getUniqueItems());
+        }
+        if (model.getExample() != null) {
+            schema.setExample(untyped(model.getExample()));
+        }
+        if (model.getMinItems() != null) {
+            schema.setMinItems(model.getMinItems());
+        }
+        if (model.getMaxItems() != null) {
+            schema.setMaxItems(model.getMaxItems());
+        }
+        setExtensions(schema, model.getVendorExtensions());
+    }
+
+    private static void setAbstractModel(Schema schema, ExternalDocs externalDocs, String title, Xml xml) {
+        if (externalDocs != null) {
+            schema.setExternalDocs(toExternalDocs(externalDocs));
+        }
+        if (title != null) {
+            schema.setTitle(title);
+        }
+        if (xml != null) {
+            schema.setXml(toXml(xml));
+        }
+    }
+
+    private static void setNumeric(Schema schema, BigDecimal minimum, BigDecimal maximum, BigDecimal multipleOf,
+                                   Boolean exclusiveMinimum, Boolean exclusiveMaximum) {
+        // written and read back as numbers, without their trailing zeros
+        if (minimum != null) {
+            schema.setMinimum(minimum.stripTrailingZeros());
+        }
+        if (maximum != null) {
+            schema.setMaximum(maximum.stripTrailingZeros());
+        }
+        if (multipleOf != null) {
+            schema.setMultipleOf(multipleOf.stripTrailingZeros());
+        }
+        if (exclusiveMinimum != null) {
+            schema.setExclusiveMinimum(exclusiveMinimum);
+        }
+        if (exclusiveMaximum != null) {
+            schema.setExclusiveMaximum(exclusiveMaximum);
+        }
+    }
+
+    private static void setString(Schema schema, Integer minLength, Integer maxLength, String pattern) {
+        if (minLength != null) {
+            schema.setMinLength(minLength);
+        }
+        if (maxLength != null) {
+            schema.setMaxLength(maxLength);
+        }
+        if (pattern != null) {
+            schema.setPattern(pattern);
+        }
+    }
+
+    private static void setDefaultAndEnum(Schema schema, Object defaultValue, List<?> values) {
+        if (defaultValue != null) {
+            schema.setDefault(untyped(defaultValue));
+        }
+        if (values != null) {
+            schema.setEnum(enumValues(schema.getClass(), values));
+        }
+    }
+
+    private static void setExtensions(Schema schema, Map<String, Object> extensions) {
+        if (extensions != null) {
+            extensions.forEach((name, value) -> {
+                if (value != null) {
+                    schema.addExtension(name, untyped(value));
+                }
+            });
+        }
+    }
+
+    private static Map<String, Schema> toSchemas(Map<String, Property> properties) {
+        Map<String, Schema> schemas = new LinkedHashMap<>();
+        properties.forEach((name, property) -> schemas.put(name, toSchema(property)));
+        return schemas;
+    }
+
+    private static XML toXml(Xml v2Xml) {
+        XML xml = new XML();
+        if (v2Xml.getName() != null) {
+            xml.setName(v2Xml.getName());
+        }
+        if (v2Xml.getNamespace() != null) {
+            xml.setNamespace(v2Xml.getNamespace());
+        }
+        if (v2Xml.getPrefix() != null) {
+            xml.setPrefix(v2Xml.getPrefix());
+        }
+        if (v2Xml.getAttribute() != null) {
+            xml.setAttribute(v2Xml.getAttribute());
+        }
+        if (v2Xml.getWrapped() != null) {
+            xml.setWrapped(v2Xml.getWrapped());
+        }
+        return xml;
+    }
+
+    private static ExternalDocumentation toExternalDocs(ExternalDocs v2ExternalDocs) {
+        ExternalDocumentation externalDocs = new ExternalDocumentation();
+        if (v2ExternalDocs.getDescription() != null) {
+            externalDocs.setDescription(v2ExternalDocs.getDescription());
+        }
+        if (v2ExternalDocs.getUrl() != null) {
+            externalDocs.setUrl(v2ExternalDocs.getUrl());
+        }
+        if (v2ExternalDocs.getVendorExtensions() != null) {
+            v2ExternalDocs.getVendorExtensions().forEach((name, value) -> {
+                if (value != null) {
+                    externalDocs.addExtension(name, untyped(value));
+                }
+            });
+        }
+        return externalDocs;
+    }
+
+    /**
+     * @return the value as Jackson reads it into an untyped property: strings, booleans and ints as they are, other
+     * values through Jackson
+     */
+    private static Object untyped(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer) {
+            return value;
+        }
+        return Json.mapper().convertValue(value, Object.class);
+    }
+
+    /**
+     * @return the values as Jackson reads them into the enum of the schema class, typed by its type parameter
+     */
+    private static List enumValues(Class<? extends Schema> schemaClass, List<?> values) {
+        JavaType type = ENUM_TYPES.computeIfAbsent(schemaClass, cls -> {
+            JavaType[] parameters = Json.mapper().getTypeFactory().constructType(cls).findTypeParameters(Schema.class);
+            JavaType item = parameters.length == 1 ? parameters[0] : Json.mapper().getTypeFactory().constructType(Object.class);
+            return Json.mapper().getTypeFactory().constructCollectionType(List.class, item);
+        });
+        Class<?> itemClass = type.getContentType().getRawClass();
+        if (itemClass == String.class || itemClass == Object.class) {
+            boolean strings = true;
+            for (Object value : values) {
+                strings &= value instanceof String;
+            }
+            if (strings) {
+                return new ArrayList<>(values);
+            }
+        }
+        return Json.mapper().convertValue(values, type);
+    }
+
+    private static <T extends Schema> T newSchema(Class<T> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Can't create a " + type.getName(), e);
+        }
+    }
+
+    private static boolean useArbitrarySchema() {
+        String value = System.getenv("use-arbitrary-schema");
+        if (value == null) {
+            value = System.getProperty("use-arbitrary-schema");
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
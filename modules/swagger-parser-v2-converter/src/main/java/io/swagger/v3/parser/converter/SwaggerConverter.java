@@ -1,5 +1,6 @@
 package io.swagger.v3.parser.converter;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.models.ArrayModel;
 import io.swagger.models.ComposedModel;
 import io.swagger.models.ExternalDocs;
@@ -21,12 +22,11 @@ import io.swagger.models.parameters.BodyParameter;
 import io.swagger.models.parameters.RefParameter;
 import io.swagger.models.parameters.SerializableParameter;
 import io.swagger.models.properties.*;
+import io.swagger.parser.Swagger20Parser;
 import io.swagger.parser.SwaggerParser;
 import io.swagger.parser.SwaggerResolver;
 import io.swagger.parser.util.SwaggerDeserializationResult;
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.PrimitiveType;
-import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -49,27 +49,46 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.tags.Tag;
 import io.swagger.v3.parser.OpenAPIV3Parser;
-import io.swagger.v3.parser.core.extensions.SwaggerParserExtension;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.extensions.TreeParserExtension;
 import io.swagger.v3.parser.util.ResolverFully;
 import io.swagger.v3.parser.util.SchemaTypeUtil;
+import io.swagger.v3.parser.util.VersionSniffer;
 import org.apache.commons.lang3.StringUtils;
 
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class SwaggerConverter implements SwaggerParserExtension {
+/**
+ * Converts Swagger 2.0 definitions to OpenAPI 3.0.
+ *
+ * Instances hold no state: the state of each conversion is kept in its own {@link ConversionContext}, so that an
+ * instance can be reused and shared by concurrent callers. With {@link ParseOptions#isParallelConversion()}, the paths
+ * and definitions of a definition are converted in parallel on the converter's fork-join pool; they are added to the
+ * output in the order of the definition all the same.
+ */
+public class SwaggerConverter implements TreeParserExtension {
 
     private static final Set<String> STRIPPED_EXTENSION_KEYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("x-example", "x-examples", "x-nullable")));
 
-    private List<String> globalConsumes = new ArrayList<>();
-    private List<String> globalProduces = new ArrayList<>();
-    private Components components = new Components();
-    private Map<String, io.swagger.models.parameters.Parameter> globalV2Parameters = new HashMap<>();
+    private final ForkJoinPool pool;
+
+    public SwaggerConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool paths and definitions are converted on with {@link ParseOptions#isParallelConversion()}
+     */
+    public SwaggerConverter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     @Override
     public SwaggerParseResult readLocation(String url, List<AuthorizationValue> auths, ParseOptions options) {
@@ -98,25 +117,53 @@ public class SwaggerConverter implements SwaggerParserExtension {
 
     }
 
+    @Override
+    public boolean canRead(String versionKey) {
+        return VersionSniffer.SWAGGER.equals(versionKey);
+    }
+
+    /**
+     * Without options, definitions read from a location are not resolved, as with
+     * {@link #readLocation(String, List, ParseOptions)}, and others are, as with
+     * {@link #readContents(String, List, ParseOptions)}.
+     */
+    @Override
+    public SwaggerParseResult readTree(JsonNode node, String location, List<AuthorizationValue> auth, ParseOptions options) {
+        SwaggerDeserializationResult result = new Swagger20Parser().readWithInfo(node);
+        boolean resolve = options == null ? location == null : options.isResolve();
+        if (resolve && result.getSwagger() != null) {
+            String parentLocation = location == null ? null : location.replace('\\', '/');
+            try {
+                result.setSwagger(new SwaggerResolver(result.getSwagger(), convert(auth), parentLocation).resolve());
+            } catch (Exception e) {
+                // reported as SwaggerParser does, e.g. for relative references without a location
+                result = new SwaggerDeserializationResult().message("malformed or unreadable swagger supplied");
+            }
+        }
+        return readResult(result, auth, options);
+    }
+
     private SwaggerParseResult readResult(SwaggerDeserializationResult result, List<AuthorizationValue> auth, ParseOptions options) {
-        SwaggerParseResult out = convert(result);
+        SwaggerParseResult out = convert(result, options);
         if (out != null && out.getOpenAPI() != null && options != null) {
-            if (options.isResolveFully()) {
+            if (options.isResolveFully() && !options.isFlatten()) {
                 new ResolverFully(options).resolveFully(out.getOpenAPI());
             }
             if (options.isFlatten()) {
-                try {
-                    SwaggerParseResult resultV3 = new OpenAPIV3Parser().readContents(Yaml.pretty(out.getOpenAPI()), auth, options);
-                    out.setOpenAPI(resultV3.getOpenAPI());
-                    if (out.getMessages() != null) {
-                        out.getMessages().addAll(resultV3.getMessages());
-                        out.messages(out.getMessages().stream()
-                                .distinct()
-                                .collect(Collectors.toList()));
-                    } else {
-                        out.messages(resultV3.getMessages());
-                    }
-                } catch (Exception ignore) {
+                // the converted definition is resolved (fully, once) and flattened in memory, as the v3 parser would
+                // after parsing it, rather than serialized and parsed again
+                DeserializationDefaults.apply(out.getOpenAPI(), options);
+                SwaggerParseResult resultV3 = new SwaggerParseResult().messages(new ArrayList<>());
+                resultV3.setOpenAPI(out.getOpenAPI());
+                new OpenAPIV3Parser().resolve(resultV3, auth, options, null);
+                out.setOpenAPI(resultV3.getOpenAPI());
+                if (out.getMessages() != null) {
+                    out.getMessages().addAll(resultV3.getMessages());
+                    out.messages(out.getMessages().stream()
+                            .distinct()
+                            .collect(Collectors.toList()));
+                } else {
+                    out.messages(resultV3.getMessages());
                 }
             }
         }
@@ -139,6 +186,13 @@ public class SwaggerConverter implements SwaggerParserExtension {
     }
 
     public SwaggerParseResult convert(SwaggerDeserializationResult parse) {
+        return convert(parse, null);
+    }
+
+    /**
+     * @param options the options, of which only {@link ParseOptions#isParallelConversion()} is used here; may be null
+     */
+    public SwaggerParseResult convert(SwaggerDeserializationResult parse, ParseOptions options) {
         if (parse == null) {
             return null;
         }
@@ -150,7 +204,6 @@ public class SwaggerConverter implements SwaggerParserExtension {
         }
 
         OpenAPI openAPI = new OpenAPI();
-        SwaggerInventory inventory = new SwaggerInventory().process(parse.getSwagger());
 
         Swagger swagger = parse.getSwagger();
 
@@ -174,92 +227,46 @@ public class SwaggerConverter implements SwaggerParserExtension {
             openAPI.setTags(convertTags(swagger.getTags()));
         }
 
-        if (swagger.getConsumes() != null) {
-            this.globalConsumes.addAll(swagger.getConsumes());
-        }
-
-        if (swagger.getProduces() != null) {
-            this.globalProduces.addAll(swagger.getProduces());
-        }
+        final ConversionContext context = new ConversionContext(swagger);
+        final Components components = context.getComponents();
+        final boolean parallel = options != null && options.isParallelConversion();
 
         if (swagger.getSecurity() != null && swagger.getSecurity().size() > 0) {
             openAPI.setSecurity(convertSecurityRequirements(swagger.getSecurity()));
         }
 
-        List<Model> models = inventory.getModels();
-
-        // TODO until we have the example object working correctly in v3 pojos...
-        for (Model model : models) {
-            if (model instanceof RefModel) {
-                RefModel ref = (RefModel) model;
-                if (ref.get$ref().indexOf("#/definitions") == 0) {
-                    String updatedRef = "#/components/schemas" + ref.get$ref().substring("#/definitions".length());
-                    ref.set$ref(updatedRef);
-                }
-            }
-        }
-
-        for (Property property : inventory.getProperties()) {
-            if (property instanceof RefProperty) {
-                RefProperty ref = (RefProperty) property;
-                if (ref.get$ref().indexOf("#/definitions") == 0) {
-                    String updatedRef = "#/components/schemas" + ref.get$ref().substring("#/definitions".length());
-                    ref.set$ref(updatedRef);
-                }
-            }
-
-            if (property instanceof ComposedProperty) {
-                ComposedProperty comprop = (ComposedProperty) property;
-                if (comprop.getAllOf() != null) {
-                    for (Property item : comprop.getAllOf()) {
-                        if (item instanceof RefProperty) {
-                            RefProperty ref = (RefProperty) item;
-                            if (ref.get$ref().indexOf("#/definitions") == 0) {
-                                String updatedRef = "#/components/schemas" + ref.get$ref().substring("#/definitions".length());
-                                ref.set$ref(updatedRef);
-                            }
-
-
-                        }
-
-                    }
-                }
-            }
-        }
-
-            if (swagger.getParameters() != null) {
-            globalV2Parameters.putAll(swagger.getParameters());
+        if (swagger.getParameters() != null) {
             swagger.getParameters().forEach((k, v) -> {
                 if ("body".equals(v.getIn())) {
-                    components.addRequestBodies(k, convertParameterToRequestBody(v));
+                    components.addRequestBodies(k, convertParameterToRequestBody(v, context));
                 } else if ("formData".equals(v.getIn())) {
                     // formData_ is added not to overwrite existing schemas
                     components.addSchemas("formData_" + k, convertFormDataToSchema(v));
                 } else {
-                    components.addParameters(k, convert(v));
+                    components.addParameters(k, convert(v, context));
                 }
             });
         }
 
+        // from here on the components are only read by the conversion of the paths, which can then run in parallel
         Paths v3Paths = new Paths();
         Map<String, Path> pathMap = Optional.ofNullable(swagger.getPaths()).orElse(new HashMap<>());
-        for (String pathname : pathMap.keySet()) {
-            io.swagger.models.Path v2Path = swagger.getPath(pathname);
-            PathItem v3Path = convert(v2Path);
-            v3Paths.put(pathname, v3Path);
+        List<String> pathnames = new ArrayList<>(pathMap.keySet());
+        List<PathItem> pathItems = convertAll(pathnames, pathname -> convert(pathMap.get(pathname), context), parallel);
+        for (int i = 0; i < pathnames.size(); i++) {
+            v3Paths.put(pathnames.get(i), pathItems.get(i));
         }
         openAPI.setPaths(v3Paths);
 
         if (swagger.getResponses() != null) {
-            swagger.getResponses().forEach((k, v) -> components.addResponses(k, convert(v)));
+            swagger.getResponses().forEach((k, v) -> components.addResponses(k, convert(v, null, context)));
         }
 
         if (swagger.getDefinitions() != null) {
-            for (String key : swagger.getDefinitions().keySet()) {
-                Model model = swagger.getDefinitions().get(key);
-                Schema schema = convert(model);
-
-                components.addSchemas(key, schema);
+            List<String> keys = new ArrayList<>(swagger.getDefinitions().keySet());
+            List<Schema> schemas = convertAll(keys, key -> convert(swagger.getDefinitions().get(key)), parallel);
+            for (int i = 0; i < keys.size(); i++) {
+                components.addSchemas(keys.get(i), schemas.get(i));
             }
         }
 
@@ -274,6 +281,46 @@ public class SwaggerConverter implements SwaggerParserExtension {
         return output;
     }
 
+    /**
+     * Points the references to definitions in the schema, and the schemas nested in it, to the schemas in the
+     * components instead.
+     */
+    private static void rewriteDefinitionRefs(Schema schema, Set<Schema> visited) {
+        if (schema == null || !visited.add(schema)) {
+            return;
+        }
+        if (schema.get$ref() != null && schema.get$ref().indexOf("#/definitions") == 0) {
+            schema.set$ref("#/components/schemas" + schema.get$ref().substring("#/definitions".length()));
+        }
+        if (schema.getProperties() != null) {
+            for (Object property : schema.getProperties().values()) {
+                rewriteDefinitionRefs((Schema) property, visited);
+            }
+        }
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            rewriteDefinitionRefs((Schema) schema.getAdditionalProperties(), visited);
+        }
+        rewriteDefinitionRefs(schema.getItems(), visited);
+        rewriteDefinitionRefs(schema.getNot(), visited);
+        for (List<Schema> schemas : Arrays.asList(schema.getAllOf(), schema.getAnyOf(), schema.getOneOf())) {
+            if (schemas != null) {
+                for (Schema item : schemas) {
+                    rewriteDefinitionRefs(item, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the items, in parallel on {@link #pool} if requested, into a list in the same order.
+     */
+    private <T, R> List<R> convertAll(List<T> items, Function<T, R> converter, boolean parallel) {
+        if (!parallel || items.size() < 2) {
+            return items.stream().map(converter).collect(Collectors.toList());
+        }
+        return pool.submit(() -> items.parallelStream().map(converter).collect(Collectors.toList())).join();
+    }
+
     private List<io.swagger.v3.oas.models.security.SecurityRequirement> convertSecurityRequirements(List<SecurityRequirement> security) {
         List<io.swagger.v3.oas.models.security.SecurityRequirement> securityRequirements = new ArrayList<>();
 
@@ -509,6 +556,10 @@ public class SwaggerConverter implements SwaggerParserExtension {
     }
 
     public PathItem convert(Path v2Path) {
+        return convert(v2Path, new ConversionContext());
+    }
+
+    public PathItem convert(Path v2Path, ConversionContext context) {
         PathItem v3Path = new PathItem();
 
         if (v2Path instanceof RefPath) {
@@ -518,7 +569,7 @@ public class SwaggerConverter implements SwaggerParserExtension {
 
             if (v2Path.getParameters() != null) {
                 for (io.swagger.models.parameters.Parameter param : v2Path.getParameters()) {
-                    v3Path.addParametersItem(convert(param));
+                    v3Path.addParametersItem(convert(param, context));
                 }
             }
 
@@ -526,31 +577,31 @@ public class SwaggerConverter implements SwaggerParserExtension {
 
             v2Operation = v2Path.getGet();
             if (v2Operation != null) {
-                v3Path.setGet(convert(v2Operation));
+                v3Path.setGet(convert(v2Operation, context));
             }
             v2Operation = v2Path.getPut();
             if (v2Operation != null) {
-                v3Path.setPut(convert(v2Operation));
+                v3Path.setPut(convert(v2Operation, context));
             }
             v2Operation = v2Path.getPost();
             if (v2Operation != null) {
-                v3Path.setPost(convert(v2Operation));
+                v3Path.setPost(convert(v2Operation, context));
             }
             v2Operation = v2Path.getPatch();
             if (v2Operation != null) {
-                v3Path.setPatch(convert(v2Operation));
+                v3Path.setPatch(convert(v2Operation, context));
             }
             v2Operation = v2Path.getDelete();
             if (v2Operation != null) {
-                v3Path.setDelete(convert(v2Operation));
+                v3Path.setDelete(convert(v2Operation, context));
             }
             v2Operation = v2Path.getHead();
             if (v2Operation != null) {
-                v3Path.setHead(convert(v2Operation));
+                v3Path.setHead(convert(v2Operation, context));
             }
             v2Operation = v2Path.getOptions();
             if (v2Operation != null) {
-                v3Path.setOptions(convert(v2Operation));
+                v3Path.setOptions(convert(v2Operation, context));
             }
 
             v3Path.setExtensions(convert(v2Path.getVendorExtensions()));
@@ -559,27 +610,31 @@ public class SwaggerConverter implements SwaggerParserExtension {
         return v3Path;
     }
 
-    private boolean isRefABodyParam(io.swagger.models.parameters.Parameter param) {
+    private boolean isRefABodyParam(io.swagger.models.parameters.Parameter param, ConversionContext context) {
         if (param instanceof RefParameter) {
             RefParameter refParameter = (RefParameter) param;
             String simpleRef = refParameter.getSimpleRef();
-            io.swagger.models.parameters.Parameter parameter = globalV2Parameters.get(simpleRef);
+            io.swagger.models.parameters.Parameter parameter = context.getGlobalV2Parameter(simpleRef);
             return "body".equals(parameter.getIn());
         }
         return false;
     }
 
-    private boolean isRefAFormParam(io.swagger.models.parameters.Parameter param) {
+    private boolean isRefAFormParam(io.swagger.models.parameters.Parameter param, ConversionContext context) {
         if (param instanceof RefParameter) {
             RefParameter refParameter = (RefParameter) param;
             String simpleRef = refParameter.getSimpleRef();
-            io.swagger.models.parameters.Parameter parameter = globalV2Parameters.get(simpleRef);
+            io.swagger.models.parameters.Parameter parameter = context.getGlobalV2Parameter(simpleRef);
             return "formData".equals(parameter.getIn());
         }
         return false;
     }
 
     public Operation convert(io.swagger.models.Operation v2Operation) {
+        return convert(v2Operation, new ConversionContext());
+    }
+
+    public Operation convert(io.swagger.models.Operation v2Operation, ConversionContext context) {
         Operation operation = new Operation();
         if (StringUtils.isNotBlank(v2Operation.getDescription())) {
             operation.setDescription(v2Operation.getDescription());
@@ -600,14 +655,14 @@ public class SwaggerConverter implements SwaggerParserExtension {
                 if ("formData".equals(param.getIn())) {
                     formParams.add(param);
                 } else if ("body".equals(param.getIn())) {
-                    operation.setRequestBody(convertParameterToRequestBody(param, v2Operation.getConsumes()));
+                    operation.setRequestBody(convertParameterToRequestBody(param, v2Operation.getConsumes(), context));
                     operation.addExtension("x-codegen-request-body-name", param.getName());
                 } else {
-                    Parameter convert = convert(param);
+                    Parameter convert = convert(param, context);
                     String $ref = convert.get$ref();
-                    if ($ref != null && $ref.startsWith("#/components/requestBodies/") && isRefABodyParam(param)) {
+                    if ($ref != null && $ref.startsWith("#/components/requestBodies/") && isRefABodyParam(param, context)) {
                         operation.setRequestBody(new RequestBody().$ref($ref));
-                    } else if ($ref != null && $ref.startsWith("#/components/schemas/") && isRefAFormParam(param)) {
+                    } else if ($ref != null && $ref.startsWith("#/components/schemas/") && isRefAFormParam(param, context)) {
                         formParams.add(param);
                     } else {
                         operation.addParametersItem(convert);
@@ -616,7 +671,7 @@ public class SwaggerConverter implements SwaggerParserExtension {
             }
 
             if (formParams.size() > 0) {
-                RequestBody body = convertFormDataToRequestBody(formParams, v2Operation.getConsumes());
+                RequestBody body = convertFormDataToRequestBody(formParams, v2Operation.getConsumes(), context);
                 body.getContent().forEach((key, content) -> {
                     Schema schema = content.getSchema();
                     if (schema != null && schema.getRequired() != null && schema.getRequired().size() > 0) {
@@ -630,7 +685,7 @@ public class SwaggerConverter implements SwaggerParserExtension {
         if (v2Operation.getResponses() != null) {
             for (String responseCode : v2Operation.getResponses().keySet()) {
                 io.swagger.models.Response v2Response = v2Operation.getResponses().get(responseCode);
-                ApiResponse response = convert(v2Response, v2Operation.getProduces());
+                ApiResponse response = convert(v2Response, v2Operation.getProduces(), context);
                 ApiResponses responses = operation.getResponses();
                 if (responses == null) {
                     responses = new ApiResponses();
@@ -670,7 +725,8 @@ public class SwaggerConverter implements SwaggerParserExtension {
         return convert(sp);
     }
 
-    private RequestBody convertFormDataToRequestBody(List<io.swagger.models.parameters.Parameter> formParams, List<String> consumes) {
+    private RequestBody convertFormDataToRequestBody(List<io.swagger.models.parameters.Parameter> formParams, List<String> consumes,
+                                                     ConversionContext context) {
         RequestBody body = new RequestBody();
 
         Schema<Object> formSchema = new ObjectSchema();
@@ -683,8 +739,8 @@ public class SwaggerConverter implements SwaggerParserExtension {
             if (param instanceof RefParameter) {
                 RefParameter refParameter = (RefParameter) param;
                 String simpleRef = refParameter.getSimpleRef();
-                sp = (SerializableParameter) globalV2Parameters.get(simpleRef);
-                name = components.getSchemas().get("formData_" + simpleRef).getName();
+                sp = (SerializableParameter) context.getGlobalV2Parameter(simpleRef);
+                name = context.getComponents().getSchemas().get("formData_" + simpleRef).getName();
                 schema = new Schema().$ref("#/components/schemas/formData_" + simpleRef);
             } else {
                 sp = (SerializableParameter) param;
@@ -699,7 +755,7 @@ public class SwaggerConverter implements SwaggerParserExtension {
             formSchema.addProperty(name, schema);
         }
 
-        List<String> mediaTypes = new ArrayList<>(globalConsumes);
+        List<String> mediaTypes = new ArrayList<>(context.getGlobalConsumes());
         if (consumes != null && consumes.size() > 0) {
             mediaTypes.clear();
             mediaTypes.addAll(consumes);
@@ -794,15 +850,16 @@ public class SwaggerConverter implements SwaggerParserExtension {
         return schema;
     }
 
-    private RequestBody convertParameterToRequestBody(io.swagger.models.parameters.Parameter param) {
-        return convertParameterToRequestBody(param, null);
+    private RequestBody convertParameterToRequestBody(io.swagger.models.parameters.Parameter param, ConversionContext context) {
+        return convertParameterToRequestBody(param, null, context);
     }
 
-    private RequestBody convertParameterToRequestBody(io.swagger.models.parameters.Parameter param, List<String> consumes) {
+    private RequestBody convertParameterToRequestBody(io.swagger.models.parameters.Parameter param, List<String> consumes,
+                                                      ConversionContext context) {
         RequestBody body = new RequestBody();
         BodyParameter bp = (BodyParameter) param;
 
-        List<String> mediaTypes = new ArrayList<>(globalConsumes);
+        List<String> mediaTypes = new ArrayList<>(context.getGlobalConsumes());
         if (consumes != null && consumes.size() > 0) {
             mediaTypes.clear();
             mediaTypes.addAll(consumes);
@@ -837,6 +894,10 @@ public class SwaggerConverter implements SwaggerParserExtension {
     }
 
     public ApiResponse convert(io.swagger.models.Response v2Response, List<String> produces) {
+        return convert(v2Response, produces, new ConversionContext());
+    }
+
+    public ApiResponse convert(io.swagger.models.Response v2Response, List<String> produces, ConversionContext context) {
         ApiResponse response = new ApiResponse();
         Content content = new Content();
 
@@ -844,14 +905,13 @@ public class SwaggerConverter implements SwaggerParserExtension {
 
             RefResponse ref = (RefResponse) v2Response;
             if (ref.get$ref().indexOf("#/responses") == 0) {
-                String updatedRef = "#/components/responses" + ref.get$ref().substring("#/responses".length());
-                ref.set$ref(updatedRef);
+                response.set$ref("#/components/responses" + ref.get$ref().substring("#/responses".length()));
+            } else {
+                response.set$ref(ref.get$ref());
             }
-
-            response.set$ref(ref.get$ref());
         } else {
 
-            List<String> mediaTypes = new ArrayList<>(globalProduces);
+            List<String> mediaTypes = new ArrayList<>(context.getGlobalProduces());
             if (produces != null) {
                 // use this for media type
                 mediaTypes.clear();
@@ -940,15 +1000,14 @@ public class SwaggerConverter implements SwaggerParserExtension {
 
         if (schema instanceof RefProperty) {
             RefProperty ref = (RefProperty) schema;
+            result = new Schema();
             if (ref.get$ref().indexOf("#/definitions") == 0) {
-                String updatedRef = "#/components/schemas" + ref.get$ref().substring("#/definitions".length());
-                ref.set$ref(updatedRef);
+                result.set$ref("#/components/schemas" + ref.get$ref().substring("#/definitions".length()));
+            } else {
+                result.set$ref(ref.get$ref());
             }
-
-            result = new Schema();
-            result.set$ref(ref.get$ref());
         } else if (schema instanceof ArrayProperty) {
-            ArraySchema arraySchema = Json.mapper().convertValue(schema, ArraySchema.class);
+            ArraySchema arraySchema = SchemaMapper.toSchema(schema, ArraySchema.class);
 
             Property items = ((ArrayProperty) schema).getItems();
             Schema itemsSchema = convert(items);
@@ -967,11 +1026,13 @@ public class SwaggerConverter implements SwaggerParserExtension {
             result = arraySchema;
 
         } else if (schema instanceof FileProperty) {
-            result = Json.mapper().convertValue(schema, FileSchema.class);
+            result = SchemaMapper.toSchema(schema, FileSchema.class);
 
         }else {
 
-            result = Json.mapper().convertValue(schema, Schema.class);
+            result = SchemaMapper.toSchema(schema);
+            // converted as a whole, with its nested references to definitions as they are
+            rewriteDefinitionRefs(result, Collections.newSetFromMap(new IdentityHashMap<>()));
             if (schema.getExample() != null) {
                 result.setExample(schema.getExample());
             }
@@ -1025,6 +1086,11 @@ public class SwaggerConverter implements SwaggerParserExtension {
     }
 
     public Parameter convert(io.swagger.models.parameters.Parameter v2Parameter) {
+        return convert(v2Parameter, new ConversionContext());
+    }
+
+    public Parameter convert(io.swagger.models.parameters.Parameter v2Parameter, ConversionContext context) {
+        Components components = context.getComponents();
         Parameter v3Parameter = new Parameter();
 
         if (StringUtils.isNotBlank(v2Parameter.getDescription())) {
@@ -1057,10 +1123,10 @@ public class SwaggerConverter implements SwaggerParserExtension {
                     updatedRef += "parameters";
                 }
                 updatedRef += ref.get$ref().substring("#/parameters".length());
-                ref.set$ref(updatedRef);
+                v3Parameter.set$ref(updatedRef);
+            } else {
+                v3Parameter.set$ref(ref.get$ref());
             }
-
-            v3Parameter.set$ref(ref.get$ref());
         } else if (v2Parameter instanceof SerializableParameter) {
             SerializableParameter sp = (SerializableParameter) v2Parameter;
 
@@ -1190,7 +1256,7 @@ public class SwaggerConverter implements SwaggerParserExtension {
         Schema result;
 
         if (v2Model instanceof ArrayModel) {
-            ArraySchema arraySchema = Json.mapper().convertValue(v2Model, ArraySchema.class);
+            ArraySchema arraySchema = SchemaMapper.toSchema(v2Model, ArraySchema.class);
 
             arraySchema.setItems(convert(((ArrayModel) v2Model).getItems()));
 
@@ -1217,15 +1283,12 @@ public class SwaggerConverter implements SwaggerParserExtension {
             String v2discriminator = null;
 
             if (v2Model instanceof ModelImpl) {
-                ModelImpl model = (ModelImpl) v2Model;
-
-                v2discriminator = model.getDiscriminator();
-                model.setDiscriminator(null);
+                v2discriminator = ((ModelImpl) v2Model).getDiscriminator();
             }
             if (v2Model instanceof ModelImpl && ("file".equals(((ModelImpl)v2Model).getType()))) {
-                result = Json.mapper().convertValue(v2Model, FileSchema.class);
+                result = SchemaMapper.toSchema(v2Model, FileSchema.class);
             } else {
-                result = Json.mapper().convertValue(v2Model, Schema.class);
+                result = SchemaMapper.toSchema(v2Model);
             }
             addProperties(v2Model, result);
 
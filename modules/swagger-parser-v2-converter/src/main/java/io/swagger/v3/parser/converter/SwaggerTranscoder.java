@@ -0,0 +1,284 @@
+package io.swagger.v3.parser.converter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.swagger.models.Model;
+import io.swagger.models.Swagger;
+import io.swagger.parser.util.SwaggerDeserializationResult;
+import io.swagger.parser.util.SwaggerDeserializer;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DeserializationUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts Swagger 2.0 definitions to OpenAPI 3.0 as text one entry at a time, without holding the whole definition
+ * in memory, for bulk migrations which only need the converted text. Each entry is still read into the Swagger 2.0
+ * model, converted to the OpenAPI 3.0 model and written from it; only the definition as a whole is never held.
+ *
+ * The definition is read three times from its {@link Source}. The first pass reads every root entry but the paths and
+ * definitions, which are skipped: these entries are the global context the paths are converted with, such as the
+ * global {@code consumes}, {@code produces} and parameters, and are converted at once as {@link SwaggerConverter}
+ * does. The second and third passes read the paths and definitions one entry at a time, convert each with the global
+ * context, with the references to definitions pointing to the schemas of the components, and write it before reading
+ * the next one. Memory is then proportional to the global entries and the largest path or definition, rather than to
+ * the definition.
+ *
+ * The output is the same as converting the tree of the definition with {@link SwaggerConverter}, without resolving
+ * it, and writing it with {@link Json#mapper()}, but for the order of the messages. To write numbers as the mapper
+ * does, create the generator with {@code Json.mapper().createGenerator(...)}, or with {@link io.swagger.v3.core.util.Yaml}
+ * for YAML. YAML files are read with the YAML parser of Jackson, which may type some unquoted scalars differently
+ * from the parser of the Swagger 2.0 definitions.
+ *
+ * Instances hold no state and can be shared by concurrent callers.
+ */
+public class SwaggerTranscoder {
+
+    /**
+     * Opens a new parser over the definition, for each pass.
+     */
+    @FunctionalInterface
+    public interface Source {
+        JsonParser open() throws IOException;
+    }
+
+    private static final String PATHS = "paths";
+    private static final String DEFINITIONS = "definitions";
+    private static final String COMPONENTS = "components";
+    private static final String SCHEMAS = "schemas";
+
+    private final SwaggerConverter converter;
+
+    public SwaggerTranscoder() {
+        this(new SwaggerConverter());
+    }
+
+    public SwaggerTranscoder(SwaggerConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * Converts a JSON or YAML file.
+     *
+     * @see #transcode(Source, JsonGenerator)
+     */
+    public List<String> transcode(Path file, JsonGenerator generator) throws IOException {
+        final JsonFactory factory = isJson(file) ? Json.mapper().getFactory()
+                : YAMLFactory.builder().loaderOptions(DeserializationUtils.buildLoaderOptions()).build();
+        return transcode(() -> factory.createParser(file.toFile()), generator);
+    }
+
+    /**
+     * Writes the OpenAPI 3.0 conversion of the definition to the generator, which is neither flushed nor closed.
+     * Nothing is written if the definition can't be converted, as when it is not an object.
+     *
+     * @return the messages of reading the definition
+     * @throws IOException if the definition can't be read or parsed, or the conversion written
+     */
+    public List<String> transcode(Source source, JsonGenerator generator) throws IOException {
+        final Globals globals = readGlobals(source);
+        final SwaggerParseResult converted = converter.convert(globals.result);
+        final List<String> messages = converted.getMessages() == null ? new ArrayList<>() : new ArrayList<>(converted.getMessages());
+        final OpenAPI openAPI = converted.getOpenAPI();
+        if (openAPI == null) {
+            return messages;
+        }
+        final Swagger swagger = globals.result.getSwagger();
+        final ConversionContext context = new ConversionContext(swagger, openAPI.getComponents());
+
+        final ObjectNode root = Json.mapper().valueToTree(openAPI);
+        if (globals.definitions && !root.has(COMPONENTS)) {
+            root.putObject(COMPONENTS);
+        }
+        generator.writeStartObject();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = root.fields(); fields.hasNext(); ) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            generator.writeFieldName(field.getKey());
+            if (PATHS.equals(field.getKey()) && globals.paths) {
+                writePaths(source, generator, context, messages);
+            } else if (COMPONENTS.equals(field.getKey()) && globals.definitions) {
+                writeComponents((ObjectNode) field.getValue(), source, generator, messages);
+            } else {
+                generator.writeTree(field.getValue());
+            }
+        }
+        generator.writeEndObject();
+        return messages;
+    }
+
+    /**
+     * Reads the root entries but the paths and definitions, which are only noted when they are objects, as they
+     * would then be converted entry by entry. Others, which are invalid, are read to be reported as usual.
+     */
+    private Globals readGlobals(Source source) throws IOException {
+        final Globals globals = new Globals();
+        try (JsonParser parser = source.open()) {
+            final JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT) {
+                final JsonNode node = token == null ? null : Json.mapper().readTree(parser);
+                globals.result = new SwaggerDeserializer().deserialize(node);
+                return globals;
+            }
+            final ObjectNode root = Json.mapper().createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && (PATHS.equals(name) || DEFINITIONS.equals(name))) {
+                    parser.skipChildren();
+                    if (PATHS.equals(name)) {
+                        // present, for the definition to be as valid as with its paths
+                        root.putObject(PATHS);
+                        globals.paths = true;
+                    } else {
+                        globals.definitions = true;
+                    }
+                } else {
+                    root.set(name, Json.mapper().readTree(parser));
+                }
+            }
+            globals.result = new SwaggerDeserializer().deserialize(root);
+        }
+        return globals;
+    }
+
+    private void writePaths(Source source, JsonGenerator generator, ConversionContext context, List<String> messages)
+            throws IOException {
+        generator.writeStartObject();
+        forEachEntry(source, PATHS, entry -> {
+            final Map<String, io.swagger.models.Path> paths = new EntryDeserializer().paths(entry, messages);
+            for (Map.Entry<String, io.swagger.models.Path> path : paths.entrySet()) {
+                final PathItem pathItem = converter.convert(path.getValue(), context);
+                generator.writeFieldName(path.getKey());
+                Json.mapper().writeValue(generator, pathItem);
+            }
+        });
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the components converted with the global entries, with the definitions converted one by one after the
+     * schemas converted from global form parameters, as {@link SwaggerConverter} adds them.
+     */
+    private void writeComponents(ObjectNode components, Source source, JsonGenerator generator, List<String> messages)
+            throws IOException {
+        generator.writeStartObject();
+        final JsonNode schemas = components.get(SCHEMAS);
+        final boolean[] started = {schemas != null};
+        if (schemas != null) {
+            generator.writeFieldName(SCHEMAS);
+            generator.writeStartObject();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = schemas.fields(); fields.hasNext(); ) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+        }
+        forEachEntry(source, DEFINITIONS, entry -> {
+            final Map<String, Model> definitions = new EntryDeserializer().definitions(entry, messages);
+            for (Map.Entry<String, Model> definition : definitions.entrySet()) {
+                final Schema schema = converter.convert(definition.getValue());
+                if (!started[0]) {
+                    generator.writeFieldName(SCHEMAS);
+                    generator.writeStartObject();
+                    started[0] = true;
+                }
+                generator.writeFieldName(definition.getKey());
+                Json.mapper().writeValue(generator, schema);
+            }
+        });
+        if (started[0]) {
+            generator.writeEndObject();
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = components.fields(); fields.hasNext(); ) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            if (!SCHEMAS.equals(field.getKey())) {
+                generator.writeFieldName(field.getKey());
+                generator.writeTree(field.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads the entries of the root object entry {@code name}, which was found to be an object, each one on its own.
+     */
+    private static void forEachEntry(Source source, String name, EntryConsumer consumer) throws IOException {
+        try (JsonParser parser = source.open()) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if (!name.equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final ObjectNode entry = Json.mapper().createObjectNode();
+                    final String key = parser.getCurrentName();
+                    parser.nextToken();
+                    entry.set(key, Json.mapper().readTree(parser));
+                    consumer.accept(entry);
+                }
+                return;
+            }
+        }
+    }
+
+    private static boolean isJson(Path file) throws IOException {
+        final byte[] head = new byte[1024];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; length < head.length && (read = in.read(head, length, head.length - length)) != -1; ) {
+                length += read;
+            }
+        }
+        return DeserializationUtils.isJson(ByteBuffer.wrap(head, 0, length));
+    }
+
+    /**
+     * Reads an entry of the paths or definitions as {@link SwaggerDeserializer} reads them in a whole definition.
+     */
+    private static final class EntryDeserializer extends SwaggerDeserializer {
+
+        Map<String, io.swagger.models.Path> paths(ObjectNode entry, List<String> messages) {
+            final ParseResult result = new ParseResult();
+            final Map<String, io.swagger.models.Path> paths = paths(entry, PATHS, result);
+            messages.addAll(result.getMessages());
+            return paths;
+        }
+
+        Map<String, Model> definitions(ObjectNode entry, List<String> messages) {
+            final ParseResult result = new ParseResult();
+            final Map<String, Model> definitions = definitions(entry, DEFINITIONS, result);
+            messages.addAll(result.getMessages());
+            return definitions;
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer {
+        void accept(ObjectNode entry) throws IOException;
+    }
+
+    private static final class Globals {
+        private SwaggerDeserializationResult result;
+        private boolean paths;
+        private boolean definitions;
+    }
+}
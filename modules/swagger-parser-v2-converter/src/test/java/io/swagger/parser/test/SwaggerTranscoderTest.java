@@ -0,0 +1,129 @@
+package io.swagger.parser.test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.parser.Swagger20Parser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.converter.SwaggerConverter;
+import io.swagger.v3.parser.converter.SwaggerTranscoder;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class SwaggerTranscoderTest {
+
+    @DataProvider
+    public Object[][] testResourceFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("src/test/resources"))) {
+            return files.map(path -> path.getFileName().toString()).sorted()
+                    .map(file -> new Object[]{file}).toArray(Object[][]::new);
+        }
+    }
+
+    @Test(dataProvider = "testResourceFiles", description = "transcoding gives the converted definition")
+    public void testTranscodeMatchesConverter(String file) throws Exception {
+        Path path = Paths.get("src/test/resources/" + file);
+        JsonNode tree = (file.endsWith(".json") ? Json.mapper() : Yaml.mapper()).readTree(path.toFile());
+        SwaggerParseResult expected = new SwaggerConverter().convert(new Swagger20Parser().readWithInfo(tree));
+
+        StringWriter output = new StringWriter();
+        List<String> messages;
+        try (JsonGenerator generator = Json.mapper().createGenerator(output)) {
+            messages = new SwaggerTranscoder().transcode(path, generator);
+        }
+
+        assertEquals(new HashSet<>(messages), new HashSet<>(expected.getMessages()));
+        if (expected.getOpenAPI() == null) {
+            assertEquals(output.toString(), "");
+        } else {
+            assertEquals(Json.mapper().readTree(output.toString()), Json.mapper().readTree(Json.mapper().writeValueAsString(expected.getOpenAPI())));
+        }
+    }
+
+    @Test(description = "paths and definitions are converted with the global entries following them")
+    public void testGlobalEntriesAfterPaths() throws Exception {
+        String definition = "{\"definitions\":{\"Pet\":{\"type\":\"object\",\"properties\":{"
+                + "\"tags\":{\"type\":\"array\",\"items\":{\"$ref\":\"#/definitions/Tag\"}}}},"
+                + "\"Tag\":{\"type\":\"string\"}},"
+                + "\"paths\":{\"/pets\":{\"post\":{\"parameters\":[{\"$ref\":\"#/parameters/pet\"}],"
+                + "\"responses\":{\"200\":{\"description\":\"ok\",\"schema\":{\"$ref\":\"#/definitions/Pet\"}}}}}},"
+                + "\"swagger\":\"2.0\",\"info\":{\"title\":\"pets\",\"version\":\"1\"},"
+                + "\"consumes\":[\"application/xml\"],\"produces\":[\"application/xml\"],"
+                + "\"parameters\":{\"pet\":{\"name\":\"pet\",\"in\":\"body\",\"schema\":{\"$ref\":\"#/definitions/Pet\"}}}}";
+
+        JsonNode transcoded = Json.mapper().readTree(transcode(definition));
+
+        OpenAPI converted = new SwaggerConverter().convert(new Swagger20Parser().readWithInfo(Json.mapper().readTree(definition)))
+                .getOpenAPI();
+        assertEquals(transcoded, Json.mapper().readTree(Json.mapper().writeValueAsString(converted)));
+        assertEquals(transcoded.at("/paths/~1pets/post/requestBody/$ref").asText(), "#/components/requestBodies/pet");
+        assertTrue(transcoded.at("/paths/~1pets/post/responses/200/content/application~1xml/schema").has("$ref"));
+        assertEquals(transcoded.at("/components/schemas/Pet/properties/tags/items/$ref").asText(), "#/components/schemas/Tag");
+    }
+
+    @Test(description = "the definition is read entry by entry, once for each pass")
+    public void testReadsEachPass() throws Exception {
+        String definition = new String(Files.readAllBytes(Paths.get("src/test/resources/petstore.json")), "UTF-8");
+        AtomicInteger opened = new AtomicInteger();
+        StringWriter output = new StringWriter();
+        try (JsonGenerator generator = Json.mapper().createGenerator(output)) {
+            new SwaggerTranscoder().transcode(() -> {
+                opened.incrementAndGet();
+                return Json.mapper().getFactory().createParser(definition);
+            }, generator);
+        }
+
+        assertEquals(opened.get(), 3);
+        assertEquals(Json.mapper().readTree(output.toString()), Json.mapper().readTree(transcode(definition)));
+    }
+
+    @Test(description = "YAML is read and written")
+    public void testYaml() throws Exception {
+        StringWriter output = new StringWriter();
+        try (JsonGenerator generator = Yaml.mapper().createGenerator(output)) {
+            new SwaggerTranscoder().transcode(Paths.get("src/test/resources/petstore.yaml"), generator);
+        }
+
+        OpenAPI converted = new SwaggerConverter().convert(
+                new Swagger20Parser().readWithInfo(Yaml.mapper().readTree(new File("src/test/resources/petstore.yaml")))).getOpenAPI();
+        assertEquals(Yaml.mapper().readTree(output.toString()), Yaml.mapper().readTree(Yaml.mapper().writeValueAsString(converted)));
+    }
+
+    @Test(description = "a definition which is not an object is reported, and nothing written")
+    public void testNotAnObject() throws Exception {
+        StringWriter output = new StringWriter();
+        List<String> messages;
+        try (JsonGenerator generator = Json.mapper().createGenerator(output)) {
+            messages = new SwaggerTranscoder().transcode(() -> Json.mapper().getFactory().createParser("[1, 2]"), generator);
+        }
+
+        assertEquals(output.toString(), "");
+        assertEquals(messages, new ArrayList<>(new SwaggerConverter().convert(
+                new Swagger20Parser().readWithInfo(Json.mapper().readTree("[1, 2]"))).getMessages()));
+    }
+
+    private static String transcode(String definition) throws IOException {
+        StringWriter output = new StringWriter();
+        try (JsonGenerator generator = Json.mapper().createGenerator(output)) {
+            new SwaggerTranscoder().transcode(() -> Json.mapper().getFactory().createParser(definition), generator);
+        }
+        return output.toString();
+    }
+}
@@ -1,6 +1,11 @@
 package io.swagger.parser.test;
 
+import io.swagger.models.properties.ComposedProperty;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.util.SwaggerDeserializationResult;
 import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -22,6 +27,7 @@ import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
@@ -31,8 +37,15 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -1002,4 +1015,128 @@ public class V2ConverterTest {
         Assert.assertNull(openAPI);
     }
 
+    @DataProvider
+    public Object[][] flattenParity() throws Exception {
+        List<Object[]> data = new ArrayList<>();
+        for (String file : testResources()) {
+            data.add(new Object[]{file, false, false});
+            data.add(new Object[]{file, true, false});
+            data.add(new Object[]{file, false, true});
+        }
+        return data.toArray(new Object[0][]);
+    }
+
+    private static List<String> testResources() throws IOException {
+        try (Stream<java.nio.file.Path> files = Files.list(Paths.get("src/test/resources"))) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test(dataProvider = "flattenParity", description = "flattening in memory matches parsing the converted definition again")
+    public void testFlattenMatchesRoundTrip(String file, boolean resolveFully, boolean flattenComposedSchemas) throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        options.setFlattenComposedSchemas(flattenComposedSchemas);
+        SwaggerParseResult converted = new SwaggerConverter().readLocation("src/test/resources/" + file, null, options);
+        options.setResolveFully(resolveFully);
+        options.setFlatten(true);
+        SwaggerParseResult flattened = new SwaggerConverter().readLocation("src/test/resources/" + file, null, options);
+        if (converted.getOpenAPI() == null) {
+            assertNull(flattened.getOpenAPI());
+            return;
+        }
+
+        // the v3 parser resolves fully the converted definition itself, as done in memory
+        SwaggerParseResult roundTrip = new OpenAPIV3Parser().readContents(Yaml.pretty(converted.getOpenAPI()), null, options);
+        assertEquals(Yaml.pretty(flattened.getOpenAPI()), Yaml.pretty(roundTrip.getOpenAPI()));
+    }
+
+    @DataProvider
+    public Object[][] testResourceFiles() throws Exception {
+        return testResources().stream().map(file -> new Object[]{file}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "testResourceFiles", description = "converting in parallel gives the same output, in the same order")
+    public void testParallelConversionMatchesSequential(String file) throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        SwaggerParseResult sequential = new SwaggerConverter().readLocation("src/test/resources/" + file, null, options);
+        options.setParallelConversion(true);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SwaggerParseResult parallel = new SwaggerConverter(pool).readLocation("src/test/resources/" + file, null, options);
+
+            assertEquals(Yaml.pretty(parallel.getOpenAPI()), Yaml.pretty(sequential.getOpenAPI()));
+            assertEquals(parallel.getMessages(), sequential.getMessages());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(description = "a converter can be shared by concurrent conversions")
+    public void testSharedConverter() throws Exception {
+        List<String> files = testResources();
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        List<String> expected = new ArrayList<>();
+        for (String file : files) {
+            expected.add(Yaml.pretty(new SwaggerConverter().readLocation("src/test/resources/" + file, null, options).getOpenAPI()));
+        }
+
+        SwaggerConverter converter = new SwaggerConverter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int round = 0; round < 4; round++) {
+                for (String file : files) {
+                    futures.add(executor.submit(() ->
+                            Yaml.pretty(converter.readLocation("src/test/resources/" + file, null, options).getOpenAPI())));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(futures.get(i).get(), expected.get(i % files.size()), files.get(i % files.size()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(description = "the references of the converted v2 model are left as they are")
+    public void testV2ModelNotMutated() throws Exception {
+        String contents = new String(Files.readAllBytes(Paths.get("src/test/resources/" + ISSUE_1261_YAML)));
+        SwaggerDeserializationResult parse = new SwaggerParser().readWithInfo(contents);
+        Map<String, io.swagger.models.properties.Property> bar = parse.getSwagger().getDefinitions().get("Bar").getProperties();
+
+        OpenAPI openAPI = new SwaggerConverter().convert(parse).getOpenAPI();
+
+        assertEquals(((RefProperty) bar.get("bar1")).get$ref(), "#/definitions/Foo");
+        assertEquals(((RefProperty) ((ComposedProperty) bar.get("bar2")).getAllOf().get(0)).get$ref(), "#/definitions/Foo");
+        Map<String, Schema> properties = openAPI.getComponents().getSchemas().get("Bar").getProperties();
+        assertEquals(properties.get("bar1").get$ref(), "#/components/schemas/Foo");
+        assertEquals(((ComposedSchema) properties.get("bar2")).getAllOf().get(0).get$ref(), "#/components/schemas/Foo");
+    }
+
+    @Test(description = "the global media types of a definition don't leak into the next one converted")
+    public void testReusedConverter() throws Exception {
+        SwaggerConverter converter = new SwaggerConverter();
+        String withConsumes = "swagger: '2.0'\n" +
+                "info: {title: t, version: '1'}\n" +
+                "consumes: [application/xml]\n" +
+                "paths: {}\n";
+        String withoutConsumes = "swagger: '2.0'\n" +
+                "info: {title: t, version: '1'}\n" +
+                "paths:\n" +
+                "  /pets:\n" +
+                "    post:\n" +
+                "      parameters:\n" +
+                "      - {name: body, in: body, schema: {type: string}}\n" +
+                "      responses:\n" +
+                "        '200': {description: ok}\n";
+
+        converter.readContents(withConsumes, null, null);
+        OpenAPI openAPI = converter.readContents(withoutConsumes, null, null).getOpenAPI();
+
+        assertEquals(openAPI.getPaths().get("/pets").getPost().getRequestBody().getContent().keySet(),
+                Collections.singleton("*/*"));
+    }
 }
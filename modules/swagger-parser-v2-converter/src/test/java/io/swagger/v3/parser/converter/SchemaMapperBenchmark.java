@@ -0,0 +1,121 @@
+package io.swagger.v3.parser.converter;
+
+import io.swagger.models.Model;
+import io.swagger.models.properties.Property;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.util.SwaggerDeserializationResult;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SchemaMapper} against the {@code Json.mapper().convertValue(...)} it replaces, mapping every
+ * definition and property of a generated Swagger 2.0 document with {@code size} definitions, and measures the whole
+ * conversion of the document with {@link SwaggerConverter}.
+ *
+ * Run with {@code mvn test-compile} followed by executing {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchemaMapperBenchmark {
+
+    @Param({"200", "1000"})
+    public int size;
+
+    private SwaggerDeserializationResult parse;
+    private Collection<Model> models;
+    private List<Property> properties;
+
+    @Setup
+    public void setUp() {
+        StringBuilder spec = new StringBuilder("{\"swagger\":\"2.0\",\"info\":{\"title\":\"mapping\",\"version\":\"1\"},\"paths\":{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                spec.append(',');
+            }
+            spec.append("\"/items").append(i).append("\":{\"get\":{\"produces\":[\"application/json\"],")
+                    .append("\"parameters\":[{\"name\":\"limit\",\"in\":\"query\",\"type\":\"integer\",\"minimum\":1}],")
+                    .append("\"responses\":{\"200\":{\"description\":\"ok\",\"schema\":{\"type\":\"array\",")
+                    .append("\"items\":{\"$ref\":\"#/definitions/Item").append(i).append("\"}}}}}}");
+        }
+        spec.append("},\"definitions\":{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                spec.append(',');
+            }
+            spec.append("\"Item").append(i).append("\":{\"type\":\"object\",\"required\":[\"id\",\"name\"],")
+                    .append("\"description\":\"item ").append(i).append("\",\"x-item\":").append(i).append(",\"properties\":{")
+                    .append("\"id\":{\"type\":\"integer\",\"format\":\"int64\",\"minimum\":0,\"example\":").append(i).append("},")
+                    .append("\"name\":{\"type\":\"string\",\"minLength\":1,\"maxLength\":64,\"pattern\":\"^[a-z]+$\"},")
+                    .append("\"status\":{\"type\":\"string\",\"enum\":[\"available\",\"pending\",\"sold\"],\"default\":\"available\"},")
+                    .append("\"price\":{\"type\":\"number\",\"format\":\"double\",\"exclusiveMinimum\":true,\"minimum\":0},")
+                    .append("\"created\":{\"type\":\"string\",\"format\":\"date-time\",\"readOnly\":true},")
+                    .append("\"tags\":{\"type\":\"array\",\"items\":{\"type\":\"string\"},\"uniqueItems\":true,\"xml\":{\"wrapped\":true}},")
+                    .append("\"attributes\":{\"type\":\"object\",\"additionalProperties\":{\"type\":\"string\"}},")
+                    .append("\"dimensions\":{\"type\":\"object\",\"required\":[\"width\"],\"properties\":{")
+                    .append("\"width\":{\"type\":\"number\"},\"height\":{\"type\":\"number\"}}},")
+                    .append("\"parent\":{\"$ref\":\"#/definitions/Item").append((i + 1) % size).append("\"}}}");
+        }
+        spec.append("}}");
+        parse = new SwaggerParser().readWithInfo(spec.toString());
+        models = parse.getSwagger().getDefinitions().values();
+        properties = new ArrayList<>();
+        for (Model model : models) {
+            properties.addAll(model.getProperties().values());
+        }
+    }
+
+    @Benchmark
+    public void schemaMapper(Blackhole blackhole) {
+        for (Model model : models) {
+            blackhole.consume(SchemaMapper.toSchema(model));
+        }
+        for (Property property : properties) {
+            blackhole.consume(SchemaMapper.toSchema(property));
+        }
+    }
+
+    @Benchmark
+    public void convertValue(Blackhole blackhole) {
+        for (Model model : models) {
+            blackhole.consume(Json.mapper().convertValue(model, Schema.class));
+        }
+        for (Property property : properties) {
+            blackhole.consume(Json.mapper().convertValue(property, Schema.class));
+        }
+    }
+
+    @Benchmark
+    public SwaggerParseResult convert() throws Exception {
+        return new SwaggerConverter().convert(parse);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SchemaMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,336 @@
+package io.swagger.v3.parser.converter;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.ExternalDocs;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.Xml;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.BaseIntegerProperty;
+import io.swagger.models.properties.BinaryProperty;
+import io.swagger.models.properties.BooleanProperty;
+import io.swagger.models.properties.ByteArrayProperty;
+import io.swagger.models.properties.DateProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.DecimalProperty;
+import io.swagger.models.properties.DoubleProperty;
+import io.swagger.models.properties.EmailProperty;
+import io.swagger.models.properties.FileProperty;
+import io.swagger.models.properties.FloatProperty;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.PasswordProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.models.properties.UUIDProperty;
+import io.swagger.models.properties.UntypedProperty;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.FileSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+public class SchemaMapperTest {
+
+    @DataProvider
+    public Object[][] testResourceFiles() throws IOException {
+        try (Stream<java.nio.file.Path> files = Files.list(Paths.get("src/test/resources"))) {
+            return files.map(path -> path.getFileName().toString()).sorted()
+                    .map(file -> new Object[]{file}).toArray(Object[][]::new);
+        }
+    }
+
+    @Test(dataProvider = "testResourceFiles", description = "every property and model of a definition maps as Jackson converts it")
+    public void testTestResources(String file) {
+        Swagger swagger = new SwaggerParser().read("src/test/resources/" + file, null, false);
+        if (swagger == null) {
+            return;
+        }
+        List<Property> properties = new ArrayList<>();
+        List<Model> models = new ArrayList<>();
+        if (swagger.getDefinitions() != null) {
+            swagger.getDefinitions().values().forEach(model -> collect(model, properties, models));
+        }
+        if (swagger.getResponses() != null) {
+            swagger.getResponses().values().forEach(response -> collect(response, properties, models));
+        }
+        if (swagger.getParameters() != null) {
+            swagger.getParameters().values().forEach(parameter -> collect(parameter, properties, models));
+        }
+        if (swagger.getPaths() != null) {
+            for (Path path : swagger.getPaths().values()) {
+                for (Operation operation : path.getOperations()) {
+                    if (operation.getParameters() != null) {
+                        operation.getParameters().forEach(parameter -> collect(parameter, properties, models));
+                    }
+                    if (operation.getResponses() != null) {
+                        operation.getResponses().values().forEach(response -> collect(response, properties, models));
+                    }
+                }
+            }
+        }
+
+        properties.forEach(SchemaMapperTest::assertMapped);
+        for (Model model : models) {
+            if (model instanceof ArrayModel) {
+                assertMapped(model, ArraySchema.class);
+            } else if (!(model instanceof ComposedModel)) {
+                assertMapped(model);
+            }
+        }
+    }
+
+    @Test(description = "all the fields of a property are mapped")
+    public void testProperties() {
+        BinaryProperty binary = new BinaryProperty().minLength(1).maxLength(2).pattern("[01]+")._default("1");
+        binary.setEnum(Arrays.asList("0", "1"));
+        ObjectProperty empty = new ObjectProperty().description("empty");
+        empty.setType("object");
+        MapProperty map = new MapProperty(new IntegerProperty());
+        map.setMinProperties(1);
+        map.setMaxProperties(3);
+        ArrayProperty array = new ArrayProperty(new StringProperty()).uniqueItems();
+        array.setMinItems(1);
+        array.setMaxItems(2);
+        StringProperty extended = string(new StringProperty()).example("text").xml(xml())
+                .vendorExtension("x-string", "value")
+                .vendorExtension("x-object", Collections.singletonMap("a", Arrays.asList(1, 2.5, "b")))
+                .vendorExtension("x-long", 1L)
+                .vendorExtension("invalid", "dropped");
+
+        List<Property> properties = Arrays.asList(
+                extended,
+                string(new EmailProperty()),
+                string(new ByteArrayProperty()),
+                string(new StringProperty(StringProperty.Format.URI)),
+                new PasswordProperty().minLength(1).maxLength(20)._enum("secret")._default("secret"),
+                binary,
+                new UUIDProperty().minLength(36).maxLength(36)._enum("7c3a3e4c-6e5c-4b89-b3a1-0cce3e1d4d36")
+                        ._default("7c3a3e4c-6e5c-4b89-b3a1-0cce3e1d4d36"),
+                new DateProperty()._enum(Arrays.asList("2020-01-01", "2020-12-31")),
+                new DateTimeProperty()._enum(Arrays.asList("2020-01-01T00:00:00Z")),
+                numeric(new IntegerProperty()._enum(1)._enum(2)._default(1)).example(3),
+                numeric(new LongProperty()._enum(1L)._default(2L)).example(4L),
+                numeric(new FloatProperty()._enum(1.5f)._default(2.5f)).example(1.5f),
+                numeric(new DoubleProperty()._enum(1.5)._default(2.5)).example(1.5),
+                numeric(new DecimalProperty()),
+                numeric(new BaseIntegerProperty()),
+                new BooleanProperty()._default(true)._enum(true).readOnly(),
+                new FileProperty().description("file"),
+                new UntypedProperty().title("untyped"),
+                new ObjectProperty(properties()).required(true).title("object"),
+                object(),
+                empty,
+                map,
+                new MapProperty().description("no additional properties"),
+                array,
+                new ArrayProperty(new ArrayProperty(object())),
+                new RefProperty("#/definitions/Pet"),
+                new RefProperty("Pet").description("dropped"));
+
+        properties.forEach(SchemaMapperTest::assertMapped);
+        for (Property property : properties) {
+            if (property instanceof ArrayProperty) {
+                assertMapped(property, ArraySchema.class);
+            } else if (property instanceof FileProperty) {
+                assertMapped(property, FileSchema.class);
+            }
+        }
+    }
+
+    @Test(description = "all the fields of a model are mapped")
+    public void testModels() {
+        ModelImpl model = new ModelImpl()
+                .type("object")
+                .description("model")
+                .discriminator("a")
+                .example(Collections.singletonMap("a", "b"))
+                .xml(xml());
+        model.setTitle("title");
+        model.setProperties(properties());
+        model.setRequired(Arrays.asList("a", "missing"));
+        model.setExternalDocs(new ExternalDocs("docs", "http://example.com"));
+        model.getExternalDocs().setVendorExtension("x-docs", 1);
+        model.setVendorExtension("x-model", true);
+        model.setUniqueItems(true);
+
+        ModelImpl number = new ModelImpl().type("number").format("double");
+        number.setMinimum(BigDecimal.ONE);
+        number.setMaximum(BigDecimal.TEN);
+        number.setExclusiveMinimum(true);
+        number.setExclusiveMaximum(false);
+        number.setMultipleOf(new BigDecimal("0.5"));
+        number.setEnum(Arrays.asList("1", "2.5"));
+        number.setDefaultValue("2");
+
+        ModelImpl string = new ModelImpl().type("string").format("date-time");
+        string.setMinLength(1);
+        string.setMaxLength(30);
+        string.setPattern(".*");
+        string.setEnum(Collections.singletonList("2020-01-01T00:00:00Z"));
+
+        ModelImpl integer = new ModelImpl().type("integer");
+        integer.setEnum(Arrays.asList("1", "2"));
+
+        ModelImpl map = new ModelImpl().additionalProperties(new StringProperty());
+        ModelImpl typedMap = new ModelImpl().type("object").additionalProperties(new ObjectProperty(properties()));
+
+        ArrayModel array = new ArrayModel().items(object()).description("array");
+        array.setTitle("title");
+        array.setProperties(properties());
+        array.setRequired(Arrays.asList("a", "missing"));
+        array.setMinItems(1);
+        array.setMaxItems(3);
+        array.setUniqueItems(true);
+        array.setExample(Arrays.asList("a", "b"));
+        array.setXml(xml());
+        array.setVendorExtension("x-array", "value");
+
+        List<Model> models = Arrays.asList(model, number, string, integer, map, typedMap,
+                new ModelImpl(), new ModelImpl().type("unknown"), new ModelImpl().type("file"),
+                new RefModel("#/definitions/Pet"), new RefModel("Pet"));
+
+        models.forEach(SchemaMapperTest::assertMapped);
+        assertMapped(model, FileSchema.class);
+        assertMapped(array, ArraySchema.class);
+        assertMapped(new ArrayModel(), ArraySchema.class);
+    }
+
+    private static void assertMapped(Property property) {
+        Schema expected = Json.mapper().convertValue(property, Schema.class);
+        assertMapped(SchemaMapper.toSchema(property), expected);
+    }
+
+    private static void assertMapped(Property property, Class<? extends Schema> type) {
+        assertMapped(SchemaMapper.toSchema(property, type), Json.mapper().convertValue(property, type));
+    }
+
+    private static void assertMapped(Model model) {
+        assertMapped(SchemaMapper.toSchema(model), Json.mapper().convertValue(withoutDiscriminator(model), Schema.class));
+    }
+
+    private static void assertMapped(Model model, Class<? extends Schema> type) {
+        assertMapped(SchemaMapper.toSchema(model, type), Json.mapper().convertValue(withoutDiscriminator(model), type));
+    }
+
+    private static void assertMapped(Schema actual, Schema expected) {
+        assertEquals(actual, expected);
+        if (expected != null) {
+            assertEquals(actual.getClass(), expected.getClass());
+            assertEquals(Json.pretty(actual), Json.pretty(expected));
+        }
+    }
+
+    private static Object withoutDiscriminator(Model model) {
+        ObjectNode node = Json.mapper().valueToTree(model);
+        node.remove("discriminator");
+        return node;
+    }
+
+    private static void collect(Parameter parameter, List<Property> properties, List<Model> models) {
+        if (parameter instanceof BodyParameter) {
+            collect(((BodyParameter) parameter).getSchema(), properties, models);
+        }
+    }
+
+    private static void collect(Response response, List<Property> properties, List<Model> models) {
+        collect(response.getResponseSchema(), properties, models);
+        if (response.getHeaders() != null) {
+            response.getHeaders().values().forEach(header -> collect(header, properties));
+        }
+    }
+
+    private static void collect(Model model, List<Property> properties, List<Model> models) {
+        if (model == null || model.getBooleanValue() != null) {
+            return;
+        }
+        models.add(model);
+        if (model.getProperties() != null) {
+            model.getProperties().values().forEach(property -> collect(property, properties));
+        }
+        if (model instanceof ArrayModel) {
+            collect(((ArrayModel) model).getItems(), properties);
+        } else if (model instanceof ModelImpl) {
+            collect(((ModelImpl) model).getAdditionalProperties(), properties);
+        } else if (model instanceof ComposedModel) {
+            ((ComposedModel) model).getAllOf().forEach(component -> collect(component, properties, models));
+        }
+    }
+
+    private static void collect(Property property, List<Property> properties) {
+        if (property == null || property.getBooleanValue() != null) {
+            return;
+        }
+        properties.add(property);
+        if (property instanceof ArrayProperty) {
+            collect(((ArrayProperty) property).getItems(), properties);
+        } else if (property instanceof MapProperty) {
+            collect(((MapProperty) property).getAdditionalProperties(), properties);
+        } else if (property instanceof ObjectProperty && ((ObjectProperty) property).getProperties() != null) {
+            ((ObjectProperty) property).getProperties().values().forEach(p -> collect(p, properties));
+        }
+    }
+
+    private static Map<String, Property> properties() {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        properties.put("a", new StringProperty());
+        properties.put("b", new ArrayProperty(new IntegerProperty()));
+        properties.put("c", new RefProperty("#/definitions/Pet"));
+        return properties;
+    }
+
+    private static ObjectProperty object() {
+        ObjectProperty object = new ObjectProperty(properties());
+        object.setRequiredProperties(Arrays.asList("a", "c", "missing"));
+        return object;
+    }
+
+    private static StringProperty string(StringProperty property) {
+        property.minLength(1).maxLength(10).pattern("[a-z]+")._enum("a")._enum("b")._default("a");
+        property.setDescription("description");
+        property.setTitle("title");
+        return property;
+    }
+
+    private static <T extends io.swagger.models.properties.AbstractNumericProperty> T numeric(T property) {
+        property.setMinimum(BigDecimal.ZERO);
+        property.setMaximum(new BigDecimal("100"));
+        property.setExclusiveMinimum(true);
+        property.setExclusiveMaximum(true);
+        property.setMultipleOf(new BigDecimal("0.5"));
+        return property;
+    }
+
+    private static Xml xml() {
+        return new Xml().name("name").namespace("http://example.com").prefix("ex").attribute(false).wrapped(true);
+    }
+}
@@ -10,6 +10,7 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import io.swagger.v3.parser.processors.ComponentsProcessor;
 import io.swagger.v3.parser.processors.OperationProcessor;
 import io.swagger.v3.parser.processors.PathsProcessor;
+import io.swagger.v3.parser.util.DocumentCache;
 
 import java.util.HashSet;
 import java.util.List;
@@ -22,6 +23,7 @@ public class OpenAPIResolver {
     private final ComponentsProcessor componentsProcessor;
     private final PathsProcessor pathProcessor;
     private final OperationProcessor operationsProcessor;
+    private final ParseOptions parseOptions;
     private Settings settings = new Settings();
     private Set<String> resolveValidationMessages = new HashSet<>();
 
@@ -46,9 +48,17 @@ public class OpenAPIResolver {
     }
 
     public OpenAPIResolver(OpenAPI openApi, List<AuthorizationValue> auths, String parentFileLocation, Settings settings, ParseOptions parseOptions) {
+        this(openApi, auths, parentFileLocation, settings, parseOptions, null);
+    }
+
+    /**
+     * @param documentCache shared cache of the external documents, see {@link DocumentCache}; may be null
+     */
+    public OpenAPIResolver(OpenAPI openApi, List<AuthorizationValue> auths, String parentFileLocation, Settings settings, ParseOptions parseOptions, DocumentCache documentCache) {
         this.openApi = openApi;
         this.settings = settings != null ? settings : new Settings();
-        this.cache = new ResolverCache(openApi, auths, parentFileLocation, resolveValidationMessages, parseOptions);
+        this.parseOptions = parseOptions;
+        this.cache = new ResolverCache(openApi, auths, parentFileLocation, resolveValidationMessages, parseOptions, documentCache);
         componentsProcessor = new ComponentsProcessor(openApi,this.cache);
         pathProcessor = new PathsProcessor(cache, openApi,this.settings);
         operationsProcessor = new OperationProcessor(cache, openApi);
@@ -69,6 +79,9 @@ public class OpenAPIResolver {
             return null;
         }
 
+        if (parseOptions != null && parseOptions.isPrefetchExternalRefs()) {
+            cache.prefetchExternalRefs();
+        }
         pathProcessor.processPaths();
         componentsProcessor.processComponents();
 
@@ -3,6 +3,7 @@ package io.swagger.v3.parser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.extensions.SwaggerParserExtension;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
@@ -10,26 +11,37 @@ import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import io.swagger.v3.parser.exception.EncodingNotSupportedException;
 import io.swagger.v3.parser.exception.ReadContentException;
+import io.swagger.v3.parser.extensions.TreeParserExtension;
 import io.swagger.v3.parser.reference.DereferencerContext;
 import io.swagger.v3.parser.reference.DereferencersFactory;
 import io.swagger.v3.parser.reference.OpenAPIDereferencer;
 import io.swagger.v3.parser.util.ClasspathHelper;
 import io.swagger.v3.parser.util.DeserializationUtils;
+import io.swagger.v3.parser.util.DocumentCache;
 import io.swagger.v3.parser.util.InlineModelResolver;
+import io.swagger.v3.parser.util.LocalFileReader;
 import io.swagger.v3.parser.util.OpenAPIDeserializer;
 import io.swagger.v3.parser.util.RemoteUrl;
 import io.swagger.v3.parser.util.ResolverFully;
+import io.swagger.v3.parser.util.VersionSniffer;
+import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
 import javax.net.ssl.SSLHandshakeException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -37,16 +49,48 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class OpenAPIV3Parser implements SwaggerParserExtension {
+/**
+ * Parses OpenAPI 3.x definitions.
+ *
+ * Instances hold no per-parse state: a single instance can be created once and shared by any number of threads,
+ * every call resolving into its own result. The object mappers, the snakeyaml reflection handles and the discovered
+ * {@link SwaggerParserExtension} types are resolved once and reused by all calls. The extensions themselves are
+ * deliberately not shared: {@link #getExtensions()} creates new instances on each call, as extensions may keep
+ * per-parse state. The types are held weakly, so that they don't keep the class loaders they were found with (such as
+ * those of redeployed web applications) from being unloaded.
+ *
+ * Static settings ({@link #setEncoding(String)}, {@link DeserializationUtils#getOptions()},
+ * {@link DeserializationUtils#setYaml30Mapper}) are shared by all parsers and should be set before parsing starts.
+ */
+public class OpenAPIV3Parser implements TreeParserExtension {
 
     public static final String DISABLE_OAS31_RESOLVE = "disableOas31Resolve";
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenAPIV3Parser.class);
     private static ObjectMapper JSON_MAPPER, YAML_MAPPER;
+
+    // Holds the extension types found for a given classloader, so that the classpath is only scanned once. The types
+    // are only weakly referenced, as they reference their classloader; each lives as long as its own classloader.
+    private static final Map<ClassLoader, List<WeakReference<Class<? extends SwaggerParserExtension>>>> extensionTypesMap =
+            Collections.synchronizedMap(new WeakHashMap<>());
     /**
      * Encoding of the resource content with OpenAPI spec to parse.
      */
     private static String encoding = StandardCharsets.UTF_8.displayName();
 
+    private final DocumentCache documentCache;
+
+    public OpenAPIV3Parser() {
+        this(null);
+    }
+
+    /**
+     * @param documentCache cache of the external documents referenced by the parsed specs, shared with other parsers
+     *                      parsing with the same options; see {@link DocumentCache}
+     */
+    public OpenAPIV3Parser(DocumentCache documentCache) {
+        this.documentCache = documentCache;
+    }
+
     static {
         JSON_MAPPER = ObjectMapperFactory.createJson();
         YAML_MAPPER = ObjectMapperFactory.createYaml();
@@ -71,13 +115,52 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
     protected static List<SwaggerParserExtension> getExtensions(ClassLoader cl) {
         final List<SwaggerParserExtension> extensions = new ArrayList<>();
 
+        final List<Class<? extends SwaggerParserExtension>> types = cl == null ? null : getExtensionTypes(cl);
+        if (types != null) {
+            for (Class<? extends SwaggerParserExtension> type : types) {
+                try {
+                    extensions.add(type.getConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    throw new ServiceConfigurationError(SwaggerParserExtension.class.getName() + ": Provider " + type.getName() + " could not be instantiated", e);
+                }
+            }
+            return extensions;
+        }
+
+        final List<WeakReference<Class<? extends SwaggerParserExtension>>> loadedTypes = new ArrayList<>();
         final ServiceLoader<SwaggerParserExtension> loader = ServiceLoader.load(SwaggerParserExtension.class, cl);
         for (SwaggerParserExtension extension : loader) {
             extensions.add(extension);
+            loadedTypes.add(new WeakReference<>(extension.getClass()));
+        }
+
+        // don't cache null-Value classLoader (e.g. Bootstrap Classloader)
+        if (cl != null) {
+            extensionTypesMap.put(cl, Collections.unmodifiableList(loadedTypes));
         }
         return extensions;
     }
 
+    /**
+     * @return the extension types found for the classloader, null if it was not scanned yet or one of its types was
+     * unloaded since
+     */
+    private static List<Class<? extends SwaggerParserExtension>> getExtensionTypes(ClassLoader cl) {
+        final List<WeakReference<Class<? extends SwaggerParserExtension>>> references = extensionTypesMap.get(cl);
+        if (references == null) {
+            return null;
+        }
+        final List<Class<? extends SwaggerParserExtension>> types = new ArrayList<>(references.size());
+        for (WeakReference<Class<? extends SwaggerParserExtension>> reference : references) {
+            final Class<? extends SwaggerParserExtension> type = reference.get();
+            if (type == null) {
+                return null;
+            }
+            types.add(type);
+        }
+        return types;
+    }
+
     public static String getEncoding() {
         return encoding;
     }
@@ -91,6 +174,10 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
 
     @Override
     public SwaggerParseResult readLocation(String url, List<AuthorizationValue> auth, ParseOptions options) {
+        final Path localFile = isUtf8Encoding() ? localFile(url) : null;
+        if (localFile != null) {
+            return readLocalFile(localFile, auth, options, url);
+        }
         try {
             final String content = readContentFromLocation(url, emptyListIfNull(auth));
             LOGGER.debug("Loaded raw data: {}", content);
@@ -160,34 +247,50 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
         }
 
         try {
-            final ObjectMapper mapper = getRightMapper(swaggerAsString);
-            JsonNode rootNode;
             final SwaggerParseResult deserializationUtilsResult = new SwaggerParseResult();
-            if (options != null && options.isLegacyYamlDeserialization()) {
-                rootNode = mapper.readTree(swaggerAsString);
-            } else {
-                try {
-                    rootNode = DeserializationUtils.deserializeIntoTree(swaggerAsString, location, options, deserializationUtilsResult);
-                } catch (Exception e) {
-                    rootNode = mapper.readTree(swaggerAsString);
-                }
-            }
+            final JsonNode rootNode = parseTree(swaggerAsString, options, location, deserializationUtilsResult);
+            return readTree(rootNode, deserializationUtilsResult, auth, options, location);
 
-            SwaggerParseResult result;
-            if (options != null) {
-                result = parseJsonNode(location, rootNode, options);
-            } else {
-                result = parseJsonNode(location, rootNode);
-            }
-            if (result.getOpenAPI() != null) {
-                result = resolve(result, auth, options, location);
-            }
-            if (deserializationUtilsResult.getMessages() != null) {
-                for (String s: deserializationUtilsResult.getMessages()) {
-                    result.message(getParseErrorMessage(s, location));
-                }
-            }
-            return result;
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Exception while parsing:", e);
+            final String message = getParseErrorMessage(e.getOriginalMessage(), location);
+            return SwaggerParseResult.ofError(message);
+        } catch (Exception e) {
+            LOGGER.warn("Exception while parsing:", e);
+            final String message = getParseErrorMessage(e.getMessage(), location);
+            return SwaggerParseResult.ofError(message);
+        }
+    }
+
+    /**
+     * Parses an encoded definition without decoding it into a String first. JSON or YAML is detected from the first
+     * significant byte. Content is expected in UTF-8 (or UTF-16/32 with a byte order mark); if another encoding is
+     * set through {@link #setEncoding(String)} the content is decoded and handed to
+     * {@link #readContents(String, List, ParseOptions, String)}.
+     *
+     * @param location the location the content was read from, used to resolve relative references; may be null
+     */
+    public SwaggerParseResult readBytes(byte[] contents, List<AuthorizationValue> auth, ParseOptions options,
+                                        String location) {
+        if (contents == null) {
+            return SwaggerParseResult.ofError("Null or empty definition");
+        }
+        return readBuffer(ByteBuffer.wrap(contents), auth, options, location);
+    }
+
+    private SwaggerParseResult readBuffer(ByteBuffer contents, List<AuthorizationValue> auth, ParseOptions options,
+                                          String location) {
+        if (DeserializationUtils.firstNonBlankByte(contents) == -1) {
+            return SwaggerParseResult.ofError("Null or empty definition");
+        }
+        if (!isUtf8Encoding()) {
+            return readContents(Charset.forName(encoding).decode(contents.duplicate()).toString(), auth, options, location);
+        }
+
+        try {
+            final SwaggerParseResult deserializationUtilsResult = new SwaggerParseResult();
+            final JsonNode rootNode = parseTree(contents, options, location, deserializationUtilsResult);
+            return readTree(rootNode, deserializationUtilsResult, auth, options, location);
 
         } catch (JsonProcessingException e) {
             LOGGER.warn("Exception while parsing:", e);
@@ -200,12 +303,193 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
         }
     }
 
+    public SwaggerParseResult readBytes(byte[] contents, List<AuthorizationValue> auth, ParseOptions options) {
+        return readBytes(contents, auth, options, null);
+    }
+
+    /**
+     * Reads the stream to its end and parses it as with {@link #readBytes(byte[], List, ParseOptions, String)}. The
+     * stream is not closed.
+     *
+     * @param location the location the content was read from, used to resolve relative references; may be null
+     */
+    public SwaggerParseResult readStream(InputStream contents, List<AuthorizationValue> auth, ParseOptions options,
+                                         String location) {
+        if (contents == null) {
+            return SwaggerParseResult.ofError("Null or empty definition");
+        }
+        final byte[] bytes;
+        try {
+            bytes = IOUtils.toByteArray(contents);
+        } catch (IOException e) {
+            LOGGER.warn("Exception while reading:", e);
+            return SwaggerParseResult.ofError(getParseErrorMessage(e.getMessage(), location));
+        }
+        return readBytes(bytes, auth, options, location);
+    }
+
+    public SwaggerParseResult readStream(InputStream contents, List<AuthorizationValue> auth, ParseOptions options) {
+        return readStream(contents, auth, options, null);
+    }
+
+    /**
+     * Parses a local file as with {@link #readBytes(byte[], List, ParseOptions, String)}, resolving relative
+     * references against the file.
+     */
+    public SwaggerParseResult readPath(Path path, List<AuthorizationValue> auth, ParseOptions options) {
+        if (path == null) {
+            return SwaggerParseResult.ofError("Null or empty definition");
+        }
+        return readLocalFile(path, auth, options, path.toString().replace('\\', '/'));
+    }
+
+    /**
+     * Files are read as bytes by {@link LocalFileReader} and parsed without decoding them to a String first.
+     */
+    private SwaggerParseResult readLocalFile(Path path, List<AuthorizationValue> auth, ParseOptions options,
+                                             String location) {
+        final ByteBuffer contents;
+        try {
+            contents = LocalFileReader.read(path);
+        } catch (IOException e) {
+            LOGGER.warn("Exception while reading:", e);
+            return SwaggerParseResult.ofError(String.format("Unable to read location `%s`", location.replace('\\', '/')));
+        }
+        return readBuffer(contents, auth, options, location);
+    }
+
+    /**
+     * @return the regular file a location points to, or null for remote, jar and classpath locations
+     */
+    private static Path localFile(String location) {
+        if (location == null) {
+            return null;
+        }
+        final String adjustedLocation = location.replace('\\', '/');
+        final String lowerCaseLocation = adjustedLocation.toLowerCase();
+        if (lowerCaseLocation.startsWith("http") || lowerCaseLocation.startsWith("jar:")) {
+            return null;
+        }
+        try {
+            final Path path = lowerCaseLocation.startsWith("file:") ?
+                    Paths.get(URI.create(adjustedLocation)) : Paths.get(adjustedLocation);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a definition into a tree, as done before deserializing it by
+     * {@link #readContents(String, List, ParseOptions, String)}, e.g. to find its version and hand it to the
+     * {@link TreeParserExtension} reading that version.
+     *
+     * @param deserializationUtilsResult collects the problems found in YAML content which could still be parsed
+     */
+    public static JsonNode parseTree(String contents, ParseOptions options, String location,
+                                     SwaggerParseResult deserializationUtilsResult) throws IOException {
+        final ObjectMapper mapper = DeserializationUtils.isJson(contents) ? JSON_MAPPER : YAML_MAPPER;
+        if (options != null && options.isLegacyYamlDeserialization()) {
+            return mapper.readTree(contents);
+        }
+        try {
+            return DeserializationUtils.deserializeIntoTree(contents, location, options, deserializationUtilsResult);
+        } catch (Exception e) {
+            return mapper.readTree(contents);
+        }
+    }
+
+    /**
+     * Same as {@link #parseTree(String, ParseOptions, String, SwaggerParseResult)} for encoded content, decoded with
+     * {@link #getEncoding()} when that is not UTF-8; the buffer's position is left unchanged.
+     */
+    public static JsonNode parseTree(ByteBuffer contents, ParseOptions options, String location,
+                                     SwaggerParseResult deserializationUtilsResult) throws IOException {
+        if (!isUtf8Encoding()) {
+            return parseTree(Charset.forName(encoding).decode(contents.duplicate()).toString(), options, location,
+                    deserializationUtilsResult);
+        }
+        final ObjectMapper mapper = DeserializationUtils.isJson(contents) ? JSON_MAPPER : YAML_MAPPER;
+        if (options != null && options.isLegacyYamlDeserialization()) {
+            return mapper.readTree(new ByteBufferBackedInputStream(contents.duplicate()));
+        }
+        try {
+            return DeserializationUtils.deserializeIntoTree(contents, location, options, deserializationUtilsResult);
+        } catch (Exception e) {
+            return mapper.readTree(new ByteBufferBackedInputStream(contents.duplicate()));
+        }
+    }
+
+    @Override
+    public boolean canRead(String versionKey) {
+        return VersionSniffer.OPENAPI.equals(versionKey);
+    }
+
+    @Override
+    public SwaggerParseResult readTree(JsonNode node, String location, List<AuthorizationValue> auth,
+                                       ParseOptions options) {
+        return readTree(node, new SwaggerParseResult(), auth, options, location);
+    }
+
+    @Override
+    public SwaggerParseResult readTree(JsonNode node, SwaggerParseResult parseMessages, String location,
+                                       List<AuthorizationValue> auth, ParseOptions options) {
+        return readTree(node, parseMessages == null ? new SwaggerParseResult() : parseMessages, auth, options, location);
+    }
+
+    /**
+     * Reads the definition at a location as {@link #readLocation(String, List, ParseOptions)} does, without parsing
+     * it: local files as bytes, and other locations as text encoded with {@link #getEncoding()}.
+     *
+     * @throws ReadContentException if the location cannot be read
+     */
+    public ByteBuffer readLocationContents(String location, List<AuthorizationValue> auth) {
+        final Path localFile = localFile(location);
+        if (localFile != null) {
+            try {
+                return LocalFileReader.read(localFile);
+            } catch (IOException e) {
+                throw new ReadContentException(String.format("Unable to read location `%s`", location.replace('\\', '/')), e);
+            }
+        }
+        return ByteBuffer.wrap(readContentFromLocation(location, emptyListIfNull(auth)).getBytes(Charset.forName(encoding)));
+    }
+
+    private SwaggerParseResult readTree(JsonNode rootNode, SwaggerParseResult deserializationUtilsResult,
+                                        List<AuthorizationValue> auth, ParseOptions options, String location) {
+        SwaggerParseResult result;
+        if (options != null) {
+            result = parseJsonNode(location, rootNode, options);
+        } else {
+            result = parseJsonNode(location, rootNode);
+        }
+        if (result.getOpenAPI() != null) {
+            result = resolve(result, auth, options, location);
+        }
+        if (deserializationUtilsResult.getMessages() != null) {
+            for (String s: deserializationUtilsResult.getMessages()) {
+                result.message(getParseErrorMessage(s, location));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isUtf8Encoding() {
+        return StandardCharsets.UTF_8.equals(Charset.forName(encoding));
+    }
+
     @Deprecated
     public SwaggerParseResult readWithInfo(String location, List<AuthorizationValue> auths) {
         return readContents(readContentFromLocation(location, auths), auths, null);
     }
 
-    private SwaggerParseResult resolve(SwaggerParseResult result, List<AuthorizationValue> auth, ParseOptions options,
+    /**
+     * Resolves and flattens a deserialized definition as requested by the options, as done after parsing it. Used to
+     * process definitions built in memory, e.g. converted from another version, without serializing them.
+     *
+     * @param location the location the definition was read from, used to resolve relative references; may be null
+     */
+    public SwaggerParseResult resolve(SwaggerParseResult result, List<AuthorizationValue> auth, ParseOptions options,
             String location) {
         if (location != null) {
             location = location.replace('\\', '/');
@@ -223,7 +507,7 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
                                     null,
                                     null,
                                     true
-                            );
+                            ).documentCache(documentCache);
                             List<OpenAPIDereferencer> dereferencers = DereferencersFactory.getInstance().getDereferencers();
                             if (dereferencers.iterator().hasNext()) {
                                 OpenAPIDereferencer dereferencer = dereferencers.iterator().next();
@@ -239,7 +523,7 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
                         }
                     } else {
                         OpenAPIResolver resolver = new OpenAPIResolver(result.getOpenAPI(), emptyListIfNull(auth),
-                                location, null, options);
+                                location, null, options, documentCache);
                         resolver.resolve(result);
                         if (options.isResolveFully()) {
                             new ResolverFully(options).resolveFully(result.getOpenAPI());
@@ -279,13 +563,6 @@ public class OpenAPIV3Parser implements SwaggerParserExtension {
         return Objects.isNull(list) ? new ArrayList<>() : list;
     }
 
-    private ObjectMapper getRightMapper(String data) {
-        if (data.trim().startsWith("{")) {
-            return JSON_MAPPER;
-        }
-        return YAML_MAPPER;
-    }
-
     private String readContentFromLocation(String location, List<AuthorizationValue> auth) {
         final String adjustedLocation = location.replace('\\', '/');
         try {
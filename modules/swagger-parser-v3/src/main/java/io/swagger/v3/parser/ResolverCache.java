@@ -2,6 +2,8 @@ package io.swagger.v3.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.callbacks.Callback;
@@ -20,7 +22,10 @@ import io.swagger.v3.parser.models.RefFormat;
 import io.swagger.v3.parser.models.RefType;
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
 import io.swagger.v3.parser.urlresolver.exceptions.HostDeniedException;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
 import io.swagger.v3.parser.util.DeserializationUtils;
+import io.swagger.v3.parser.util.DocumentCache;
+import io.swagger.v3.parser.util.ExternalRefPrefetcher;
 import io.swagger.v3.parser.util.OpenAPIDeserializer;
 import io.swagger.v3.parser.util.PathUtils;
 import io.swagger.v3.parser.util.RefUtils;
@@ -31,6 +36,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,8 +54,9 @@ import java.util.regex.Pattern;
  * expensive operations like:
  * 1) reading a remote URL with authorization (e.g. using RemoteURL.java)
  * 2) reading the contents of a file into memory
- * 3) extracting a sub object from a json/yaml tree
- * 4) de-serializing json strings into objects
+ * 3) parsing the contents of a file into a json/yaml tree
+ * 4) extracting a sub object from a json/yaml tree
+ * 5) de-serializing json strings into objects
  */
 public class ResolverCache {
 
@@ -73,11 +80,14 @@ public class ResolverCache {
     private Map<String, String> externalFileCache = new HashMap<>();
     private Map<String, Object> canonicalResolutionCache = new HashMap<>();
     private Map<String, String> canonicalExternalFileCache = new HashMap<>();
+    private Map<String, JsonNode> canonicalExternalTreeCache = new HashMap<>();
+    private Map<String, DocumentCache.Document> prefetchedDocuments = Collections.emptyMap();
     private List<String> referencedModelKeys = new ArrayList<>();
     private Set<String> resolveValidationMessages;
     private final ParseOptions parseOptions;
     protected boolean openapi31;
     private final PermittedUrlsChecker permittedUrlsChecker;
+    private final DocumentCache documentCache;
 
     /*
      * a map that stores original external references, and their associated renamed
@@ -95,13 +105,22 @@ public class ResolverCache {
     }
 
     public ResolverCache(OpenAPI openApi, List<AuthorizationValue> auths, String parentFileLocation, Set<String> resolveValidationMessages, ParseOptions parseOptions) {
+        this(openApi, auths, parentFileLocation, resolveValidationMessages, parseOptions, null);
+    }
+
+    /**
+     * @param documentCache shared cache of the external documents, see {@link DocumentCache}; may be null
+     */
+    public ResolverCache(OpenAPI openApi, List<AuthorizationValue> auths, String parentFileLocation, Set<String> resolveValidationMessages, ParseOptions parseOptions, DocumentCache documentCache) {
         this.openapi31 = openApi != null && openApi.getOpenapi() != null && openApi.getOpenapi().startsWith("3.1");
         this.openApi = openApi;
         this.auths = auths;
         this.rootPath = parentFileLocation;
         this.resolveValidationMessages = resolveValidationMessages;
         this.parseOptions = parseOptions;
-        this.permittedUrlsChecker = new PermittedUrlsChecker(parseOptions.getRemoteRefAllowList(), parseOptions.getRemoteRefBlockList());
+        this.permittedUrlsChecker = new PermittedUrlsChecker(parseOptions.getRemoteRefAllowList(), parseOptions.getRemoteRefBlockList(),
+                HostAddressCache.getDefault());
+        this.documentCache = documentCache;
 
         if(parentFileLocation != null) {
             if(parentFileLocation.startsWith("http") || parentFileLocation.startsWith("jar")) {
@@ -116,6 +135,114 @@ public class ResolverCache {
 
     }
 
+    /**
+     * Fetches and parses the external documents referenced by the spec concurrently, see
+     * {@link ExternalRefPrefetcher}, so {@link #loadRef(String, RefFormat, Class)} finds them already parsed.
+     */
+    public void prefetchExternalRefs() {
+        final JsonNode root = (openapi31 ? Json31.mapper() : Json.mapper()).valueToTree(openApi);
+        prefetchedDocuments = new ExternalRefPrefetcher(auths, parseOptions).prefetch(root, rootPath);
+    }
+
+    /**
+     * @return the prefetched document, which is handed out once, or null if it was not prefetched
+     */
+    private DocumentCache.Document takePrefetchedDocument(String file, RefFormat refFormat) {
+        if (prefetchedDocuments.isEmpty()) {
+            return null;
+        }
+        String location = toUrl(file, refFormat);
+        if (location == null && parentDirectory != null && refFormat == RefFormat.RELATIVE) {
+            try {
+                location = parentDirectory.resolve(file).normalize().toUri().toString();
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return location != null ? prefetchedDocuments.remove(location) : null;
+    }
+
+    /**
+     * @return the absolute url of a remote document, or null if the ref is not resolved against a url
+     */
+    private String toUrl(String file, RefFormat refFormat) {
+        if (refFormat == RefFormat.URL) {
+            return file;
+        }
+        if (parentDirectory == null && rootPath != null && rootPath.startsWith("http")) {
+            try {
+                return RefUtils.buildUrl(rootPath, file);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private String readExternalRef(String file, RefFormat refFormat) {
+        String contents = null;
+        // urls are verified, and fetched from the address they were verified with, when resolving safely only
+        final PermittedUrlsChecker permittedUrlsChecker = parseOptions.isSafelyResolveURL() ? this.permittedUrlsChecker : null;
+        if(parentDirectory != null) {
+            contents = RefUtils.readExternalRef(file, refFormat, auths, parentDirectory, permittedUrlsChecker);
+        }
+        else if(rootPath != null && rootPath.startsWith("http")) {
+            contents = RefUtils.readExternalUrlRef(file, refFormat, auths, rootPath, permittedUrlsChecker);
+        }
+        else if (rootPath != null) {
+            contents = RefUtils.readExternalClasspathRef(file, refFormat, auths, rootPath, permittedUrlsChecker);
+
+        }
+        return contents;
+    }
+
+    /**
+     * Looks the external document up in the shared {@link DocumentCache}: local files are only read when they changed
+     * since they were cached, other documents are read and only parsed when their contents changed. A prefetched
+     * document is cached as it was parsed by the prefetcher.
+     *
+     * @param prefetched the prefetched document, or null
+     * @return null if the document can't be read
+     */
+    private DocumentCache.Document loadSharedDocument(String file, RefFormat refFormat,
+                                                      DocumentCache.Document prefetched) throws Exception {
+        final Path localFile = toLocalFile(file, refFormat);
+        if (localFile != null) {
+            return documentCache.get(localFile.toUri().toString(), null, openapi31, parseOptions,
+                    DocumentCache.versionOf(localFile),
+                    () -> prefetched != null ? prefetched : parseDocument(file, readExternalRef(file, refFormat)));
+        }
+        final String contents = prefetched != null ? prefetched.getContents() : readExternalRef(file, refFormat);
+        if (contents == null) {
+            return null;
+        }
+        final String url = toUrl(file, refFormat);
+        return documentCache.get(url != null ? url : canonicalize(file), url != null ? auths : null, openapi31,
+                parseOptions, DocumentCache.versionOf(contents),
+                () -> prefetched != null ? prefetched : parseDocument(file, contents));
+    }
+
+    private DocumentCache.Document parseDocument(String file, String contents) {
+        final SwaggerParseResult result = new SwaggerParseResult();
+        final JsonNode tree = DeserializationUtils.deserializeIntoTree(contents, file, parseOptions, result);
+        return new DocumentCache.Document(contents, tree, result.getMessages(), DocumentCache.encodedLength(contents));
+    }
+
+    /**
+     * @return the local file a relative ref points to, or null if it is not an existing file
+     */
+    private Path toLocalFile(String file, RefFormat refFormat) {
+        if (parentDirectory == null || refFormat != RefFormat.RELATIVE) {
+            return null;
+        }
+        try {
+            final Path path = parentDirectory.resolve(file).normalize();
+            return Files.isRegularFile(path) ? path : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     public <T> T loadRef(String ref, RefFormat refFormat, Class<T> expectedType) {
         if (refFormat == RefFormat.INTERNAL) {
             //we don't need to go get anything for internal refs
@@ -158,27 +285,40 @@ public class ResolverCache {
         //we have not resolved this particular ref
         //but we may have already loaded the file or url in question
         String contents = canonicalExternalFileCache.get(canonicalFile);
+        SwaggerParseResult deserializationUtilResult = new SwaggerParseResult();
 
         if (contents == null) {
             if(parseOptions.isSafelyResolveURL()){
                 checkUrlIsPermitted(file);
             }
 
-            if(parentDirectory != null) {
-                contents = RefUtils.readExternalRef(file, refFormat, auths, parentDirectory, permittedUrlsChecker);
-            }
-            else if(rootPath != null && rootPath.startsWith("http")) {
-                contents = RefUtils.readExternalUrlRef(file, refFormat, auths, rootPath, permittedUrlsChecker);
+            DocumentCache.Document document = takePrefetchedDocument(file, refFormat);
+            if (documentCache != null) {
+                try {
+                    document = loadSharedDocument(file, refFormat, document);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException("Unable to load " + refFormat + " ref: " + file, e);
+                }
             }
-            else if (rootPath != null) {
-                contents = RefUtils.readExternalClasspathRef(file, refFormat, auths, rootPath, permittedUrlsChecker);
-
+            if (document != null) {
+                contents = document.getContents();
+                canonicalExternalTreeCache.put(canonicalFile, document.getTree());
+                deserializationUtilResult.setMessages(new ArrayList<>(document.getMessages()));
+            } else if (documentCache == null) {
+                contents = readExternalRef(file, refFormat);
             }
             canonicalExternalFileCache.put(canonicalFile, contents);
         }
         externalFileCache.putIfAbsent(file, contents);
-        SwaggerParseResult deserializationUtilResult = new SwaggerParseResult();
-        JsonNode tree = DeserializationUtils.deserializeIntoTree(contents, file, parseOptions, deserializationUtilResult);
+
+        //every fragment of the same file is looked up in the same tree, so parse each file only once
+        JsonNode tree = canonicalExternalTreeCache.get(canonicalFile);
+        if (tree == null) {
+            tree = DeserializationUtils.deserializeIntoTree(contents, file, parseOptions, deserializationUtilResult);
+            canonicalExternalTreeCache.put(canonicalFile, tree);
+        }
 
         if (definitionPath == null) {
             T result = null;
@@ -0,0 +1,45 @@
+package io.swagger.v3.parser.extensions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.parser.core.extensions.SwaggerParserExtension;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+
+import java.util.List;
+
+/**
+ * A {@link SwaggerParserExtension} which also parses definitions already parsed into a tree, so that a definition can
+ * be read and parsed once and handed to the extension for its version, see
+ * {@link io.swagger.v3.parser.util.VersionSniffer}.
+ */
+public interface TreeParserExtension extends SwaggerParserExtension {
+
+    /**
+     * @param versionKey the root key declaring the version of a definition, such as {@code openapi} or {@code swagger}
+     * @return whether this extension parses the definitions declaring their version with the key
+     */
+    boolean canRead(String versionKey);
+
+    /**
+     * @param node     the parsed definition
+     * @param location the location the definition was read from, used to resolve relative references; may be null
+     */
+    SwaggerParseResult readTree(JsonNode node, String location, List<AuthorizationValue> auth, ParseOptions options);
+
+    /**
+     * Same as {@link #readTree(JsonNode, String, List, ParseOptions)}, also reporting the problems found while parsing
+     * the tree as the extension reports them when it parses a definition itself.
+     *
+     * @param parseMessages the problems found while parsing the tree, see
+     *                      {@link io.swagger.v3.parser.OpenAPIV3Parser#parseTree(String, ParseOptions, String, SwaggerParseResult)}
+     */
+    default SwaggerParseResult readTree(JsonNode node, SwaggerParseResult parseMessages, String location,
+                                        List<AuthorizationValue> auth, ParseOptions options) {
+        final SwaggerParseResult result = readTree(node, location, auth, options);
+        if (result != null && parseMessages != null && parseMessages.getMessages() != null) {
+            parseMessages.getMessages().forEach(result::message);
+        }
+        return result;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 import io.swagger.v3.parser.ResolverCache;
+import io.swagger.v3.parser.util.ComponentNameIndex;
 import org.slf4j.Logger;
 
 /**
@@ -56,15 +57,7 @@ final class ComponentNameAllocator {
         return Objects.equals(incoming, existing) || reusePolicy.test(existing, incoming);
     }
 
-    static <T> Function<String, String> caseInsensitiveKey(Map<String, T> components) {
-        return candidate -> {
-            if (components.containsKey(candidate)) {
-                return candidate;
-            }
-            return components.keySet().stream()
-                    .filter(name -> name.equalsIgnoreCase(candidate))
-                    .findFirst()
-                    .orElse(null);
-        };
+    static <T> Function<String, String> caseInsensitiveKey(Map<String, T> components, ComponentNameIndex index) {
+        return candidate -> index.findIgnoreCase(components, candidate);
     }
 }
@@ -13,9 +13,11 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.parser.ResolverCache;
 
 
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -33,6 +35,8 @@ public class ComponentsProcessor {
     private final LinkProcessor linkProcessor;
     private final CallbackProcessor callbackProcessor;
     private final SecuritySchemeProcessor securitySchemeProcessor;
+    private int passes;
+    private int itemsProcessed;
 
     public ComponentsProcessor(OpenAPI openApi,ResolverCache cache){
         this(openApi, cache, false);
@@ -74,82 +78,90 @@ public class ComponentsProcessor {
 
         //responses
         if (responses != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(responses.keySet().size() > keySet.size()) {
-                processResponses(keySet, responses);
-            }
+            processNewKeys(responses, names -> processResponses(names, responses));
         }
 
         //requestBodies
         if (requestBodies != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(requestBodies.keySet().size() > keySet.size()) {
-                processRequestBodies(keySet, requestBodies);
-            }
+            processNewKeys(requestBodies, names -> processRequestBodies(names, requestBodies));
         }
 
         //parameters
         if (parameters != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(parameters.keySet().size() > keySet.size()) {
-                processParameters(keySet, parameters);
-            }
+            processNewKeys(parameters, names -> processParameters(names, parameters));
         }
 
         //headers
         if (headers != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(headers.keySet().size() > keySet.size()) {
-                processHeaders(keySet, headers);
-            }
+            processNewKeys(headers, names -> processHeaders(names, headers));
         }
 
         //examples
         if (examples != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(examples.keySet().size() > keySet.size()) {
-                processExamples(keySet, examples);
-            }
+            processNewKeys(examples, names -> processExamples(names, examples));
         }
 
         //links
         if (links != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(links.keySet().size() > keySet.size()) {
-                processLinks(keySet, links);
-            }
+            processNewKeys(links, names -> processLinks(names, links));
         }
 
         //callbacks
         if (callbacks != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(callbacks.keySet().size() > keySet.size()) {
-                processCallbacks(keySet, callbacks);
-            }
+            processNewKeys(callbacks, names -> processCallbacks(names, callbacks));
         }
 
         //securitySchemes
         if (securitySchemes != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(securitySchemes.keySet().size() > keySet.size()) {
-                processSecuritySchemes(keySet, securitySchemes);
-            }
+            processNewKeys(securitySchemes, names -> processSecuritySchemes(names, securitySchemes));
         }
 
         final Map<String, Schema> schemas = openApi.getComponents().getSchemas();
 
         //schemas
         if (schemas != null) {
-            Set<String> keySet = new LinkedHashSet<>();
-            while(schemas.keySet().size() > keySet.size()) {
-                processSchemas(keySet, schemas);
+            processNewKeys(schemas, names -> processSchemaNames(names, schemas));
+        }
+    }
+
+    /**
+     * Runs {@code pass} over the component names of {@code components} until no new names show up. Resolving a
+     * component can pull further components into the same map (e.g. external refs), so each pass only receives the
+     * names added since the previous one; every name is processed exactly once.
+     */
+    private <T> void processNewKeys(Map<String, T> components, Consumer<Set<String>> pass) {
+        final Set<String> processed = new HashSet<>();
+        Set<String> pending = new LinkedHashSet<>(components.keySet());
+        while (!pending.isEmpty()) {
+            passes++;
+            itemsProcessed += pending.size();
+            processed.addAll(pending);
+            pass.accept(pending);
+
+            pending = new LinkedHashSet<>();
+            for (String name : components.keySet()) {
+                if (!processed.contains(name)) {
+                    pending.add(name);
+                }
             }
         }
     }
 
-    private void processSecuritySchemes(Set<String> securitySchemeKey, Map<String, SecurityScheme> securitySchemes) {
-        securitySchemeKey.addAll(securitySchemes.keySet());
+    /**
+     * @return number of worklist passes run by {@link #processComponents()}, summed over all component types
+     */
+    public int getPasses() {
+        return passes;
+    }
 
+    /**
+     * @return number of component entries handed to the individual processors by {@link #processComponents()}
+     */
+    public int getItemsProcessed() {
+        return itemsProcessed;
+    }
+
+    private void processSecuritySchemes(Set<String> securitySchemeKey, Map<String, SecurityScheme> securitySchemes) {
         for (String securitySchemeName : securitySchemeKey) {
             final SecurityScheme securityScheme = securitySchemes.get(securitySchemeName);
             SecurityScheme resolvedSecurityScheme = securitySchemeProcessor.processSecurityScheme(securityScheme);
@@ -158,8 +170,6 @@ public class ComponentsProcessor {
     }
 
     private void processCallbacks(Set<String> callbackKey, Map<String, Callback> callbacks) {
-        callbackKey.addAll(callbacks.keySet());
-
         for (String callbackName : callbackKey) {
             final Callback callback = callbacks.get(callbackName);
             callbackProcessor.processCallback(callback);
@@ -167,8 +177,6 @@ public class ComponentsProcessor {
     }
 
     private void processLinks(Set<String> linkKey, Map<String, Link> links) {
-        linkKey.addAll(links.keySet());
-
         for (String linkName : linkKey) {
             final Link link = links.get(linkName);
             linkProcessor.processLink(link);
@@ -176,8 +184,6 @@ public class ComponentsProcessor {
     }
 
     private void processExamples(Set<String> exampleKey, Map<String, Example> examples) {
-        exampleKey.addAll(examples.keySet());
-
         for (String exampleName : exampleKey) {
             final Example example = examples.get(exampleName);
             exampleProcessor.processExample(example);
@@ -185,8 +191,6 @@ public class ComponentsProcessor {
     }
 
     private void processHeaders(Set<String> HeaderKey, Map<String, Header> headers) {
-        HeaderKey.addAll(headers.keySet());
-
         for (String headersName : HeaderKey) {
             final Header header = headers.get(headersName);
             headerProcessor.processHeader(header);
@@ -194,8 +198,6 @@ public class ComponentsProcessor {
     }
 
     private void processParameters(Set<String> ParametersKey, Map<String, Parameter> parameters) {
-        ParametersKey.addAll(parameters.keySet());
-
         for (String parametersName : ParametersKey) {
             final Parameter parameter = parameters.get(parametersName);
             parameterProcessor.processParameter(parameter);
@@ -203,8 +205,6 @@ public class ComponentsProcessor {
     }
 
     private void processRequestBodies(Set<String> requestBodyKey, Map<String, RequestBody> requestBodies) {
-        requestBodyKey.addAll(requestBodies.keySet());
-
         for (String requestBodyName : requestBodyKey) {
             final RequestBody requestBody = requestBodies.get(requestBodyName);
             requestBodyProcessor.processRequestBody(requestBody);
@@ -212,8 +212,6 @@ public class ComponentsProcessor {
     }
 
     private void processResponses(Set<String> responseKey, Map<String, ApiResponse> responses) {
-        responseKey.addAll(responses.keySet());
-
         for (String responseName : responseKey) {
             final ApiResponse response = responses.get(responseName);
             responseProcessor.processResponse(response);
@@ -222,9 +220,16 @@ public class ComponentsProcessor {
 
     public void processSchemas(Set<String> schemaKeys, Map<String, Schema> schemas) {
         schemaKeys.addAll(schemas.keySet());
+        processSchemaNames(schemaKeys, schemas);
+    }
 
+    private void processSchemaNames(Set<String> schemaKeys, Map<String, Schema> schemas) {
         for (String modelName : schemaKeys) {
             final Schema model = schemas.get(modelName);
+            if (model == null) {
+                // dropped in favour of a renamed ref earlier in this pass
+                continue;
+            }
 
             String originalRef = model.get$ref() != null  ? model.get$ref() : null;
 
@@ -252,6 +257,9 @@ public class ComponentsProcessor {
         //process schemas again to check properties that hasn't been solved
         for (String modelName : schemaKeys) {
             final Schema model = schemas.get(modelName);
+            if (model == null) {
+                continue;
+            }
             Map<String, Schema> properties = model.getProperties();
             if (properties != null) {
                 for (Map.Entry<String, Schema> propertyEntry : properties.entrySet()) {
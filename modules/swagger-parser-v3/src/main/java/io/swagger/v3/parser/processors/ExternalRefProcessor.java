@@ -34,6 +34,7 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.parser.ResolverCache;
 import io.swagger.v3.parser.models.RefFormat;
 import io.swagger.v3.parser.models.RefType;
+import io.swagger.v3.parser.util.ComponentNameIndex;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
@@ -49,6 +50,7 @@ public final class ExternalRefProcessor {
     private final ResolverCache cache;
     private final OpenAPI openAPI;
     private final ComponentNameAllocator nameAllocator;
+    private final ComponentNameIndex schemaNames = new ComponentNameIndex();
 
     public ExternalRefProcessor(ResolverCache cache, OpenAPI openAPI) {
         this.cache = cache;
@@ -64,7 +66,7 @@ public final class ExternalRefProcessor {
             Schema incoming, String incomingRef) {
         return nameAllocator.allocate(schemas, baseName, incoming, incomingRef,
                 Schema::get$ref,
-                ComponentNameAllocator.caseInsensitiveKey(schemas),
+                ComponentNameAllocator.caseInsensitiveKey(schemas, schemaNames),
                 (existing, inc) -> cache.getRenamedRef(inc.get$ref()) != null);
     }
 
@@ -104,6 +106,7 @@ public final class ExternalRefProcessor {
         if(existingModel == null) {
             // don't overwrite existing model reference
             openAPI.getComponents().addSchemas(newRef, schema);
+            schemaNames.added(openAPI.getComponents().getSchemas(), newRef);
             cache.addReferencedKey(newRef);
 
             String file = $ref.split("#/")[0];
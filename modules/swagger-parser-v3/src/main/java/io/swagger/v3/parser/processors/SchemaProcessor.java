@@ -30,6 +30,7 @@ public class SchemaProcessor {
     private boolean openapi31;
     private final ResolverCache cache;
     private OpenAPI openAPI;
+    private final List<JsonSchemaParserExtension> jsonSchemaParserExtensions;
 
 
     public SchemaProcessor(ResolverCache cache, OpenAPI openAPI) {
@@ -41,6 +42,7 @@ public class SchemaProcessor {
         this.cache = cache;
         this.openAPI = openAPI;
         this.externalRefProcessor = new ExternalRefProcessor(cache, openAPI);
+        this.jsonSchemaParserExtensions = OpenAPIDeserializer.getJsonSchemaParserExtensions();
     }
 
 
@@ -49,9 +51,8 @@ public class SchemaProcessor {
         if (schema == null) {
             return;
         }
-        if (openapi31) {
-            List<JsonSchemaParserExtension> jsonschemaExtensions = OpenAPIDeserializer.getJsonSchemaParserExtensions();
-            for (JsonSchemaParserExtension jsonschemaExtension: jsonschemaExtensions) {
+        if (openapi31 && !jsonSchemaParserExtensions.isEmpty()) {
+            for (JsonSchemaParserExtension jsonschemaExtension: jsonSchemaParserExtensions) {
                 if (jsonschemaExtension.resolveSchema(schema, cache, openAPI, openapi31)) {
                     return;
                 }
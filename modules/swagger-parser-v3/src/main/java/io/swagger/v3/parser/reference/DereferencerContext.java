@@ -1,10 +1,15 @@
 package io.swagger.v3.parser.reference;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
+import io.swagger.v3.parser.util.DocumentCache;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +25,11 @@ public class DereferencerContext {
     protected SwaggerParseResult swaggerParseResult;
     protected boolean addParametersToEachOperation = true;
     protected String currentUri;
-    protected Map<String, String> idsCache = new LinkedHashMap<>();
+    protected Map<String, JsonNode> idsCache = new LinkedHashMap<>();
+    protected boolean idsCacheStale = true;
+    protected Map<String, DocumentCache.Document> prefetchedDocuments = Collections.emptyMap();
+    protected DocumentCache documentCache;
+    protected PermittedUrlsChecker permittedUrlsChecker;
 
     private Map<String, Reference> referenceSet = new LinkedHashMap<>();
 
@@ -116,19 +125,79 @@ public class DereferencerContext {
         return this;
     }
 
-    public Map<String, String> getIdsCache() {
+    /**
+     * Schemas of the dereferenced document keyed by their resolved {@code $id} URI.
+     */
+    public Map<String, JsonNode> getIdsCache() {
         return idsCache;
     }
 
-    public void setIdsCache(Map<String, String> idsCache) {
+    public void setIdsCache(Map<String, JsonNode> idsCache) {
         this.idsCache = idsCache;
     }
 
-    public DereferencerContext idsCache(Map<String, String> idsCache) {
+    public DereferencerContext idsCache(Map<String, JsonNode> idsCache) {
         this.idsCache = idsCache;
         return this;
     }
 
+    /**
+     * Whether the ids cache needs a full {@link IdsTraverser} pass before lookups can rely on it; true until the
+     * first pass and again after a loaded document brought in new {@code $id}s.
+     */
+    public boolean isIdsCacheStale() {
+        return idsCacheStale;
+    }
+
+    public void setIdsCacheStale(boolean idsCacheStale) {
+        this.idsCacheStale = idsCacheStale;
+    }
+
+    /**
+     * External documents fetched and parsed ahead of dereferencing, keyed by absolute URL, or by file URI for local
+     * files; each is taken out of the map when it is parsed. See {@link io.swagger.v3.parser.util.ExternalRefPrefetcher}.
+     */
+    public Map<String, DocumentCache.Document> getPrefetchedDocuments() {
+        return prefetchedDocuments;
+    }
+
+    public void setPrefetchedDocuments(Map<String, DocumentCache.Document> prefetchedDocuments) {
+        this.prefetchedDocuments = prefetchedDocuments;
+    }
+
+    public DereferencerContext prefetchedDocuments(Map<String, DocumentCache.Document> prefetchedDocuments) {
+        this.prefetchedDocuments = prefetchedDocuments;
+        return this;
+    }
+
+    /**
+     * Cache of the external documents shared with other parses, or null; see {@link DocumentCache}.
+     */
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    public void setDocumentCache(DocumentCache documentCache) {
+        this.documentCache = documentCache;
+    }
+
+    public DereferencerContext documentCache(DocumentCache documentCache) {
+        this.documentCache = documentCache;
+        return this;
+    }
+
+    /**
+     * Checker for the remote ref allow and block lists of the parse options, compiled on first use and shared by the
+     * reference visitors.
+     */
+    public synchronized PermittedUrlsChecker getPermittedUrlsChecker() {
+        if (permittedUrlsChecker == null) {
+            permittedUrlsChecker = new PermittedUrlsChecker(parseOptions.getRemoteRefAllowList(),
+                    parseOptions.getRemoteRefBlockList(), HostAddressCache.getDefault());
+        }
+        return permittedUrlsChecker;
+    }
+
     public DereferencerContext rootUri(String rootUri) {
         this.rootUri = rootUri;
         return this;
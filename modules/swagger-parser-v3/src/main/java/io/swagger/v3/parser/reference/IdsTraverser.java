@@ -1,6 +1,5 @@
 package io.swagger.v3.parser.reference;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.core.util.Json31;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -22,8 +21,8 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,8 +50,8 @@ public class IdsTraverser implements Traverser {
         return this;
     }
 
-    public Set<Object> visiting = new HashSet<>();
-    protected HashMap<Object, Object> visitedMap = new HashMap<>();
+    public Set<Object> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+    protected Map<Object, Object> visitedMap = new IdentityHashMap<>();
 
     public OpenAPI traverse(OpenAPI openAPI, Visitor visitor) throws Exception {
         return traverseOpenApi(openAPI, visitor);
@@ -520,7 +519,7 @@ public class IdsTraverser implements Traverser {
                     resolvedURI = ReferenceUtils.resolve(urlWithoutHash, resolvedURI);
                     resolvedURI = ReferenceUtils.toBaseURI(resolvedURI);
                 }
-                context.getIdsCache().put(resolvedURI, Json31.pretty(schema));
+                context.getIdsCache().put(resolvedURI, Json31.mapper().valueToTree(schema));
             } catch (Exception e) {
                 //
             }
@@ -640,11 +639,7 @@ public class IdsTraverser implements Traverser {
     }
 
     public <T> T deepcopy(T entity, Class<T> clazz) {
-        try {
-            return (T)Json31.mapper().readValue(Json31.mapper().writeValueAsString(entity), clazz);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+        return ReferenceUtils.deepCopy(entity, clazz);
     }
 
     public <T> void traverseMap(Map<String, T> map, Visitor visitor, BiFunction<T, Visitor, T> traverser) {
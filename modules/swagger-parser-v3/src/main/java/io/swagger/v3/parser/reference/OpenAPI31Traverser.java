@@ -1,6 +1,5 @@
 package io.swagger.v3.parser.reference;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.core.util.Json31;
@@ -26,8 +25,7 @@ import io.swagger.v3.parser.util.OpenAPIDeserializer;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -55,8 +53,8 @@ public class OpenAPI31Traverser implements Traverser {
         return this;
     }
 
-    public Set<Object> visiting = new HashSet<>();
-    protected HashMap<Object, Object> visitedMap = new HashMap<>();
+    public Set<Object> visiting = Collections.newSetFromMap(new VisitedMap<>());
+    protected Map<Object, Object> visitedMap = new VisitedMap<>();
 
     public OpenAPI traverse(OpenAPI openAPI, Visitor visitor) throws Exception {
         if (!(visitor instanceof ReferenceVisitor)) {
@@ -793,7 +791,7 @@ public class OpenAPI31Traverser implements Traverser {
                     resolvedURI = ReferenceUtils.resolve(urlWithoutHash, resolvedURI);
                     resolvedURI = ReferenceUtils.toBaseURI(resolvedURI);
                 }
-                context.getIdsCache().put(resolvedURI, Json31.pretty(schema));
+                context.getIdsCache().put(resolvedURI, Json31.mapper().valueToTree(schema));
                 if (!visitor.reference.getReferenceSet().containsKey(resolvedURI)) {
                     visitor.reference.getReferenceSet().put(resolvedURI, visitor.reference);
                 }
@@ -938,11 +936,7 @@ public class OpenAPI31Traverser implements Traverser {
     }
 
     public <T> T deepcopy(T entity, Class<T> clazz) {
-        try {
-            return (T)Json31.mapper().readValue(Json31.mapper().writeValueAsString(entity), clazz);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+        return ReferenceUtils.deepCopy(entity, clazz);
     }
 
     public <T> void traverseMap(Map<String, T> map, ReferenceVisitor visitor, BiFunction<T, ReferenceVisitor, T> traverser) {
@@ -4,8 +4,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.core.util.Json31;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DocumentCache;
+import io.swagger.v3.parser.util.ExternalRefPrefetcher;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -64,6 +68,12 @@ public class OpenAPIDereferencer31 implements OpenAPIDereferencer {
 
         Traverser traverser = buildTraverser(context);
         ReferenceVisitor referenceVisitor = buildReferenceVisitorWithContext(context, reference, traverser);
+
+        if (context.getParseOptions() != null && context.getParseOptions().isPrefetchExternalRefs()) {
+            String location = context.getRootUri().equals("local") ? null : context.getRootUri();
+            context.setPrefetchedDocuments(buildPrefetcher(context, referenceVisitor)
+                    .prefetch(Json31.mapper().valueToTree(openAPI), location));
+        }
         try {
             openAPI = traverser.traverse(context.getOpenApi(), referenceVisitor);
         } catch (Exception e){
@@ -87,6 +97,25 @@ public class OpenAPIDereferencer31 implements OpenAPIDereferencer {
         return new ReferenceVisitor(reference, (OpenAPI31Traverser)traverser, new HashSet<>(), new HashMap<>());
     }
 
+    /**
+     * A prefetcher parsing the documents with the visitor resolving them, so that it can use the parsed trees.
+     */
+    public ExternalRefPrefetcher buildPrefetcher(DereferencerContext context, ReferenceVisitor referenceVisitor) {
+        return new ExternalRefPrefetcher(context.getAuths(), context.getParseOptions()) {
+            @Override
+            protected DocumentCache.Document parse(String location, String contents) throws Exception {
+                return new DocumentCache.Document(contents, referenceVisitor.deserializeIntoTree(contents), null,
+                        DocumentCache.encodedLength(contents));
+            }
+
+            @Override
+            protected DocumentCache.Document parseLocalFile(Path path) throws Exception {
+                final JsonNode node = referenceVisitor.parseLocalFile(path.toUri().toString());
+                return node != null ? new DocumentCache.Document(null, node, null, Files.size(path)) : null;
+            }
+        };
+    }
+
     public ReferenceVisitor buildReferenceVisitorWithContext(DereferencerContext context, Reference reference, Traverser traverser) {
         return new ReferenceVisitor(reference, (OpenAPI31Traverser)traverser, new HashSet<>(), new HashMap<>(), context);
     }
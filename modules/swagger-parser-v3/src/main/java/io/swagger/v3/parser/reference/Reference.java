@@ -3,7 +3,9 @@ package io.swagger.v3.parser.reference;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,6 +17,8 @@ public class Reference {
     private Set<String> messages = new HashSet<>();
     private Map<String, Reference> referenceSet;
     private JsonNode jsonNode;
+    private Map<String, JsonNode> anchors;
+    private Map<String, JsonNode> dynamicAnchors;
 
     private List<AuthorizationValue> auths;
 
@@ -102,10 +106,68 @@ public class Reference {
 
     public void setJsonNode(JsonNode jsonNode) {
         this.jsonNode = jsonNode;
+        this.anchors = null;
+        this.dynamicAnchors = null;
     }
 
     public Reference jsonNode(JsonNode jsonNode) {
-        this.jsonNode = jsonNode;
+        setJsonNode(jsonNode);
         return this;
     }
+
+    /**
+     * Looks up the node declaring the given plain-name fragment in this reference's document, first as
+     * {@code $anchor} and then as {@code $dynamicAnchor}. The anchor index is built on first use with a single walk
+     * of the document; where a name is declared more than once the first node in document order wins.
+     *
+     * @return the declaring node or null if the document has no such anchor
+     */
+    public JsonNode getAnchor(String anchor) {
+        if (jsonNode == null || anchor == null) {
+            return null;
+        }
+        if (anchors == null) {
+            indexAnchors();
+        }
+        JsonNode node = anchors.get(anchor);
+        return node != null ? node : dynamicAnchors.get(anchor);
+    }
+
+    /**
+     * @return the node declaring the given {@code $dynamicAnchor} or null if the document has no such anchor
+     */
+    public JsonNode getDynamicAnchor(String anchor) {
+        if (jsonNode == null || anchor == null) {
+            return null;
+        }
+        if (dynamicAnchors == null) {
+            indexAnchors();
+        }
+        return dynamicAnchors.get(anchor);
+    }
+
+    private void indexAnchors() {
+        anchors = new HashMap<>();
+        dynamicAnchors = new HashMap<>();
+        indexAnchors(jsonNode);
+    }
+
+    private void indexAnchors(JsonNode node) {
+        if (node.isObject()) {
+            JsonNode anchorNode = node.get("$anchor");
+            if (anchorNode != null && anchorNode.isValueNode()) {
+                anchors.putIfAbsent(anchorNode.asText(), node);
+            }
+            JsonNode dynamicAnchorNode = node.get("$dynamicAnchor");
+            if (dynamicAnchorNode != null && dynamicAnchorNode.isValueNode()) {
+                dynamicAnchors.putIfAbsent(dynamicAnchorNode.asText(), node);
+            }
+        }
+        if (node.isContainerNode()) {
+            Iterator<JsonNode> elements = node.elements();
+            while (elements.hasNext()) {
+                indexAnchors(elements.next());
+            }
+        }
+    }
 }
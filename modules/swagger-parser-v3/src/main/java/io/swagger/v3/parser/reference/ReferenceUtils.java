@@ -1,8 +1,13 @@
 package io.swagger.v3.parser.reference;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.swagger.v3.core.util.Json31;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
@@ -73,6 +78,19 @@ public class ReferenceUtils {
     }
 
     public static JsonNode jsonPointerEvaluate(String fragment, JsonNode tree, String uri) {
+        JsonNode node = jsonPointerFind(fragment, tree);
+        //if at any point we do find an element we expect, print and error and abort
+        if (node == null) {
+            throw new RuntimeException("Could not find " + fragment + " in contents of " + uri);
+        }
+        return node;
+    }
+
+    /**
+     * Same as {@link #jsonPointerEvaluate(String, JsonNode, String)} but returns null when the pointer does not
+     * match, so callers can fall back to e.g. anchor lookup without catching exceptions.
+     */
+    public static JsonNode jsonPointerFind(String fragment, JsonNode tree) {
         if (StringUtils.isBlank(fragment)) {
             return tree;
         }
@@ -83,18 +101,40 @@ public class ReferenceUtils {
                 continue;
             }
             if (node.isArray()) {
-                node = node.get(Integer.valueOf(token));
+                if (!StringUtils.isNumeric(token) || token.length() > 9) {
+                    return null;
+                }
+                node = node.get(Integer.parseInt(token));
             } else {
                 node = node.get(ReferenceUtils.unescapePointer(token));
             }
-            //if at any point we do find an element we expect, print and error and abort
             if (node == null) {
-                throw new RuntimeException("Could not find " + fragment + " in contents of " + uri);
+                return null;
             }
         }
         return node;
     }
 
+    /**
+     * Deep copies a model object through the 3.1 serializers, so the copy has the same shape as writing the object
+     * out and reading it back, but buffers Jackson tokens in memory instead of rendering and re-parsing JSON text.
+     */
+    public static <T> T deepCopy(T entity, Class<T> clazz) {
+        if (entity == null) {
+            return null;
+        }
+        ObjectMapper mapper = Json31.mapper();
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        try {
+            mapper.writeValue(buffer, entity);
+            try (JsonParser parser = buffer.asParser(mapper)) {
+                return mapper.readValue(parser, clazz);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static String getRefName(String uri) {
         if (uri.indexOf("/") == -1) {
             if (uri.startsWith("#")) {
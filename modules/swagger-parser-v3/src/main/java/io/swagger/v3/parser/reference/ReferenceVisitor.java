@@ -2,6 +2,7 @@ package io.swagger.v3.parser.reference;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import io.swagger.v3.core.util.Json31;
 import io.swagger.v3.core.util.Yaml31;
 import io.swagger.v3.oas.models.PathItem;
@@ -16,6 +17,8 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
 import io.swagger.v3.parser.util.DeserializationUtils;
+import io.swagger.v3.parser.util.DocumentCache;
+import io.swagger.v3.parser.util.LocalFileReader;
 import io.swagger.v3.parser.util.RemoteUrl;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
@@ -23,8 +26,15 @@ import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.representer.Representer;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -42,6 +52,11 @@ public class ReferenceVisitor extends AbstractVisitor {
     protected DereferencerContext context;
     private PermittedUrlsChecker permittedUrlsChecker;
     private final LoaderOptions loaderOptions;
+    // local files are parsed from their bytes, unless a subclass reads them through its own readFile or readURI
+    private final boolean readsLocalFiles = !overrides("readFile", String.class)
+            && !overrides("readURI", String.class, List.class, PermittedUrlsChecker.class);
+    private final boolean readsUrls = !overrides("readHttp", String.class, List.class, PermittedUrlsChecker.class)
+            && !overrides("readURI", String.class, List.class, PermittedUrlsChecker.class);
 
 
     public ReferenceVisitor(
@@ -69,8 +84,7 @@ public class ReferenceVisitor extends AbstractVisitor {
         this.visited = visited;
         this.visitedMap = visitedMap;
         this.context = context;
-        this.permittedUrlsChecker = new PermittedUrlsChecker(context.getParseOptions().getRemoteRefAllowList(),
-                context.getParseOptions().getRemoteRefBlockList());
+        this.permittedUrlsChecker = context.getPermittedUrlsChecker();
         this.loaderOptions = DeserializationUtils.buildLoaderOptions();
     }
 
@@ -209,6 +223,14 @@ public class ReferenceVisitor extends AbstractVisitor {
     public String readHttp(String uri, List<AuthorizationValue> auths, PermittedUrlsChecker permittedUrlsChecker) throws Exception {
         if(context.getParseOptions().isSafelyResolveURL()){
             permittedUrlsChecker.verify(uri);
+        }
+        // only reached for prefetched documents by visitors overriding readHttp or readURI, which parse the source
+        final DocumentCache.Document prefetched = context.getPrefetchedDocuments().isEmpty() ? null
+                : context.getPrefetchedDocuments().remove(uri);
+        if (prefetched != null && prefetched.getContents() != null) {
+            return prefetched.getContents();
+        }
+        if(context.getParseOptions().isSafelyResolveURL()){
             return RemoteUrl.urlToString(uri, auths, permittedUrlsChecker);
         }
         return RemoteUrl.urlToString(uri, auths);
@@ -257,12 +279,10 @@ public class ReferenceVisitor extends AbstractVisitor {
                 referenceObject = toSchemaReference(baseURI, node);
             }
             String fragment = ReferenceUtils.getFragment(ref);
-            JsonNode evaluatedNode;
-            try {
-                evaluatedNode = ReferenceUtils.jsonPointerEvaluate(fragment, referenceObject.getJsonNode(), ref);
-            } catch (RuntimeException e) {
+            JsonNode evaluatedNode = ReferenceUtils.jsonPointerFind(fragment, referenceObject.getJsonNode());
+            if (evaluatedNode == null) {
                 // maybe anchor
-                evaluatedNode = findAnchor(referenceObject.getJsonNode(), fragment);
+                evaluatedNode = referenceObject.getAnchor(fragment);
                 if (evaluatedNode == null) {
                     throw new RuntimeException("Could not find " + fragment + " in contents of " + ref);
                 }
@@ -321,6 +341,21 @@ public class ReferenceVisitor extends AbstractVisitor {
         return Yaml31.mapper().valueToTree(yamlObject);
     }
 
+    /**
+     * Same as {@link #deserializeIntoTree(String)} for the remaining bytes of a buffer, decoded as UTF-8 unless a byte
+     * order mark says otherwise.
+     */
+    public JsonNode deserializeIntoTree(ByteBuffer content) throws Exception {
+        boolean isJson = DeserializationUtils.isJson(content);
+        if (isJson) {
+            return Json31.mapper().readTree(new ByteBufferBackedInputStream(content.duplicate()));
+        }
+        Yaml yaml = getYaml();
+
+        Object yamlObject = yaml.load(new UnicodeReader(new ByteBufferBackedInputStream(content.duplicate())));
+        return Yaml31.mapper().valueToTree(yamlObject);
+    }
+
     private Yaml getYaml() {
         String yamlCodePoints = System.getProperty("maxYamlCodePoints");
         if (yamlCodePoints != null && !yamlCodePoints.isEmpty() && StringUtils.isNumeric(yamlCodePoints)) {
@@ -333,16 +368,143 @@ public class ReferenceVisitor extends AbstractVisitor {
 
     public JsonNode parse(String absoluteUri, List<AuthorizationValue> auths) throws Exception {
         // check if the URL is defined as $id in current document
-        if (context.getIdsCache().containsKey(absoluteUri)) {
-            return deserializeIntoTree(context.getIdsCache().get(absoluteUri));
-        } else {
+        JsonNode idNode = context.getIdsCache().get(absoluteUri);
+        if (idNode == null && context.isIdsCacheStale()) {
             Traverser idsTraverser = new IdsTraverser(context);
             idsTraverser.traverse(context.getOpenApi(), null);
-            if (context.getIdsCache().containsKey(absoluteUri)) {
-                return deserializeIntoTree(context.getIdsCache().get(absoluteUri));
+            context.setIdsCacheStale(false);
+            idNode = context.getIdsCache().get(absoluteUri);
+        }
+        if (idNode != null) {
+            return idNode;
+        }
+
+        final DocumentCache.Document prefetched = takePrefetchedDocument(absoluteUri);
+        final DocumentCache documentCache = context.getDocumentCache();
+        JsonNode node;
+        if (documentCache != null) {
+            node = parseShared(documentCache, absoluteUri, auths, prefetched);
+        } else if (prefetched != null) {
+            node = prefetched.getTree();
+        } else {
+            node = parseLocalFile(absoluteUri);
+            if (node == null) {
+                node = deserializeIntoTree(readURI(absoluteUri, auths, permittedUrlsChecker));
             }
         }
+        if (node != null && node.findValue("$id") != null) {
+            // ids of the loaded document end up in the model once resolved, index again on the next miss
+            context.setIdsCacheStale(true);
+        }
+        return node;
+    }
+
+    /**
+     * @return the document parsed by the {@link io.swagger.v3.parser.util.ExternalRefPrefetcher}, which is handed out
+     * once, or null if it was not prefetched or this visitor reads it through an overridden {@link #readFile},
+     * {@link #readHttp} or {@link #readURI}
+     */
+    private DocumentCache.Document takePrefetchedDocument(String absoluteUri) throws Exception {
+        final Map<String, DocumentCache.Document> prefetchedDocuments = context.getPrefetchedDocuments();
+        if (prefetchedDocuments.isEmpty()) {
+            return null;
+        }
+        final Path path = localFile(absoluteUri);
+        if (path != null) {
+            return prefetchedDocuments.remove(path.toUri().toString());
+        }
+        if (!readsUrls || !prefetchedDocuments.containsKey(absoluteUri)) {
+            return null;
+        }
+        if (context.getParseOptions().isSafelyResolveURL()) {
+            permittedUrlsChecker.verify(absoluteUri);
+        }
+        return prefetchedDocuments.remove(absoluteUri);
+    }
 
-        return deserializeIntoTree(readURI(absoluteUri, auths, permittedUrlsChecker));
+    /**
+     * Looks the document up in the shared {@link DocumentCache}: local files are only read when they changed since
+     * they were cached, other documents are read and only parsed when their contents changed. A prefetched document
+     * is cached as it was parsed by the prefetcher.
+     *
+     * @param prefetched the prefetched document, or null
+     */
+    private JsonNode parseShared(DocumentCache documentCache, String absoluteUri, List<AuthorizationValue> auths,
+                                 DocumentCache.Document prefetched) throws Exception {
+        final Path path = localFile(absoluteUri);
+        if (path != null) {
+            final DocumentCache.Document document = documentCache.get(path.toUri().toString(), null, true,
+                    context.getParseOptions(), DocumentCache.versionOf(path), () -> {
+                        if (prefetched != null) {
+                            return prefetched;
+                        }
+                        final JsonNode node = parseLocalFile(absoluteUri);
+                        return node != null ? new DocumentCache.Document(null, node, null, Files.size(path)) : null;
+                    });
+            if (document != null) {
+                return document.getTree();
+            }
+        }
+        final String contents = prefetched != null ? prefetched.getContents()
+                : readURI(absoluteUri, auths, permittedUrlsChecker);
+        return documentCache.get(absoluteUri, auths, true, context.getParseOptions(),
+                DocumentCache.versionOf(contents),
+                () -> prefetched != null ? prefetched : new DocumentCache.Document(null, deserializeIntoTree(contents),
+                        null, DocumentCache.encodedLength(contents))).getTree();
+    }
+
+    /**
+     * Parses a local file from the buffer returned by {@link LocalFileReader} rather than from a decoded String.
+     *
+     * @return null if the uri does not point to a non blank local file, or if this visitor reads files through an
+     * overridden {@link #readFile} or {@link #readURI}, leaving it to {@link #readURI}
+     */
+    protected JsonNode parseLocalFile(String absoluteUri) throws Exception {
+        final Path path = localFile(absoluteUri);
+        if (path == null) {
+            return null;
+        }
+        final ByteBuffer contents;
+        try {
+            contents = LocalFileReader.read(path);
+        } catch (IOException e) {
+            return null;
+        }
+        if (DeserializationUtils.firstNonBlankByte(contents) == -1) {
+            return null;
+        }
+        return deserializeIntoTree(contents);
+    }
+
+    private boolean overrides(String method, Class<?>... parameterTypes) {
+        try {
+            final Class<?> declaringClass = getClass().getMethod(method, parameterTypes).getDeclaringClass();
+            return declaringClass != Visitor.class && declaringClass != ReferenceVisitor.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private Path localFile(String absoluteUri) {
+        if (!readsLocalFiles) {
+            return null;
+        }
+        try {
+            final URI resolved = new URI(absoluteUri);
+            final String scheme = StringUtils.lowerCase(resolved.getScheme());
+            final Path path;
+            if (StringUtils.isBlank(scheme)) {
+                path = Paths.get(absoluteUri);
+            } else if (scheme.startsWith("http") || scheme.startsWith("classpath")) {
+                return null;
+            } else if (scheme.startsWith("file")) {
+                path = Paths.get(resolved);
+            } else {
+                path = Paths.get(absoluteUri);
+            }
+            return Files.isRegularFile(path) ? path : null;
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
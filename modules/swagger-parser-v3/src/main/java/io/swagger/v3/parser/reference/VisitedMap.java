@@ -0,0 +1,104 @@
+package io.swagger.v3.parser.reference;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Encoding;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks model objects already visited by {@link OpenAPI31Traverser}.
+ *
+ * Objects which can not be the target of a {@code $ref} (the document, components, paths, operations, responses,
+ * media types and encodings) are keyed by identity: they are the largest subtrees, and their {@code hashCode} walks
+ * the whole subtree on every lookup. Everything else keeps equals based keys, because resolving a {@code $ref}
+ * deserializes a fresh copy of its target and recognizing that copy as already visited is what stops circular
+ * references.
+ */
+class VisitedMap<V> extends AbstractMap<Object, V> {
+
+    private final Map<Object, V> byIdentity = new IdentityHashMap<>();
+    private final Map<Object, V> byValue = new HashMap<>();
+
+    static boolean isIdentityKey(Object key) {
+        return key instanceof OpenAPI
+                || key instanceof Components
+                || key instanceof Paths
+                || key instanceof Operation
+                || key instanceof ApiResponses
+                || key instanceof MediaType
+                || key instanceof Encoding;
+    }
+
+    private Map<Object, V> mapFor(Object key) {
+        return isIdentityKey(key) ? byIdentity : byValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return mapFor(key).containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return mapFor(key).get(key);
+    }
+
+    @Override
+    public V put(Object key, V value) {
+        return mapFor(key).put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return mapFor(key).remove(key);
+    }
+
+    @Override
+    public int size() {
+        return byIdentity.size() + byValue.size();
+    }
+
+    @Override
+    public void clear() {
+        byIdentity.clear();
+        byValue.clear();
+    }
+
+    @Override
+    public Set<Entry<Object, V>> entrySet() {
+        return new AbstractSet<Entry<Object, V>>() {
+            @Override
+            public Iterator<Entry<Object, V>> iterator() {
+                final Iterator<Entry<Object, V>> identityEntries = byIdentity.entrySet().iterator();
+                final Iterator<Entry<Object, V>> valueEntries = byValue.entrySet().iterator();
+                return new Iterator<Entry<Object, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return identityEntries.hasNext() || valueEntries.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Object, V> next() {
+                        return identityEntries.hasNext() ? identityEntries.next() : valueEntries.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return VisitedMap.this.size();
+            }
+        };
+    }
+}
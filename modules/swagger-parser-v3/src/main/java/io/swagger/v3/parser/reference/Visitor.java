@@ -19,12 +19,11 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
 import io.swagger.v3.parser.util.ClasspathHelper;
+import io.swagger.v3.parser.util.LocalFileReader;
 import io.swagger.v3.parser.util.RemoteUrl;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.File;
 import java.net.URI;
 import java.util.List;
 
@@ -64,9 +63,7 @@ public interface Visitor {
     Example visitExample(Example example);
 
     default String readFile(String path) throws Exception {
-        try (InputStream inputStream = new FileInputStream(path)) {
-            return IOUtils.toString(inputStream, UTF_8);
-        }
+        return LocalFileReader.readToString(new File(path).toPath(), UTF_8);
     }
 
     default String readClasspath(String classPath) {
@@ -0,0 +1,193 @@
+package io.swagger.v3.parser.util;
+
+import io.swagger.v3.parser.urlresolver.models.ResolvedUrl;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Makes {@link RemoteUrl} connect to the address a url was verified with by the
+ * {@link io.swagger.v3.parser.urlresolver.PermittedUrlsChecker}, rather than to whatever its host resolves to when
+ * the connection is opened, while still sending the original host in the {@code Host} header and as TLS server name.
+ *
+ * Plain http requests are sent through the verified address as if it were a proxy, which sends the full url in the
+ * request line and the original {@code Host} header. https connections are opened on a socket which connects to the
+ * verified address whatever endpoint it is asked to connect to, and TLS is then layered on it for the original host.
+ * Urls are not pinned when a proxy is configured for them.
+ */
+final class AddressPinning {
+
+    private static final Pattern IP_LITERAL = Pattern.compile("\\[.*]|[0-9.]+");
+    private static final int MAX_FACTORIES = 256;
+
+    // connections are only kept alive for reuse with the same socket factory, so hand out one per factory and address
+    private static final Map<List<Object>, PinnedSSLSocketFactory> FACTORIES = new ConcurrentHashMap<>();
+
+    private AddressPinning() {
+    }
+
+    /**
+     * @return the verified url if connections to the url can be pinned to its address, null otherwise
+     */
+    static ResolvedUrl pinnable(URL url, ResolvedUrl resolved) {
+        if (resolved == null || resolved.getAddress() == null || IP_LITERAL.matcher(url.getHost()).matches()) {
+            return null;
+        }
+        if (!"http".equalsIgnoreCase(url.getProtocol()) && !"https".equalsIgnoreCase(url.getProtocol())) {
+            return null;
+        }
+        try {
+            final ProxySelector proxySelector = ProxySelector.getDefault();
+            if (proxySelector != null) {
+                for (Proxy proxy : proxySelector.select(url.toURI())) {
+                    if (proxy.type() != Proxy.Type.DIRECT) {
+                        return null;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return resolved;
+    }
+
+    static URLConnection openConnection(URL url, ResolvedUrl pinned) throws IOException {
+        if (pinned != null && "http".equalsIgnoreCase(url.getProtocol())) {
+            final int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+            return url.openConnection(new Proxy(Proxy.Type.HTTP, new InetSocketAddress(pinned.getAddress(), port)));
+        }
+        return url.openConnection();
+    }
+
+    /**
+     * Pins a configured https connection; to be called once its socket factory is set.
+     */
+    static void pinTls(URLConnection connection, ResolvedUrl pinned) {
+        if (pinned == null || !(connection instanceof HttpsURLConnection)) {
+            return;
+        }
+        final HttpsURLConnection httpsConnection = (HttpsURLConnection) connection;
+        httpsConnection.setSSLSocketFactory(factory(httpsConnection.getSSLSocketFactory(), pinned.getAddress(),
+                httpsConnection.getConnectTimeout()));
+    }
+
+    private static PinnedSSLSocketFactory factory(SSLSocketFactory delegate, InetAddress address, int connectTimeout) {
+        if (FACTORIES.size() >= MAX_FACTORIES) {
+            FACTORIES.clear();
+        }
+        return FACTORIES.computeIfAbsent(Arrays.asList(delegate, address, connectTimeout),
+                key -> new PinnedSSLSocketFactory(delegate, address, connectTimeout));
+    }
+
+    static int factoryCount() {
+        return FACTORIES.size();
+    }
+
+    static class PinnedSSLSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory delegate;
+        private final InetAddress address;
+        private final int connectTimeout;
+
+        PinnedSSLSocketFactory(SSLSocketFactory delegate, InetAddress address, int connectTimeout) {
+            this.delegate = delegate;
+            this.address = address;
+            this.connectTimeout = connectTimeout;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        /**
+         * @return an unconnected socket, which {@code HttpsURLConnection} connects to the host, then layers TLS over
+         * with {@link #createSocket(Socket, String, int, boolean)}
+         */
+        @Override
+        public Socket createSocket() {
+            return new PinnedSocket();
+        }
+
+        /**
+         * Layers TLS over the connected socket, for the original host, after reconnecting it to the verified address
+         * if it is connected to another one.
+         */
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+            Socket pinned = socket;
+            if (!address.equals(socket.getInetAddress())) {
+                final int soTimeout = socket.getSoTimeout();
+                socket.close();
+                pinned = new Socket();
+                pinned.connect(new InetSocketAddress(address, port), connectTimeout);
+                pinned.setSoTimeout(soTimeout);
+                autoClose = true;
+            }
+            return delegate.createSocket(pinned, host, port, autoClose);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return createSocket(connect(port), host, port, true);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            final Socket socket = new Socket();
+            socket.bind(new InetSocketAddress(localHost, localPort));
+            socket.connect(new InetSocketAddress(address, port), connectTimeout);
+            return delegate.createSocket(socket, host, port, true);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return delegate.createSocket(address, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port, InetAddress localAddress, int localPort) throws IOException {
+            return delegate.createSocket(address, port, localAddress, localPort);
+        }
+
+        private Socket connect(int port) throws IOException {
+            final Socket socket = new Socket();
+            socket.connect(new InetSocketAddress(address, port), connectTimeout);
+            return socket;
+        }
+
+        /**
+         * Connects to the verified address, on the port of the endpoint; the host of the endpoint is not used, nor
+         * resolved.
+         */
+        private class PinnedSocket extends Socket {
+
+            @Override
+            public void connect(SocketAddress endpoint, int timeout) throws IOException {
+                if (!(endpoint instanceof InetSocketAddress)) {
+                    throw new IllegalArgumentException("Unsupported address type " + endpoint);
+                }
+                super.connect(new InetSocketAddress(address, ((InetSocketAddress) endpoint).getPort()), timeout);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.swagger.v3.parser.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the names of a components map, such as the schemas, for allocating new names without scanning all of them.
+ *
+ * It keeps the next suffix to try per base name and the names by their case folded form. The index follows one map
+ * at a time and is rebuilt when it is given another map, or when the map holds names it was not told about through
+ * {@link #added(Map, String)}. Names are assumed not to be removed from the map.
+ */
+public final class ComponentNameIndex {
+
+    private Map<String, ?> components;
+    private final Set<String> names = new HashSet<>();
+    private final Map<String, String> namesIgnoreCase = new HashMap<>();
+    private final Map<String, Integer> nextSuffixes = new HashMap<>();
+
+    /**
+     * @return the first of {@code name}, {@code name_1}, {@code name_2}, ... not in the components
+     */
+    public String uniqueName(Map<String, ?> components, String name) {
+        if (components == null) {
+            return name;
+        }
+        sync(components);
+        int suffix = nextSuffixes.getOrDefault(name, 0);
+        while (true) {
+            String candidate = suffix == 0 ? name : name + "_" + suffix;
+            if (!components.containsKey(candidate)) {
+                // the name is not taken until it is added
+                nextSuffixes.put(name, suffix);
+                return candidate;
+            }
+            suffix++;
+        }
+    }
+
+    /**
+     * @return the name in the components equal to {@code name} ignoring case, preferring an exact match, or null
+     */
+    public String findIgnoreCase(Map<String, ?> components, String name) {
+        if (components == null) {
+            return null;
+        }
+        if (components.containsKey(name)) {
+            return name;
+        }
+        sync(components);
+        String existing = namesIgnoreCase.get(fold(name));
+        if (existing != null && !components.containsKey(existing)) {
+            rebuild(components);
+            existing = namesIgnoreCase.get(fold(name));
+        }
+        return existing;
+    }
+
+    /**
+     * Records a name just put in the components.
+     */
+    public void added(Map<String, ?> components, String name) {
+        if (components == this.components && names.add(name)) {
+            namesIgnoreCase.putIfAbsent(fold(name), name);
+        }
+    }
+
+    private void sync(Map<String, ?> components) {
+        if (components != this.components || components.size() != names.size()) {
+            rebuild(components);
+        }
+    }
+
+    private void rebuild(Map<String, ?> components) {
+        this.components = components;
+        names.clear();
+        namesIgnoreCase.clear();
+        nextSuffixes.clear();
+        for (String name : components.keySet()) {
+            names.add(name);
+            namesIgnoreCase.putIfAbsent(fold(name), name);
+        }
+    }
+
+    // strings fold to the same value if and only if they are equal ignoring case
+    private static String fold(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -4,6 +4,11 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.swagger.v3.core.util.Yaml;
@@ -23,16 +28,24 @@ import org.yaml.snakeyaml.constructor.SafeConstructor;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DeserializationUtils {
 
@@ -113,6 +126,15 @@ public class DeserializationUtils {
 
     private static final ObjectMapper JSON_MAPPER_FOR_YAML = new ObjectMapper();
 
+    private static final ObjectMapper JSON_MAPPER = ObjectMapperFactory.createJson();
+
+    // LoaderOptions setters are looked up once; they are missing in snakeyaml < 1.25
+    private static final Method SET_MAX_ALIASES_FOR_COLLECTIONS = getLoaderOptionsMethod("setMaxAliasesForCollections", int.class);
+    private static final Method SET_ALLOW_RECURSIVE_KEYS = getLoaderOptionsMethod("setAllowRecursiveKeys", boolean.class);
+    private static final Method SET_ALLOW_DUPLICATE_KEYS = getLoaderOptionsMethod("setAllowDuplicateKeys", boolean.class);
+    private static final Method SET_CODE_POINT_LIMIT = getLoaderOptionsMethod("setCodePointLimit", int.class);
+    private static final boolean LOADER_OPTIONS_SUPPORTED = getLoaderOptionsMethod("getMaxAliasesForCollections") != null;
+
     private static ObjectMapper yaml30Mapper = Yaml.mapper();
 
     public static void setYaml30Mapper(YAMLFactory yamlFactory) {
@@ -166,7 +188,40 @@ public class DeserializationUtils {
 
         try {
             if (isJson(contents)) {
-                result = ObjectMapperFactory.createJson().readTree(contents);
+                result = JSON_MAPPER.readTree(contents);
+            } else {
+                result = readYamlTree(contents, parseOptions, deserializationUtilsResult);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("An exception was thrown while trying to deserialize the contents of " + uri + " into a JsonNode tree", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Same as {@link #deserializeIntoTree(String, String, ParseOptions, SwaggerParseResult)} for encoded content:
+     * JSON is handed to Jackson as bytes, YAML is decoded by snakeyaml while parsing (UTF-8 unless a byte order mark
+     * says otherwise), so the document is never held as a String.
+     */
+    public static JsonNode deserializeIntoTree(byte[] contents, String uri, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
+        return deserializeIntoTree(ByteBuffer.wrap(contents), uri, parseOptions, deserializationUtilsResult);
+    }
+
+    /**
+     * Same as {@link #deserializeIntoTree(byte[], String, ParseOptions, SwaggerParseResult)} for the remaining bytes
+     * of a buffer; the buffer's position is left unchanged.
+     */
+    public static JsonNode deserializeIntoTree(ByteBuffer contents, String uri, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
+        JsonNode result;
+
+        try {
+            if (isJson(contents)) {
+                if (contents.hasArray()) {
+                    result = JSON_MAPPER.readTree(contents.array(), contents.arrayOffset() + contents.position(), contents.remaining());
+                } else {
+                    result = JSON_MAPPER.readTree(new ByteBufferBackedInputStream(contents.duplicate()));
+                }
             } else {
                 result = readYamlTree(contents, parseOptions, deserializationUtilsResult);
             }
@@ -217,20 +272,60 @@ public class DeserializationUtils {
     }
 
     public static boolean isJson(String contents) {
-        return contents.trim().startsWith("{");
+        for (int i = 0; i < contents.length(); i++) {
+            char c = contents.charAt(i);
+            if (c > ' ') {
+                return c == '{';
+            }
+        }
+        return false;
+    }
+
+    public static boolean isJson(byte[] contents) {
+        return isJson(ByteBuffer.wrap(contents));
+    }
+
+    public static boolean isJson(ByteBuffer contents) {
+        return firstNonBlankByte(contents) == '{';
+    }
+
+    public static int firstNonBlankByte(byte[] contents) {
+        return firstNonBlankByte(ByteBuffer.wrap(contents));
+    }
+
+    /**
+     * @return the first remaining byte of the content which is neither whitespace, NUL padding of a UTF-16/32
+     * encoding nor part of a byte order mark, or -1 if there is none
+     */
+    public static int firstNonBlankByte(ByteBuffer contents) {
+        for (int i = contents.position(); i < contents.limit(); i++) {
+            int c = contents.get(i) & 0xFF;
+            if (c > ' ' && c != 0xEF && c != 0xBB && c != 0xBF && c != 0xFE && c != 0xFF) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static Method getLoaderOptionsMethod(String name, Class<?>... parameterTypes) {
+        try {
+            return LoaderOptions.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
     }
 
     public static LoaderOptions buildLoaderOptions() {
         LoaderOptions loaderOptions = new LoaderOptions();
         try {
-            Method method = LoaderOptions.class.getMethod("setMaxAliasesForCollections", int.class);
-            method.invoke(loaderOptions, options.getMaxYamlAliasesForCollections());
-            method = LoaderOptions.class.getMethod("setAllowRecursiveKeys", boolean.class);
-            method.invoke(loaderOptions, options.isYamlAllowRecursiveKeys());
-            method = LoaderOptions.class.getMethod("setAllowDuplicateKeys", boolean.class);
-            method.invoke(loaderOptions, false);
-            method = LoaderOptions.class.getMethod("setCodePointLimit", int.class);
-            method.invoke(loaderOptions, options.getMaxYamlCodePoints());
+            if (SET_MAX_ALIASES_FOR_COLLECTIONS == null || SET_ALLOW_RECURSIVE_KEYS == null
+                    || SET_ALLOW_DUPLICATE_KEYS == null || SET_CODE_POINT_LIMIT == null) {
+                throw new NoSuchMethodException();
+            }
+            SET_MAX_ALIASES_FOR_COLLECTIONS.invoke(loaderOptions, options.getMaxYamlAliasesForCollections());
+            SET_ALLOW_RECURSIVE_KEYS.invoke(loaderOptions, options.isYamlAllowRecursiveKeys());
+            SET_ALLOW_DUPLICATE_KEYS.invoke(loaderOptions, false);
+            SET_CODE_POINT_LIMIT.invoke(loaderOptions, options.getMaxYamlCodePoints());
 
         } catch (ReflectiveOperationException e) {
             LOGGER.debug("using snakeyaml < 1.25, not setting YAML Billion Laughs Attack snakeyaml level protection");
@@ -242,40 +337,47 @@ public class DeserializationUtils {
         return readYamlTree(contents, null, new SwaggerParseResult());
     }
     public static JsonNode readYamlTree(String contents, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
+        return readYamlTree(() -> new StringReader(contents), parseOptions, deserializationUtilsResult);
+    }
+
+    public static JsonNode readYamlTree(byte[] contents, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
+        return readYamlTree(ByteBuffer.wrap(contents), parseOptions, deserializationUtilsResult);
+    }
+
+    public static JsonNode readYamlTree(ByteBuffer contents, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
+        return readYamlTree(() -> new UnicodeReader(new ByteBufferBackedInputStream(contents.duplicate())), parseOptions, deserializationUtilsResult);
+    }
+
+    private static JsonNode readYamlTree(ContentReader contents, ParseOptions parseOptions, SwaggerParseResult deserializationUtilsResult) {
 
         if (parseOptions != null && parseOptions.isLegacyYamlDeserialization()) {
             org.yaml.snakeyaml.Yaml yaml = new org.yaml.snakeyaml.Yaml(new SafeConstructor(buildLoaderOptions()));
-            return Json.mapper().convertValue(yaml.load(contents), JsonNode.class);
+            try (Reader reader = contents.open()) {
+                return Json.mapper().convertValue(yaml.load(reader), JsonNode.class);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
         try {
-            org.yaml.snakeyaml.Yaml yaml;
-            if (options.isValidateYamlInput()) {
-                yaml = buildSnakeYaml(new CustomSnakeYamlConstructor());
-            } else {
-                yaml = buildSnakeYaml(new SafeConstructor(buildLoaderOptions()));
+            JsonNodeConstructor constructor = new JsonNodeConstructor(options.isValidateYamlInput(), deserializationUtilsResult);
+            JsonNode tree;
+            try (Reader reader = contents.open()) {
+                tree = constructor.constructTree(buildSnakeYaml(constructor), reader);
             }
-            Object o = yaml.load(contents);
-            if (options.isValidateYamlInput()) {
-                boolean res = exceedsLimits(o, null, 0, new IdentityHashMap<>(), deserializationUtilsResult);
-                if (res) {
-                    LOGGER.warn("Error converting snake-parsed yaml to JsonNode");
-                    return getYaml30Mapper().readTree(contents);
+            if (tree == null) {
+                LOGGER.warn("Error converting snake-parsed yaml to JsonNode");
+                try (Reader reader = contents.open()) {
+                    return getYaml30Mapper().readTree(reader);
                 }
             }
-            try {
-                String objAsJsonStr = JSON_MAPPER_FOR_YAML.writeValueAsString(o);
-                return JSON_MAPPER_FOR_YAML.readTree(objAsJsonStr);
-            } catch (Exception e) {
-                //
-            }
-            return Json.mapper().convertValue(o, JsonNode.class);
+            return tree;
         } catch (Exception e) {
             LOGGER.warn(e.getMessage(), e);
             if (deserializationUtilsResult != null) {
                 deserializationUtilsResult.message(e.getMessage());
             }
-            try {
-                return Yaml.mapper().readTree(contents);
+            try (Reader reader = contents.open()) {
+                return Yaml.mapper().readTree(reader);
             } catch (Exception ee) {
                 LOGGER.error("Error parsing content", ee);
                 throw new RuntimeException(e);
@@ -284,6 +386,14 @@ public class DeserializationUtils {
         }
     }
 
+    /**
+     * Opens a fresh reader over the same content, as the yaml fallbacks parse it again.
+     */
+    @FunctionalInterface
+    private interface ContentReader {
+        Reader open() throws IOException;
+    }
+
     public static <T> T readYamlValue(String contents, Class<T> expectedType) {
         return readYamlValue(contents, expectedType, false);
     }
@@ -294,9 +404,7 @@ public class DeserializationUtils {
     }
 
     public static org.yaml.snakeyaml.Yaml buildSnakeYaml(BaseConstructor constructor) {
-        try {
-            LoaderOptions.class.getMethod("getMaxAliasesForCollections");
-        } catch (NoSuchMethodException e) {
+        if (!LOADER_OPTIONS_SUPPORTED) {
             return new org.yaml.snakeyaml.Yaml(constructor);
         }
         try {
@@ -309,112 +417,6 @@ public class DeserializationUtils {
         return new org.yaml.snakeyaml.Yaml(constructor);
     }
 
-    private static boolean exceedsLimits(Object o, Object parent, Integer depth, Map<Object, Long> visited, SwaggerParseResult errorOutput) {
-
-        if (o == null) return false;
-        if (!(o instanceof List) && !(o instanceof Map)) return false;
-        if (depth > options.getMaxYamlDepth()) {
-            String msg = String.format("snake-yaml result exceeds max depth %d; threshold can be increased if needed by setting system property `maxYamlDepth` to a higher value.", options.getMaxYamlDepth());
-            LOGGER.warn(msg);
-            if (errorOutput != null) {
-                errorOutput.message(msg);
-            }
-            return true;
-        }
-        int currentDepth = depth;
-        if (visited.containsKey(o)) {
-            Object target = parent;
-            if (target == null) {
-                target = o;
-            }
-            if (options.isYamlCycleCheck()) {
-                boolean res = hasReference(o, target, new Integer(0), new IdentityHashMap<Object, Long>(), errorOutput);
-                if (res) {
-                    return true;
-                }
-            }
-            if (visited.get(o) > options.getMaxYamlReferences()) {
-                String msg = String.format("snake-yaml result exceeds max references %d; threshold can be increased if needed by setting system property `maxYamlReferences` to a higher value.", options.getMaxYamlReferences());
-                LOGGER.warn(msg);
-                if (errorOutput != null) {
-                    errorOutput.message(msg);
-                }
-                return true;
-            }
-            visited.put(o, visited.get(o) + 1);
-
-        } else {
-            visited.put(o, 1L);
-        }
-
-        if (o instanceof Map) {
-            for (Object k : ((Map) o).keySet()) {
-                boolean res = exceedsLimits(k, o, currentDepth + 1, visited, errorOutput);
-                if (res) {
-                    return true;
-                }
-            }
-            for (Object v : ((Map) o).values()) {
-                boolean res = exceedsLimits(v, o, currentDepth + 1, visited, errorOutput);
-                if (res) {
-                    return true;
-                }
-            }
-
-        } else if (o instanceof List) {
-            for (Object v: ((List)o)) {
-                boolean res = exceedsLimits(v, o, currentDepth + 1, visited, errorOutput);
-                if (res) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private static boolean hasReference(Object o, Object target, Integer depth, Map<Object, Long> visited, SwaggerParseResult errorOutput) {
-
-        if (o == null || target == null) return false;
-        if (!(o instanceof List) && !(o instanceof Map)) return false;
-        if (!(target instanceof List) && !(target instanceof Map)) return false;
-        if (depth > options.getMaxYamlDepth()) {
-            String msg = String.format("snake-yaml result exceeds max depth %d; threshold can be increased if needed by setting system property `maxYamlDepth` to a higher value.", options.getMaxYamlDepth());
-            LOGGER.warn(msg);
-            if (errorOutput != null) {
-                errorOutput.message(msg);
-            }
-            return true;
-        }
-        int currentDepth = depth;
-        if (visited.containsKey(target)) {
-            return false;
-        }
-        visited.put(o, 1L);
-        ArrayList children = new ArrayList();
-        if (o instanceof Map) {
-            children.addAll(((Map)o).keySet());
-            children.addAll(((Map)o).values());
-
-        } else if (o instanceof List) {
-            children.addAll((List)o);
-        }
-        for (Object v : children) {
-            if (v == target) {
-                String msg = "detected cycle in snake-yaml result; cycle check can be disabled by setting system property `yamlCycleCheck` to false.";
-                LOGGER.warn(msg);
-                if (errorOutput != null) {
-                    errorOutput.message(msg);
-                }
-                return true;
-            }
-            boolean res = hasReference(v, target, currentDepth + 1, visited, errorOutput);
-            if (res) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     static class SnakeException extends RuntimeException {
         public SnakeException() {
             super();
@@ -429,10 +431,47 @@ public class DeserializationUtils {
 
     }
 
-    static class CustomSnakeYamlConstructor extends SafeConstructor {
+    /**
+     * Builds the Jackson tree directly from the snakeyaml node graph, without materializing the intermediate
+     * Map/List object graph and its JSON serialization.
+     * Depth, reference and cycle limits are enforced while walking the nodes; aliases are expanded in place.
+     */
+    static class JsonNodeConstructor extends SafeConstructor {
+
+        private final boolean validate;
+        private final SwaggerParseResult errorOutput;
+        private final Map<Node, Long> references = new IdentityHashMap<>();
+        private final Set<Node> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean limitsExceeded;
 
-        public CustomSnakeYamlConstructor() {
+        public JsonNodeConstructor(boolean validate, SwaggerParseResult errorOutput) {
             super(buildLoaderOptions());
+            this.validate = validate;
+            this.errorOutput = errorOutput;
+        }
+
+        /**
+         * @return the tree built from the given yaml content, or null if the content exceeds the configured limits
+         */
+        public JsonNode constructTree(org.yaml.snakeyaml.Yaml yaml, Reader contents) {
+            try {
+                Node node = yaml.compose(contents);
+                if (node == null) {
+                    return NullNode.getInstance();
+                }
+                if (validate && node instanceof MappingNode && !checkNode((MappingNode) node, 0)) {
+                    LOGGER.warn("yaml tree depth exceeds max {}; threshold can be increased if needed by setting  system property `maxYamlDepth` to a higher value.", options.getMaxYamlDepth());
+                    throw new SnakeException("yaml tree depth exceeds max " + options.getMaxYamlDepth());
+                }
+                JsonNode tree = construct(node, 0);
+                return limitsExceeded ? null : tree;
+            } catch (StackOverflowError e) {
+                throw new SnakeException("StackOverflow safe-checking yaml content (maxDepth " + options.getMaxYamlDepth() + ")", e);
+            } catch (DuplicateKeyException e) {
+                throw new SnakeException(e.getProblem().replace("found duplicate key", "Duplicate field"));
+            } catch (Exception e) {
+                throw new SnakeException(e.getMessage() + "; Max code points: " + options.getMaxYamlCodePoints(), e);
+            }
         }
 
         private boolean checkNode(MappingNode node, Integer depth) {
@@ -452,34 +491,108 @@ public class DeserializationUtils {
             return true;
         }
 
-        @Override
-        public Object getSingleData(Class<?> type) {
+        private JsonNode construct(Node node, int depth) throws IOException {
+            if (node instanceof ScalarNode) {
+                if (Tag.STR.equals(node.getTag())) {
+                    return JsonNodeFactory.instance.textNode(((ScalarNode) node).getValue());
+                }
+                return toJsonNode(getConstructor(node).construct(node));
+            }
+            if (validate && depth > options.getMaxYamlDepth()) {
+                return exceeded(String.format("snake-yaml result exceeds max depth %d; threshold can be increased if needed by setting system property `maxYamlDepth` to a higher value.", options.getMaxYamlDepth()));
+            }
+            boolean cycle = !ancestors.add(node);
             try {
-                Node node = this.composer.getSingleNode();
-                if (node != null) {
-                    if (node instanceof MappingNode) {
-                        if (!checkNode((MappingNode) node, new Integer(0))) {
-                            LOGGER.warn("yaml tree depth exceeds max depth {}; threshold can be increased if needed by setting  system property `maxYamlDepth` to a higher value.", options.getMaxYamlDepth());
-                            throw new SnakeException("yaml tree depth exceeds max " + options.getMaxYamlDepth());
+                if (cycle && (!validate || options.isYamlCycleCheck())) {
+                    return exceeded("detected cycle in snake-yaml result; cycle check can be disabled by setting system property `yamlCycleCheck` to false.");
+                }
+                Long count = references.get(node);
+                if (count == null) {
+                    count = 0L;
+                } else if (validate && count > options.getMaxYamlReferences()) {
+                    return exceeded(String.format("snake-yaml result exceeds max references %d; threshold can be increased if needed by setting system property `maxYamlReferences` to a higher value.", options.getMaxYamlReferences()));
+                }
+                references.put(node, count + 1);
+
+                if (node instanceof MappingNode && Tag.MAP.equals(node.getTag())) {
+                    MappingNode mappingNode = (MappingNode) node;
+                    if (count == 0) {
+                        // resolves merge keys and rejects duplicate keys, only needed once per aliased node
+                        flattenMapping(mappingNode);
+                    }
+                    ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
+                    for (NodeTuple tuple : mappingNode.getValue()) {
+                        String key = constructKey(tuple.getKeyNode(), depth + 1);
+                        JsonNode value = construct(tuple.getValueNode(), depth + 1);
+                        if (value == null) {
+                            return null;
                         }
+                        objectNode.set(key, value);
                     }
-                    if (Object.class != type) {
-                        node.setTag(new Tag(type));
-                    } else if (this.rootTag != null) {
-                        node.setTag(this.rootTag);
+                    return objectNode;
+                }
+                if (node instanceof SequenceNode && Tag.SEQ.equals(node.getTag())) {
+                    ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+                    for (Node item : ((SequenceNode) node).getValue()) {
+                        JsonNode value = construct(item, depth + 1);
+                        if (value == null) {
+                            return null;
+                        }
+                        arrayNode.add(value);
                     }
-
-                    return this.constructDocument(node);
-                } else {
-                    return null;
+                    return arrayNode;
                 }
-            } catch (StackOverflowError e) {
-                throw new SnakeException("StackOverflow safe-checking yaml content (maxDepth " + options.getMaxYamlDepth() + ")", e);
-            } catch (DuplicateKeyException e) {
-                throw new SnakeException(e.getProblem().replace("found duplicate key", "Duplicate field"));
-            } catch (Exception e) {
-                throw new SnakeException(e.getMessage() + "; Max code points: " + options.getMaxYamlCodePoints(), e);
+                // explicitly tagged collections (!!set, !!omap, !!pairs) keep the snakeyaml representation
+                return toJsonNode(constructObject(node));
+            } finally {
+                if (!cycle) {
+                    ancestors.remove(node);
+                }
+            }
+        }
+
+        private String constructKey(Node node, int depth) {
+            if (node instanceof ScalarNode && Tag.STR.equals(node.getTag())) {
+                return ((ScalarNode) node).getValue();
+            }
+            if (validate && node instanceof MappingNode && !checkNode((MappingNode) node, depth)) {
+                throw new SnakeException("yaml tree depth exceeds max " + options.getMaxYamlDepth());
+            }
+            Object key = constructObject(node);
+            if (key instanceof String || key instanceof Number || key instanceof Boolean) {
+                return key.toString();
+            }
+            // let Jackson render any other key type as it would when serializing a Map
+            return JSON_MAPPER_FOR_YAML.valueToTree(Collections.singletonMap(key, null)).fieldNames().next();
+        }
+
+        private JsonNode toJsonNode(Object value) throws IOException {
+            if (value == null) {
+                return NullNode.getInstance();
+            } else if (value instanceof String) {
+                return JsonNodeFactory.instance.textNode((String) value);
+            } else if (value instanceof Boolean) {
+                return JsonNodeFactory.instance.booleanNode((Boolean) value);
+            } else if (value instanceof Integer) {
+                return JsonNodeFactory.instance.numberNode((Integer) value);
+            } else if (value instanceof Long) {
+                return JsonNodeFactory.instance.numberNode((Long) value);
+            } else if (value instanceof BigInteger) {
+                return JsonNodeFactory.instance.numberNode((BigInteger) value);
+            } else if (value instanceof Double) {
+                return JsonNodeFactory.instance.numberNode((Double) value);
+            }
+            // binary, timestamps and other explicitly tagged values
+            return JSON_MAPPER_FOR_YAML.readTree(JSON_MAPPER_FOR_YAML.writeValueAsString(value));
+        }
+
+        private JsonNode exceeded(String msg) {
+            LOGGER.warn(msg);
+            if (errorOutput != null) {
+                errorOutput.message(msg);
             }
+            limitsExceeded = true;
+            return null;
         }
     }
 }
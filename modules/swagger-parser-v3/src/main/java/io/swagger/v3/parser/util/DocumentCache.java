@@ -0,0 +1,258 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of parsed external documents, meant to be shared by every parse of a long running process so that
+ * documents referenced by many specs are read and parsed once. It is passed to
+ * {@link io.swagger.v3.parser.OpenAPIV3Parser#OpenAPIV3Parser(DocumentCache)} and is safe for concurrent parses.
+ *
+ * Documents are keyed by their absolute location, the digest of the authorization values sent to fetch them, the
+ * OpenAPI version they are parsed for and the options the parsed tree depends on: the legacy YAML deserialization
+ * flag of the {@link ParseOptions} and the YAML limits of {@link DeserializationUtils#getOptions()} for 3.0, the
+ * {@code maxYamlCodePoints} system property for 3.1. They are valid for one version of their source: the modification time and size
+ * of a local file, or the digest of the contents of a remote document, which is still fetched by every parse (see
+ * {@link RemoteUrlCache} to revalidate it instead). A new version replaces the entry of the previous one.
+ *
+ * The cache holds at most {@code maxBytes} of source documents, measured as UTF-8, evicting the least recently used
+ * ones first; the parsed tree of a document typically takes a few times its source size on the heap. Each parse gets
+ * its own copy of a cached tree, as the deserializers hand parts of it, such as examples and defaults, to the models
+ * they return, where callers and resolvers may modify them.
+ */
+public class DocumentCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Document> documents = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DocumentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public DocumentCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public interface Loader {
+
+        /**
+         * @return the document, or null if it can't be loaded from this source
+         */
+        Document load() throws Exception;
+    }
+
+    /**
+     * Returns the cached document for the given source version, loading and caching it on a miss. Concurrent misses
+     * for the same document each load it.
+     *
+     * @param location  the absolute location of the document
+     * @param auths     the authorization values sent to fetch it, if any
+     * @param openapi31 whether it is parsed for a 3.1 spec
+     * @param options   the options it is parsed with, may be null
+     * @param version   the version of the source, see {@link #versionOf(Path)} and {@link #versionOf(String)}
+     * @return the document, or null if the loader returned null
+     */
+    public Document get(String location, List<AuthorizationValue> auths, boolean openapi31, ParseOptions options,
+                        String version, Loader loader) throws Exception {
+        final String key = optionsFingerprint(openapi31, options) + '\n' + location + '\n'
+                + authFingerprint(location, auths);
+        synchronized (this) {
+            final Document cached = documents.get(key);
+            if (cached != null && cached.version.equals(version)) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        final Document loaded = loader.load();
+        if (loaded == null) {
+            return null;
+        }
+        final Document document = new Document(loaded, version);
+        synchronized (this) {
+            final Document replaced = documents.remove(key);
+            if (replaced != null) {
+                bytes -= replaced.bytes;
+            }
+            if (document.bytes <= maxBytes) {
+                documents.put(key, document);
+                bytes += document.bytes;
+                evict();
+            }
+        }
+        return document;
+    }
+
+    /**
+     * @return the OpenAPI version and the options the tree of a document parsed for it depends on
+     */
+    static String optionsFingerprint(boolean openapi31, ParseOptions options) {
+        if (openapi31) {
+            // the 3.1 resolver only reads the code point limit, from the system property
+            return "3.1 " + System.getProperty("maxYamlCodePoints");
+        }
+        final DeserializationUtils.Options yaml = DeserializationUtils.getOptions();
+        return "3.0 " + (options != null && options.isLegacyYamlDeserialization())
+                + ' ' + yaml.getMaxYamlDepth()
+                + ' ' + yaml.getMaxYamlReferences()
+                + ' ' + yaml.isValidateYamlInput()
+                + ' ' + yaml.isYamlCycleCheck()
+                + ' ' + yaml.getMaxYamlCodePoints()
+                + ' ' + yaml.getMaxYamlAliasesForCollections()
+                + ' ' + yaml.isYamlAllowRecursiveKeys();
+    }
+
+    private static String authFingerprint(String location, List<AuthorizationValue> auths) {
+        try {
+            return RemoteUrl.authFingerprint(location, auths);
+        } catch (IOException e) {
+            // not a url, so nothing was sent with it
+            return "";
+        }
+    }
+
+    private void evict() {
+        for (Iterator<Document> it = documents.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    /**
+     * @return the size of the contents encoded as UTF-8, as counted against the limit of the cache
+     */
+    public static long encodedLength(String contents) {
+        long length = 0;
+        for (int i = 0; i < contents.length(); i++) {
+            final char c = contents.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < contents.length()
+                    && Character.isLowSurrogate(contents.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return the version of a local file, from its modification time and size
+     */
+    public static String versionOf(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+    }
+
+    /**
+     * @return the version of a document read as a whole, from the digest of its contents
+     */
+    public static String versionOf(String contents) {
+        return RemoteUrlCache.sha256(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return the total size of the cached source documents, in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        bytes = 0;
+    }
+
+    /**
+     * A parsed document with the messages reported while parsing it.
+     */
+    public static final class Document {
+        private final String contents;
+        private final JsonNode tree;
+        private final List<String> messages;
+        private final long bytes;
+        private final String version;
+
+        /**
+         * @param contents the source, if the parse needs it besides the tree
+         * @param tree     the parsed tree
+         * @param messages the messages reported while parsing, if any
+         * @param bytes    the size of the source in bytes, see {@link #encodedLength(String)}
+         */
+        public Document(String contents, JsonNode tree, List<String> messages, long bytes) {
+            this.contents = contents;
+            this.tree = tree;
+            this.messages = messages == null || messages.isEmpty()
+                    ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(messages));
+            this.bytes = bytes;
+            this.version = null;
+        }
+
+        private Document(Document document, String version) {
+            this.contents = document.contents;
+            this.tree = document.tree;
+            this.messages = document.messages;
+            this.bytes = document.bytes;
+            this.version = version;
+        }
+
+        public String getContents() {
+            return contents;
+        }
+
+        /**
+         * @return the parsed tree, which the caller may modify: a copy of it if the document is held by a cache, the
+         * tree itself otherwise, as a document which is not cached is only handed to one parse
+         */
+        public JsonNode getTree() {
+            return tree == null || version == null ? tree : tree.deepCopy();
+        }
+
+        public List<String> getMessages() {
+            return messages;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches and parses the external documents referenced by a spec concurrently, so the resolvers find them parsed
+ * instead of loading them one by one as they reach each {@code $ref}.
+ *
+ * Every {@code $ref} is resolved against the document containing it (and, for 3.1, the enclosing {@code $id}s).
+ * The values the resolvers take literally, such as examples, defaults, enums and extensions, are not scanned, so that
+ * URLs appearing in sample data are not fetched. Documents are fetched with at most
+ * {@link ParseOptions#getPrefetchThreads()} requests in flight, and at most
+ * {@link ParseOptions#getPrefetchMaxRequestsPerHost()} per host, on {@link ParseOptions#getPrefetchExecutor()} or
+ * else on a pool of their own, and their parsed trees are scanned in turn for further references. Local files are read
+ * and parsed on the same pool. Documents are parsed by {@link #parse(String, String)} and
+ * {@link #parseLocalFile(Path)} the way the resolver of a 3.0 spec parses them, so that it can use the trees as they
+ * are; a resolver parsing them differently overrides both. A document which can not be read or parsed is skipped,
+ * leaving the resolver to load it and report the error as before.
+ */
+public class ExternalRefPrefetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalRefPrefetcher.class);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    // values taken literally by the resolvers, wherever they are keywords rather than names
+    private static final Set<String> LITERAL_KEYWORDS = new HashSet<>(Arrays.asList("example", "default", "enum", "const"));
+
+    // objects whose keys are names, such as the properties of a schema, rather than keywords
+    private static final Set<String> NAME_MAPS = new HashSet<>(Arrays.asList("paths", "webhooks", "schemas",
+            "responses", "parameters", "requestBodies", "headers", "securitySchemes", "links", "callbacks", "pathItems",
+            "content", "encoding", "properties", "patternProperties", "dependentSchemas", "$defs", "definitions",
+            "variables", "mapping", "scopes"));
+
+    private final List<AuthorizationValue> auths;
+    private final ParseOptions parseOptions;
+    private final ExecutorService executor;
+    private final PermittedUrlsChecker permittedUrlsChecker;
+
+    public ExternalRefPrefetcher(List<AuthorizationValue> auths, ParseOptions parseOptions) {
+        this(auths, parseOptions, parseOptions.getPrefetchExecutor());
+    }
+
+    /**
+     * @param executor the executor documents are fetched on, which is not shut down; if null, each
+     *                 {@link #prefetch(JsonNode, String)} fetches on a pool of its own
+     */
+    public ExternalRefPrefetcher(List<AuthorizationValue> auths, ParseOptions parseOptions, ExecutorService executor) {
+        this.auths = auths;
+        this.parseOptions = parseOptions;
+        this.executor = executor;
+        this.permittedUrlsChecker = new PermittedUrlsChecker(parseOptions.getRemoteRefAllowList(),
+                parseOptions.getRemoteRefBlockList(), HostAddressCache.getDefault());
+    }
+
+    /**
+     * @param root     the parsed root document
+     * @param location the location of the root document; relative references are skipped if null
+     * @return the documents reachable from the root, keyed by absolute URL, or by file URI for local files; each is
+     * meant to be taken out of the map by the one parse it is handed to
+     */
+    public Map<String, DocumentCache.Document> prefetch(JsonNode root, String location) {
+        final Map<String, DocumentCache.Document> documents = new ConcurrentHashMap<>();
+        final boolean openapi31 = root != null && root.path("openapi").asText().startsWith("3.1");
+        final Set<String> seen = new HashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        final Scan rootScan = scan(root, location, openapi31);
+        seen.addAll(rootScan.ids);
+        for (String target : rootScan.targets) {
+            if (seen.add(target)) {
+                pending.add(target);
+            }
+        }
+        if (pending.isEmpty()) {
+            return documents;
+        }
+
+        final int threads = Math.max(1, parseOptions.getPrefetchThreads());
+        final int maxPerHost = Math.max(1, parseOptions.getPrefetchMaxRequestsPerHost());
+        final ExecutorService executor = this.executor != null ? this.executor
+                : Executors.newFixedThreadPool(threads, threadFactory());
+        final CompletionService<Fetched> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<Fetched>> futures = new ArrayList<>();
+        final Map<String, Integer> inFlightPerHost = new HashMap<>();
+        int inFlight = 0;
+        try {
+            while (!pending.isEmpty() || inFlight > 0) {
+                // submit whatever the host limits allow, everything else waits for a slot
+                for (Iterator<String> it = pending.iterator(); it.hasNext() && inFlight < threads; ) {
+                    final String target = it.next();
+                    final String host = hostOf(target);
+                    final int hostInFlight = inFlightPerHost.getOrDefault(host, 0);
+                    if (hostInFlight < maxPerHost) {
+                        it.remove();
+                        inFlightPerHost.put(host, hostInFlight + 1);
+                        inFlight++;
+                        futures.add(completionService.submit(() -> fetch(target, openapi31)));
+                    }
+                }
+
+                final Fetched fetched = completionService.take().get();
+                inFlight--;
+                inFlightPerHost.merge(hostOf(fetched.location), -1, Integer::sum);
+                if (fetched.document != null) {
+                    documents.put(isRemote(fetched.location) ? fetched.location
+                            : Paths.get(fetched.location).toUri().toString(), fetched.document);
+                }
+                // documents with a matching $id are resolved from the model, without fetching them
+                seen.addAll(fetched.scan.ids);
+                for (String target : fetched.scan.targets) {
+                    if (seen.add(target)) {
+                        pending.add(target);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.debug("Prefetching external refs failed", e);
+        } finally {
+            if (executor != this.executor) {
+                executor.shutdownNow();
+            } else {
+                // a shared executor is left running, only the fetches still in flight are cancelled
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        return documents;
+    }
+
+    private Fetched fetch(String target, boolean openapi31) {
+        try {
+            final DocumentCache.Document document;
+            if (isRemote(target)) {
+                final String contents;
+                if (parseOptions.isSafelyResolveURL()) {
+                    permittedUrlsChecker.verify(target);
+                    contents = RemoteUrl.urlToString(target, auths, permittedUrlsChecker);
+                } else {
+                    contents = RemoteUrl.urlToString(target, auths);
+                }
+                document = parse(target, contents);
+            } else {
+                document = parseLocalFile(Paths.get(target));
+            }
+            final JsonNode tree = document != null ? document.getTree() : null;
+            if (tree == null) {
+                return new Fetched(target, null, new Scan());
+            }
+            return new Fetched(target, document, scan(tree, target, openapi31));
+        } catch (Exception e) {
+            LOGGER.debug("Unable to prefetch {}: {}", target, e.getMessage());
+            return new Fetched(target, null, new Scan());
+        }
+    }
+
+    /**
+     * Parses a remote document. The tree of the returned document, which is not cached, is scanned and then handed
+     * to the resolver as is.
+     *
+     * @return the parsed document, or null to leave it to the resolver
+     */
+    protected DocumentCache.Document parse(String location, String contents) throws Exception {
+        final SwaggerParseResult result = new SwaggerParseResult();
+        final JsonNode tree = DeserializationUtils.deserializeIntoTree(contents, location, parseOptions, result);
+        return new DocumentCache.Document(contents, tree, result.getMessages(), DocumentCache.encodedLength(contents));
+    }
+
+    /**
+     * Reads and parses a local file, see {@link #parse(String, String)}.
+     *
+     * @return the parsed document, or null to leave it to the resolver
+     */
+    protected DocumentCache.Document parseLocalFile(Path path) throws Exception {
+        return parse(path.toString(), LocalFileReader.readToString(path, StandardCharsets.UTF_8));
+    }
+
+    static Scan scan(JsonNode root, String location, boolean openapi31) {
+        final Scan scan = new Scan();
+        if (root != null) {
+            scan(root, location, openapi31, false, scan);
+        }
+        return scan;
+    }
+
+    /**
+     * @param names whether the keys of the node are names, such as the properties of a schema, rather than keywords
+     */
+    private static void scan(JsonNode node, String base, boolean openapi31, boolean names, Scan scan) {
+        if (node.isArray()) {
+            for (JsonNode child : node) {
+                scan(child, base, openapi31, false, scan);
+            }
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        if (!names) {
+            if (openapi31 && node.path("$id").isTextual()) {
+                final String id = resolve(base, withoutFragment(node.get("$id").textValue()));
+                if (id != null) {
+                    scan.ids.add(id);
+                    base = id;
+                }
+            }
+            scanRef(node, base, scan);
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final String key = field.getKey();
+            final JsonNode value = field.getValue();
+            if (names) {
+                scan(value, base, openapi31, false, scan);
+            } else if ("examples".equals(key)) {
+                // JSON Schema examples are literals, the examples of media types, parameters and components only
+                // reference other examples
+                if (value.isObject()) {
+                    for (JsonNode example : value) {
+                        scanRef(example, base, scan);
+                    }
+                }
+            } else if (!LITERAL_KEYWORDS.contains(key) && !key.startsWith("x-")) {
+                scan(value, base, openapi31, value.isObject() && NAME_MAPS.contains(key), scan);
+            }
+        }
+    }
+
+    private static void scanRef(JsonNode node, String base, Scan scan) {
+        final JsonNode ref = node.get("$ref");
+        if (ref != null && ref.isTextual()) {
+            final String path = withoutFragment(ref.textValue());
+            final String target = path.isEmpty() ? null : resolve(base, path);
+            if (target != null) {
+                scan.targets.add(target);
+            }
+        }
+    }
+
+    /**
+     * @return the absolute URL or local path the reference points to, or null if it can't be prefetched
+     */
+    static String resolve(String base, String ref) {
+        try {
+            if (isRemote(ref)) {
+                return ref;
+            }
+            if (base == null || URI.create(ref.replace(" ", "%20")).getScheme() != null) {
+                return null;
+            }
+            if (isRemote(base)) {
+                return RefUtils.buildUrl(base, ref);
+            }
+            final String lowerCaseBase = base.toLowerCase();
+            if (lowerCaseBase.startsWith("jar:") || lowerCaseBase.startsWith("classpath:")) {
+                return null;
+            }
+            final Path basePath = lowerCaseBase.startsWith("file:") ? Paths.get(URI.create(base)) : Paths.get(base);
+            return basePath.resolveSibling(ref).normalize().toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isRemote(String location) {
+        final String lowerCaseLocation = location.toLowerCase();
+        return lowerCaseLocation.startsWith("http:") || lowerCaseLocation.startsWith("https:");
+    }
+
+    private static String withoutFragment(String ref) {
+        final int hash = ref.indexOf('#');
+        return hash < 0 ? ref : ref.substring(0, hash);
+    }
+
+    private static String hostOf(String target) {
+        if (!isRemote(target)) {
+            return "";
+        }
+        try {
+            return new URL(target).getHost().toLowerCase();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "swagger-parser-prefetch-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    static class Scan {
+        final Set<String> targets = new LinkedHashSet<>();
+        final Set<String> ids = new HashSet<>();
+    }
+
+    private static class Fetched {
+        private final String location;
+        private final DocumentCache.Document document;
+        private final Scan scan;
+
+        Fetched(String location, DocumentCache.Document document, Scan scan) {
+            this.location = location;
+            this.document = document;
+            this.scan = scan;
+        }
+    }
+}
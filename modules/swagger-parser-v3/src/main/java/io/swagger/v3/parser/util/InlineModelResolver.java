@@ -8,7 +8,6 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
@@ -30,7 +29,8 @@ public class InlineModelResolver {
     static final Logger LOGGER = LoggerFactory.getLogger(InlineModelResolver.class);
 
     Map<String, Schema> addedModels = new HashMap<>();
-    Map<String, String> generatedSignature = new HashMap<>();
+    Map<SchemaSignature, String> generatedSignature = new HashMap<>();
+    private final ComponentNameIndex schemaNames = new ComponentNameIndex();
 
     private final boolean flattenComposedSchemas;
     private final boolean camelCaseFlattenNaming;
@@ -105,14 +105,14 @@ public class InlineModelResolver {
                       String modelName = resolveModelName(model.getTitle(), genericName);
                       mediaType.setSchema(new Schema().$ref(modelName));
                       addGenerated(modelName, model);
-                      openAPI.getComponents().addSchemas(modelName, model);
+                      addSchema(modelName, model);
                   } else if (model instanceof ComposedSchema) {
                       flattenComposedSchema(model, pathname);
                       if (model.get$ref() == null) {
                           String modelName = resolveModelName(model.getTitle(), genericName);
                           mediaType.setSchema(this.makeRefProperty(modelName, model));
                           addGenerated(modelName, model);
-                          openAPI.getComponents().addSchemas(modelName, model);
+                          addSchema(modelName, model);
                       }
                   } else if (model instanceof ArraySchema) {
                       ArraySchema am = (ArraySchema) model;
@@ -127,7 +127,7 @@ public class InlineModelResolver {
                               } else {
                                   am.setItems(new Schema().$ref(modelName));
                                   addGenerated(modelName, inner);
-                                  openAPI.getComponents().addSchemas(modelName, inner);
+                                  addSchema(modelName, inner);
                               }
                           }else if (inner instanceof ComposedSchema && this.flattenComposedSchemas){
                               flattenComposedSchema(inner,key);
@@ -135,7 +135,7 @@ public class InlineModelResolver {
                                   String modelName = resolveModelName(inner.getTitle(), "inline_body_items_" + key + "_" + pathname);
                                   am.setItems(this.makeRefProperty(modelName, inner));
                                   addGenerated(modelName, inner);
-                                  openAPI.getComponents().addSchemas(modelName, inner);
+                                  addSchema(modelName, inner);
                               }
                           }
                       }
@@ -160,14 +160,14 @@ public class InlineModelResolver {
                           String modelName = resolveModelName(model.getTitle(), parameter.getName());
                           parameter.setSchema(new Schema().$ref(modelName));
                           addGenerated(modelName, model);
-                          openAPI.getComponents().addSchemas(modelName, model);
+                          addSchema(modelName, model);
                       }
                   }
               }else if (model instanceof ComposedSchema) {
                   String modelName = resolveModelName(model.getTitle(), parameter.getName());
                   parameter.setSchema(new Schema().$ref(modelName));
                   addGenerated(modelName, model);
-                  openAPI.getComponents().addSchemas(modelName, model);
+                  addSchema(modelName, model);
               }else if (model instanceof ArraySchema) {
                   ArraySchema am = (ArraySchema) model;
                   Schema inner = am.getItems();
@@ -181,7 +181,7 @@ public class InlineModelResolver {
                           } else {
                               am.setItems(new Schema().$ref(modelName));
                               addGenerated(modelName, am);
-                              openAPI.getComponents().addSchemas(modelName, am);
+                              addSchema(modelName, am);
                           }
                       }else if (inner instanceof ComposedSchema && this.flattenComposedSchemas){
                           flattenComposedSchema(inner, parameter.getName());
@@ -189,7 +189,7 @@ public class InlineModelResolver {
                               String modelName = resolveModelName(inner.getTitle(), "inline_parameter_items_" + parameter.getName());
                               am.setItems(this.makeRefProperty(modelName, inner));
                               addGenerated(modelName, inner);
-                              openAPI.getComponents().addSchemas(modelName, inner);
+                              addSchema(modelName, inner);
                           }
                       }
                   }
@@ -221,7 +221,7 @@ public class InlineModelResolver {
                                   } else {
                                       media.setSchema(this.makeRefProperty(modelName, mediaSchema));
                                       addGenerated(modelName, mediaSchema);
-                                      openAPI.getComponents().addSchemas(modelName, mediaSchema);
+                                      addSchema(modelName, mediaSchema);
                                   }
                               }else if (mediaSchema.getAdditionalProperties() != null && !(mediaSchema.getAdditionalProperties() instanceof Boolean)) {
                                   Schema innerProperty = (Schema) mediaSchema.getAdditionalProperties();
@@ -277,7 +277,7 @@ public class InlineModelResolver {
                       String innerModelName = resolveModelName(inner.getTitle(), modelName + "_inner");
                       String existing = matchGenerated(inner);
                       if (existing == null) {
-                          openAPI.getComponents().addSchemas(innerModelName, inner);
+                          addSchema(innerModelName, inner);
                           addGenerated(innerModelName, inner);
                           m.setItems(new Schema().$ref(innerModelName));
                       } else {
@@ -289,7 +289,7 @@ public class InlineModelResolver {
                           modelName = resolveModelName(inner.getTitle(), "inline_array_items_" + modelName);
                           m.setItems(this.makeRefProperty(modelName, inner));
                           addGenerated(modelName, inner);
-                          openAPI.getComponents().addSchemas(modelName, inner);
+                          addSchema(modelName, inner);
                       }
                   }
               }
@@ -319,7 +319,7 @@ public class InlineModelResolver {
                           inlineModelName = resolveModelName(inline.getTitle(),  modelName + inlineModelName + "_" + position);
                           list.set(i,new Schema().$ref(inlineModelName));
                           addGenerated(inlineModelName, inline);
-                          openAPI.getComponents().addSchemas(inlineModelName, inline);
+                          addSchema(inlineModelName, inline);
                       }
                   }
               }
@@ -338,7 +338,7 @@ public class InlineModelResolver {
             } else {
                 ap.setItems(this.makeRefProperty(modelName, inner));
                 addGenerated(modelName, inner);
-                openAPI.getComponents().addSchemas(modelName, inner);
+                addSchema(modelName, inner);
             }
         }else if (inner instanceof ComposedSchema && this.flattenComposedSchemas){
             flattenComposedSchema(inner,key);
@@ -347,7 +347,7 @@ public class InlineModelResolver {
                 String modelName = resolveModelName(inner.getTitle(), key );
                 ap.setItems(this.makeRefProperty(modelName, inner));
                 addGenerated(modelName, inner);
-                openAPI.getComponents().addSchemas(modelName, inner);
+                addSchema(modelName, inner);
             }
         }
     }
@@ -363,7 +363,7 @@ public class InlineModelResolver {
             } else {
                 mediaSchema.setAdditionalProperties(new Schema().$ref(modelName));
                 addGenerated(modelName, innerProperty);
-                openAPI.getComponents().addSchemas(modelName, innerProperty);
+                addSchema(modelName, innerProperty);
             }
         }else if (innerProperty instanceof ComposedSchema && this.flattenComposedSchemas){
             flattenComposedSchema(innerProperty,key);
@@ -371,7 +371,7 @@ public class InlineModelResolver {
                 String modelName = resolveModelName(innerProperty.getTitle(), key);
                 mediaSchema.setAdditionalProperties(new Schema().$ref(modelName));
                 addGenerated(modelName, innerProperty);
-                openAPI.getComponents().addSchemas(modelName, innerProperty);
+                addSchema(modelName, innerProperty);
             }
         }
     }
@@ -427,29 +427,24 @@ public class InlineModelResolver {
         if (skipMatches) {
             return null;
         }
-        String json = Json.pretty(model);
-        if (generatedSignature.containsKey(json)) {
-            return generatedSignature.get(json);
-        }
-        return null;
+        SchemaSignature signature = SchemaSignature.of(model);
+        return signature != null ? generatedSignature.get(signature) : null;
     }
 
     public void addGenerated(String name, Schema model) {
-        generatedSignature.put(Json.pretty(model), name);
+        SchemaSignature signature = SchemaSignature.of(model);
+        if (signature != null) {
+            generatedSignature.put(signature, name);
+        }
     }
 
     public String uniqueName(String key) {
-        int count = 0;
-        boolean done = false;
         if (camelCaseFlattenNaming) {
-            String uniqueKey;
-            String concatenated = "";
-            for (int i = 0; i < key.split("[-|\\s|_]").length; i++) {
-                uniqueKey = key.split("[-|\\s|_]")[i];
-                uniqueKey = uniqueKey.substring(0, 1).toUpperCase() + uniqueKey.substring(1);
-                concatenated = concatenated.concat(uniqueKey);
+            StringBuilder concatenated = new StringBuilder();
+            for (String part : key.split("[-|\\s|_]")) {
+                concatenated.append(part.substring(0, 1).toUpperCase()).append(part.substring(1));
             }
-            key = concatenated.replaceAll("[^a-z_\\.A-Z0-9 ]", ""); // FIXME: a parameter
+            key = concatenated.toString().replaceAll("[^a-z_\\.A-Z0-9 ]", ""); // FIXME: a parameter
         }else {
             key = key.replaceAll("[^a-z_\\.A-Z0-9 ]", ""); // FIXME: a parameter
         }
@@ -457,19 +452,12 @@ public class InlineModelResolver {
         // assigned. Also declare
         // the methods parameters
         // as 'final'.
-        while (!done) {
-            String name = key;
-            if (count > 0) {
-                name = key + "_" + count;
-            }
-            if (openAPI.getComponents().getSchemas() == null) {
-                return name;
-            } else if (!openAPI.getComponents().getSchemas().containsKey(name)) {
-                return name;
-            }
-            count += 1;
-        }
-        return key;
+        return schemaNames.uniqueName(openAPI.getComponents().getSchemas(), key);
+    }
+
+    private void addSchema(String name, Schema model) {
+        openAPI.getComponents().addSchemas(name, model);
+        schemaNames.added(openAPI.getComponents().getSchemas(), name);
     }
 
 
@@ -491,7 +479,7 @@ public class InlineModelResolver {
                     propsToUpdate.put(key, new Schema().$ref(RefType.SCHEMAS.getInternalPrefix()+modelName));
                     modelsToAdd.put(modelName, model);
                     addGenerated(modelName, model);
-                    openAPI.getComponents().addSchemas(modelName, model);
+                    addSchema(modelName, model);
                 }
             } else if (property instanceof ArraySchema) {
                 ArraySchema ap = (ArraySchema) property;
@@ -507,7 +495,7 @@ public class InlineModelResolver {
                         } else {
                             ap.setItems(new Schema().$ref(RefType.SCHEMAS.getInternalPrefix() + modelName));
                             addGenerated(modelName, innerModel);
-                            openAPI.getComponents().addSchemas(modelName, innerModel);
+                            addSchema(modelName, innerModel);
                         }
                     }else if (inner instanceof ComposedSchema && this.flattenComposedSchemas) {
                         flattenComposedSchema(inner,key);
@@ -519,7 +507,7 @@ public class InlineModelResolver {
                         } else {
                             ap.setItems(new Schema().$ref(RefType.SCHEMAS.getInternalPrefix()+modelName));
                             addGenerated(modelName, innerModel);
-                            openAPI.getComponents().addSchemas(modelName, innerModel);
+                            addSchema(modelName, innerModel);
                         }
                     }
                 }
@@ -536,7 +524,7 @@ public class InlineModelResolver {
                         } else {
                             property.setAdditionalProperties(new Schema().$ref(RefType.SCHEMAS.getInternalPrefix()+modelName));
                             addGenerated(modelName, innerModel);
-                            openAPI.getComponents().addSchemas(modelName, innerModel);
+                            addSchema(modelName, innerModel);
                         }
                     }
                 }
@@ -548,7 +536,7 @@ public class InlineModelResolver {
             }
         }
         for (String key : modelsToAdd.keySet()) {
-            openAPI.getComponents().addSchemas(key, modelsToAdd.get(key));
+            addSchema(key, modelsToAdd.get(key));
             this.addedModels.put(key, modelsToAdd.get(key));
         }
     }
@@ -581,7 +569,7 @@ public class InlineModelResolver {
                     inlineModelName = resolveModelName(inline.getTitle(),  key + inlineModelName + "_" + position);
                     list.set(i,new Schema().$ref(inlineModelName));
                     addGenerated(inlineModelName, inline);
-                    openAPI.getComponents().addSchemas(inlineModelName, inline);
+                    addSchema(inlineModelName, inline);
                 }
             }
         }
@@ -0,0 +1,40 @@
+package io.swagger.v3.parser.util;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads local spec files for the 3.0 ({@link RefUtils}) and 3.1 ({@code ReferenceVisitor}) resolvers and
+ * {@code OpenAPIV3Parser}.
+ *
+ * Files are read into a heap array in one go and handed to the parsers as a {@link ByteBuffer}, avoiding the copies
+ * of a stream based read and the decoding to a String. They are not memory mapped: a mapping can't be released before
+ * it is garbage collected, and a mapped file can't be deleted or overwritten on Windows.
+ */
+public class LocalFileReader {
+
+    private LocalFileReader() {
+    }
+
+    /**
+     * @return the contents of the file, positioned at 0
+     */
+    public static ByteBuffer read(Path path) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    /**
+     * Decodes the file for callers which keep documents as Strings.
+     */
+    public static String readToString(Path path, Charset charset) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return IOUtils.toString(inputStream, charset);
+        }
+    }
+}
@@ -268,17 +268,20 @@ public class OpenAPIDeserializer {
 
     private static final int MAX_EXTENSION_ENTRIES = 20;
 
-    // Holds extensions to a given classloader. Implemented as a least-recently used cache
-    private static final Map<ClassLoader, List<JsonSchemaParserExtension>> jsonSchemaParserExtensionMap = new LinkedHashMap<ClassLoader, List<JsonSchemaParserExtension>>() {
+    private static final ObjectMapper ROOT_MAP_MAPPER = new ObjectMapper();
+
+    // Holds the (immutable) extensions of a given classloader. Implemented as a bounded cache, shared by all threads
+    private static final Map<ClassLoader, List<JsonSchemaParserExtension>> jsonSchemaParserExtensionMap = Collections.synchronizedMap(new LinkedHashMap<ClassLoader, List<JsonSchemaParserExtension>>() {
         @Override
         protected boolean removeEldestEntry(Map.Entry<ClassLoader, List<JsonSchemaParserExtension>> eldest) {
             return size() > MAX_EXTENSION_ENTRIES;
         }
-    };
+    });
 
 	private Components components;
 	private JsonNode rootNode;
 	private Map<String, Object> rootMap;
+	private List<JsonSchemaParserExtension> jsonSchemaParserExtensions;
 	private String basePath;
 	private final Set<String> operationIDs = new HashSet<>();
     private Map<String,String> localSchemaRefs = new HashMap<>();
@@ -298,7 +301,8 @@ public class OpenAPIDeserializer {
     public SwaggerParseResult deserialize(JsonNode rootNode, String path, ParseOptions options, boolean isOaiAuthor) {
         basePath = path;
         this.rootNode = rootNode;
-        rootMap = new ObjectMapper().convertValue(rootNode, Map.class);
+        // non-object roots are cheap to convert, and still fail here as they did before
+        rootMap = rootNode != null && rootNode.isObject() ? new RootMap(rootNode) : ROOT_MAP_MAPPER.convertValue(rootNode, Map.class);
 		SwaggerParseResult result = new SwaggerParseResult();
         try {
             ParseResult rootParse = new ParseResult();
@@ -2675,17 +2679,21 @@ public class OpenAPIDeserializer {
 		}
 
 		Schema schema = null;
-		List<JsonSchemaParserExtension> jsonschemaExtensions = getJsonSchemaParserExtensions();
+		if (jsonSchemaParserExtensions == null) {
+			jsonSchemaParserExtensions = getJsonSchemaParserExtensions();
+		}
 
 		/* TODO!! solve this
 		at the moment path passed as string (basePath) from upper components can be both an absolute url or a relative one
 		when it's relative, e.g. currently when parsing a file passing the location as relative ref
 		 */
 
-		for (JsonSchemaParserExtension jsonschemaExtension: jsonschemaExtensions) {
-			schema = jsonschemaExtension.getSchema(jsonNode, location, result, rootMap, basePath);
-			if (schema != null) {
-				return schema;
+		if (!jsonSchemaParserExtensions.isEmpty()) {
+			for (JsonSchemaParserExtension jsonschemaExtension : jsonSchemaParserExtensions) {
+				schema = jsonschemaExtension.getSchema(jsonNode, location, result, rootMap, basePath);
+				if (schema != null) {
+					return schema;
+				}
 			}
 		}
 
@@ -3811,35 +3819,46 @@ public class OpenAPIDeserializer {
 	/**
 	 * Locates extensions on the current thread class loader and then, if it differs from this class classloader (as in
 	 * OSGi), locates extensions from this class classloader as well.
-	 * @return a list of extensions
+	 * @return an immutable list of extensions
 	 */
 	public static List<JsonSchemaParserExtension> getJsonSchemaParserExtensions() {
 		final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
 		final List<JsonSchemaParserExtension> extensions = getJsonSchemaParserExtensions(tccl);
 		final ClassLoader cl = JsonSchemaParserExtension.class.getClassLoader();
-		if (cl != tccl) {
-			extensions.addAll(getJsonSchemaParserExtensions(cl));
+		if (cl == tccl) {
+			return extensions;
 		}
-		return extensions;
+		final List<JsonSchemaParserExtension> clExtensions = getJsonSchemaParserExtensions(cl);
+		if (clExtensions.isEmpty()) {
+			return extensions;
+		}
+		if (extensions.isEmpty()) {
+			return clExtensions;
+		}
+		final List<JsonSchemaParserExtension> allExtensions = new ArrayList<>(extensions);
+		allExtensions.addAll(clExtensions);
+		return Collections.unmodifiableList(allExtensions);
 	}
 
     /**
      * Locates the extensions for given {@link ClassLoader} and stores them for performance reason in an in-memory
-     * (LRU) cache.
+     * cache, safe for concurrent use.
      *
      * @param cl the {@link ClassLoader} for which the extensions are located
-     * @return
+     * @return an immutable list of extensions
      */
     protected static List<JsonSchemaParserExtension> getJsonSchemaParserExtensions(ClassLoader cl) {
-        if (jsonSchemaParserExtensionMap.containsKey(cl)) {
-            return jsonSchemaParserExtensionMap.get(cl);
+        List<JsonSchemaParserExtension> extensions = cl == null ? null : jsonSchemaParserExtensionMap.get(cl);
+        if (extensions != null) {
+            return extensions;
         }
 
-        final List<JsonSchemaParserExtension> extensions = new ArrayList<>();
+        final List<JsonSchemaParserExtension> loaded = new ArrayList<>();
         final ServiceLoader<JsonSchemaParserExtension> loader = ServiceLoader.load(JsonSchemaParserExtension.class, cl);
         for (JsonSchemaParserExtension extension : loader) {
-            extensions.add(extension);
+            loaded.add(extension);
         }
+        extensions = loaded.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(loaded);
 
         // don't cache null-Value classLoader (e.g. Bootstrap Classloader)
         if (cl != null) {
@@ -4496,4 +4515,54 @@ public class OpenAPIDeserializer {
 			this.key = key;
 		}
 	}
+
+	/**
+	 * {@link Map} view of the root node handed to {@link JsonSchemaParserExtension}s; the document is only converted
+	 * on first access, so parses where no extension reads the root map do not pay for the conversion.
+	 */
+	private static class RootMap extends AbstractMap<String, Object> {
+		private final JsonNode rootNode;
+		private Map<String, Object> map;
+
+		RootMap(JsonNode rootNode) {
+			this.rootNode = rootNode;
+		}
+
+		private Map<String, Object> map() {
+			if (map == null) {
+				map = ROOT_MAP_MAPPER.convertValue(rootNode, Map.class);
+			}
+			return map;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return map().entrySet();
+		}
+
+		@Override
+		public Object get(Object key) {
+			return map().get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return map().containsKey(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return map().put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			return map().remove(key);
+		}
+
+		@Override
+		public int size() {
+			return map().size();
+		}
+	}
 }
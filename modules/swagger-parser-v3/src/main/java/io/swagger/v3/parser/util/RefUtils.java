@@ -4,10 +4,8 @@ import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.models.RefFormat;
 import io.swagger.v3.parser.processors.ExternalRefProcessor;
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
-import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -234,8 +232,6 @@ public class RefUtils {
     }
 
     private static String readAll(Path path) throws IOException {
-        try (InputStream inputStream = Files.newInputStream(path)) {
-            return IOUtils.toString(inputStream, UTF_8);
-        }
+        return LocalFileReader.readToString(path, UTF_8);
     }
 }
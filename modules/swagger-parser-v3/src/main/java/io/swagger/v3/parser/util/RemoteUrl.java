@@ -2,6 +2,7 @@ package io.swagger.v3.parser.util;
 
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
+import io.swagger.v3.parser.urlresolver.models.ResolvedUrl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,10 +12,12 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -28,7 +31,12 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 
 public class RemoteUrl {
@@ -40,7 +48,11 @@ public class RemoteUrl {
     private static final ConnectionConfigurator CONNECTION_CONFIGURATOR = createConnectionConfigurator();
     private static final Charset UTF_8 = StandardCharsets.UTF_8;
     private static final String ACCEPT_HEADER_VALUE = "application/json, application/yaml, */*";
+    private static final String ACCEPT_ENCODING_HEADER_VALUE = "gzip, deflate";
     private static final String USER_AGENT_HEADER_VALUE = "Apache-HttpClient/Swagger";
+    private static final String MAX_BODY_SIZE = String.format("%s.maxBodySize", RemoteUrl.class.getName());
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 20;
     static final int CONNECTION_TIMEOUT = 30000;
     static final int READ_TIMEOUT = 60000;
     private static final int MAX_REDIRECTS = 5;
@@ -103,7 +115,22 @@ public class RemoteUrl {
         return urlToString(url, auths, null);
     }
 
+    /**
+     * Fetches the url, and the urls it redirects to, from the addresses the checker verified them with; a url not
+     * verified by the checker (any more) is verified again before it is fetched.
+     *
+     * @param permittedUrlsChecker the checker of the urls, null to fetch them unchecked
+     */
     public static String urlToString(String url, List<AuthorizationValue> auths, PermittedUrlsChecker permittedUrlsChecker) throws Exception {
+        final RemoteUrlCache cache = RemoteUrlCache.fromSystemProperties();
+        if (cache != null) {
+            return cache.get(url, auths, conditionalHeaders -> fetch(url, auths, permittedUrlsChecker, conditionalHeaders));
+        }
+        return fetch(url, auths, permittedUrlsChecker, Collections.emptyMap()).getBody();
+    }
+
+    static Response fetch(String url, List<AuthorizationValue> auths, PermittedUrlsChecker permittedUrlsChecker,
+                          Map<String, String> conditionalHeaders) throws Exception {
 
         try {
             URLConnection conn;
@@ -111,28 +138,53 @@ public class RemoteUrl {
 
             while (redirectCount <= MAX_REDIRECTS) {
                 //redirect count > 0 means we are checking only redirections
-                if (redirectCount > 0 && permittedUrlsChecker != null) {
-                    permittedUrlsChecker.verify(url);
+                ResolvedUrl resolvedUrl = null;
+                if (permittedUrlsChecker != null) {
+                    resolvedUrl = redirectCount > 0 ? null : permittedUrlsChecker.getVerifiedUrl(url);
+                    if (resolvedUrl == null) {
+                        // a redirect, or a url whose verification expired since: verify it (again) before fetching
+                        resolvedUrl = permittedUrlsChecker.verify(url);
+                    }
                 }
                 final URL inUrl = new URL(cleanUrl(url));
                 final List<AuthorizationValue> query = new ArrayList<>();
                 final List<AuthorizationValue> header = new ArrayList<>();
                 filterAndAssignAuthValues(auths, inUrl, query, header);
-                conn = prepareConnection(query, inUrl);
+                // connect to the address the url was verified with, if it was
+                final ResolvedUrl pinned = AddressPinning.pinnable(inUrl, resolvedUrl);
+                conn = prepareConnection(query, inUrl, pinned);
                 CONNECTION_CONFIGURATOR.process(conn);
+                AddressPinning.pinTls(conn, pinned);
+                if (resolvedUrl != null && conn instanceof HttpURLConnection) {
+                    // redirects from a verified url are verified, and pinned, like the url itself
+                    ((HttpURLConnection) conn).setInstanceFollowRedirects(false);
+                }
                 setRequestHeaders(header, conn);
+                if (redirectCount == 0) {
+                    // the validators are those of the url, not of where it redirects to
+                    for (Map.Entry<String, String> conditionalHeader : conditionalHeaders.entrySet()) {
+                        conn.setRequestProperty(conditionalHeader.getKey(), conditionalHeader.getValue());
+                    }
+                }
 
                 conn.connect();
                 HttpURLConnection httpConn = (HttpURLConnection) conn;
 
                 if (isRedirect(httpConn)) {
-                    url = conn.getHeaderField("Location");
+                    final String location = conn.getHeaderField("Location");
                     redirectCount++;
-                    if (url == null) {
+                    if (location == null) {
                         throw new IOException("Redirect response missing 'Location' header");
                     }
+                    // the location may be relative to the url redirected from
+                    url = new URL(inUrl, location).toString();
                 } else {
-                    return readResponse(conn);
+                    // unchecked redirects are followed by the connection itself
+                    final boolean redirected = redirectCount > 0 || !conn.getURL().toString().equals(inUrl.toString());
+                    if (httpConn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                        return new Response(null, conn, redirected);
+                    }
+                    return new Response(readResponse(conn), conn, redirected);
                 }
             }
             throw new IOException("Too many redirects (> " + MAX_REDIRECTS + ")");
@@ -147,6 +199,29 @@ public class RemoteUrl {
         }
     }
 
+    /**
+     * @return a digest of the authorization values sent with a request to the url, empty if there are none
+     */
+    static String authFingerprint(String url, List<AuthorizationValue> auths) throws IOException {
+        if (auths == null || auths.isEmpty()) {
+            return "";
+        }
+        final List<AuthorizationValue> query = new ArrayList<>();
+        final List<AuthorizationValue> header = new ArrayList<>();
+        filterAndAssignAuthValues(auths, new URL(cleanUrl(url)), query, header);
+        if (query.isEmpty() && header.isEmpty()) {
+            return "";
+        }
+        final StringBuilder values = new StringBuilder();
+        for (AuthorizationValue auth : query) {
+            values.append("query\u0000").append(auth.getKeyName()).append('\u0000').append(auth.getValue()).append('\u0000');
+        }
+        for (AuthorizationValue auth : header) {
+            values.append("header\u0000").append(auth.getKeyName()).append('\u0000').append(auth.getValue()).append('\u0000');
+        }
+        return RemoteUrlCache.sha256(values.toString().getBytes(UTF_8));
+    }
+
     private static void filterAndAssignAuthValues(List<AuthorizationValue> auths, URL inUrl, List<AuthorizationValue> query, List<AuthorizationValue> header) {
         if (auths != null && !auths.isEmpty()) {
             for (AuthorizationValue auth : auths) {
@@ -162,32 +237,163 @@ public class RemoteUrl {
     }
 
     private static String readResponse(URLConnection conn) throws IOException {
+        final long maxBodySize = getMaxBodySize();
+        final String contentEncoding = conn.getContentEncoding();
+        final boolean compressed = contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim());
+        final long contentLength = conn.getContentLengthLong();
+        if (!compressed && maxBodySize > 0 && contentLength > maxBodySize) {
+            throw new IOException(bodyTooLargeMessage(conn.getURL(), maxBodySize));
+        }
 
-        try (InputStream in = conn.getInputStream();
-             BufferedReader input = new BufferedReader(new InputStreamReader(in, UTF_8))) {
+        try (InputStream in = new BoundedInputStream(decode(conn.getInputStream(), contentEncoding), maxBodySize, conn.getURL());
+             Reader input = new InputStreamReader(in, UTF_8)) {
 
-            StringBuilder contents = new StringBuilder();
-            int ch;
-            while ((ch = input.read()) != -1) {
-                char c = (char) ch;
-                if (!Character.isISOControl(c) || c == '\n') {
-                    contents.append(c);
-                }
+            final StringBuilder contents = new StringBuilder(compressed ? BUFFER_SIZE : initialCapacity(contentLength, maxBodySize));
+            final char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                appendWithoutControlChars(contents, buffer, read);
             }
             return contents.toString();
         }
     }
 
+    /**
+     * @return the capacity to start reading a body of the given {@code Content-Length} with; the header is sent by the
+     * server and counts bytes rather than chars, so it is only a hint, capped to the maximum body size or 1 MB
+     */
+    static int initialCapacity(long contentLength, long maxBodySize) {
+        if (contentLength <= 0) {
+            return BUFFER_SIZE;
+        }
+        return (int) Math.min(contentLength, maxBodySize > 0 ? Math.min(maxBodySize, MAX_INITIAL_CAPACITY) : MAX_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Appends the chunk, dropping ISO control characters other than {@code '\n'} as the response has always been
+     * filtered; runs of regular characters are appended in one call.
+     */
+    static void appendWithoutControlChars(StringBuilder contents, char[] chunk, int length) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = chunk[i];
+            if (Character.isISOControl(c) && c != '\n') {
+                contents.append(chunk, start, i - start);
+                start = i + 1;
+            }
+        }
+        contents.append(chunk, start, length - start);
+    }
+
+    private static InputStream decode(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return in;
+        }
+        final String encoding = contentEncoding.trim().toLowerCase();
+        if ("gzip".equals(encoding) || "x-gzip".equals(encoding)) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        if ("deflate".equals(encoding)) {
+            // "deflate" is meant to be zlib wrapped, but some servers send raw deflate data
+            final PushbackInputStream pushback = new PushbackInputStream(in, 2);
+            final int cmf = pushback.read();
+            final int flg = pushback.read();
+            if (flg != -1) {
+                pushback.unread(flg);
+            }
+            if (cmf != -1) {
+                pushback.unread(cmf);
+            }
+            final boolean zlib = cmf != -1 && flg != -1 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+            final Inflater inflater = new Inflater(!zlib);
+            return new InflaterInputStream(pushback, inflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+        return in;
+    }
+
+    /**
+     * @return the maximum size in bytes of a (decompressed) response body, set with the
+     * {@code io.swagger.v3.parser.util.RemoteUrl.maxBodySize} system property; 0 or less means no limit
+     */
+    static long getMaxBodySize() {
+        final String value = System.getProperty(MAX_BODY_SIZE);
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ignoring invalid {} value {}", MAX_BODY_SIZE, value);
+            return 0;
+        }
+    }
+
+    private static String bodyTooLargeMessage(URL url, long maxBodySize) {
+        return String.format("Response body of %s exceeds the maximum size of %d bytes", url, maxBodySize);
+    }
+
+    /**
+     * Fails the read once more than the allowed number of bytes went through, so an oversized (or maliciously
+     * compressed) body is never held in memory as a whole.
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private final URL url;
+        private long count;
+
+        BoundedInputStream(InputStream in, long maxBytes, URL url) {
+            super(in);
+            this.maxBytes = maxBytes;
+            this.url = url;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws IOException {
+            count += read;
+            if (maxBytes > 0 && count > maxBytes) {
+                throw new IOException(bodyTooLargeMessage(url, maxBytes));
+            }
+        }
+    }
+
     private static void setRequestHeaders(List<AuthorizationValue> header, URLConnection conn) {
         for (AuthorizationValue item : header) {
             conn.setRequestProperty(item.getKeyName(), item.getValue());
         }
 
         conn.setRequestProperty("Accept", ACCEPT_HEADER_VALUE);
+        conn.setRequestProperty("Accept-Encoding", ACCEPT_ENCODING_HEADER_VALUE);
         conn.setRequestProperty("User-Agent", USER_AGENT_HEADER_VALUE);
     }
 
-    private static URLConnection prepareConnection(List<AuthorizationValue> query, URL inUrl) throws URISyntaxException, IOException {
+    private static URLConnection prepareConnection(List<AuthorizationValue> query, URL inUrl, ResolvedUrl pinned) throws URISyntaxException, IOException {
         URLConnection conn;
         if (!query.isEmpty()) {
             final URI inUri = inUrl.toURI();
@@ -199,10 +405,10 @@ public class RemoteUrl {
                 newQuery.append(URLEncoder.encode(item.getKeyName(), UTF_8.name())).append("=")
                         .append(URLEncoder.encode(item.getValue(), UTF_8.name()));
             }
-            conn = new URI(inUri.getScheme(), inUri.getAuthority(), inUri.getPath(), newQuery.toString(),
-                    inUri.getFragment()).toURL().openConnection();
+            conn = AddressPinning.openConnection(new URI(inUri.getScheme(), inUri.getAuthority(), inUri.getPath(),
+                    newQuery.toString(), inUri.getFragment()).toURL(), pinned);
         } else {
-            conn = inUrl.openConnection();
+            conn = AddressPinning.openConnection(inUrl, pinned);
         }
         return conn;
     }
@@ -219,6 +425,61 @@ public class RemoteUrl {
         to.add(value);
     }
 
+    /**
+     * A response body (null for 304 Not Modified) along with the headers {@link RemoteUrlCache} needs.
+     */
+    static class Response {
+
+        private final String body;
+        private final String etag;
+        private final String lastModified;
+        private final String cacheControl;
+        private final boolean redirected;
+
+        Response(String body, URLConnection conn, boolean redirected) {
+            this(body, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"), conn.getHeaderField("Cache-Control"),
+                    redirected);
+        }
+
+        Response(String body, String etag, String lastModified, String cacheControl, boolean redirected) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.cacheControl = cacheControl;
+            this.redirected = redirected;
+        }
+
+        String getBody() throws IOException {
+            if (body == null) {
+                throw new IOException("Unexpected 304 Not Modified response to an unconditional request");
+            }
+            return body;
+        }
+
+        boolean isNotModified() {
+            return body == null;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        String getCacheControl() {
+            return cacheControl;
+        }
+
+        /**
+         * @return whether the response is that of a url the requested one redirected to
+         */
+        boolean isRedirected() {
+            return redirected;
+        }
+    }
+
     interface ConnectionConfigurator {
 
         void process(URLConnection connection);
@@ -0,0 +1,255 @@
+package io.swagger.v3.parser.util;
+
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of the documents read by {@link RemoteUrl}, shared by every parse using the same directory; both
+ * the 3.0 {@code ResolverCache} and the 3.1 {@code ReferenceVisitor} read remote refs through it.
+ *
+ * It is enabled by setting the {@code io.swagger.v3.parser.util.RemoteUrl.cacheDir} system property to a directory.
+ * Bodies are stored content addressed under {@code objects/}, so a document served from several URLs is stored once;
+ * {@code entries/} maps the URL plus a digest of the authorization values sent with it to a body and its validators.
+ *
+ * An entry is served without a request while {@code Cache-Control: max-age} says it is fresh, and is otherwise
+ * revalidated with {@code If-None-Match}/{@code If-Modified-Since}; {@code no-store} keeps a response out of the
+ * cache. Responses of urls which redirected are not cached either: an entry is served without fetching the url, so
+ * the url it redirected to would not be checked against the {@code PermittedUrlsChecker} of later parses. With {@code io.swagger.v3.parser.util.RemoteUrl.cacheOffline} set to true documents are only served from
+ * the cache, whatever their age.
+ */
+public class RemoteUrlCache {
+
+    static final Logger LOGGER = LoggerFactory.getLogger(RemoteUrlCache.class);
+
+    static final String CACHE_DIR = String.format("%s.cacheDir", RemoteUrl.class.getName());
+    static final String CACHE_OFFLINE = String.format("%s.cacheOffline", RemoteUrl.class.getName());
+
+    private static final String URL = "url";
+    private static final String OBJECT = "object";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String EXPIRES = "expires";
+    private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+    private final boolean offline;
+    private final LongSupplier clock;
+
+    public RemoteUrlCache(Path directory, boolean offline) {
+        this(directory, offline, System::currentTimeMillis);
+    }
+
+    RemoteUrlCache(Path directory, boolean offline, LongSupplier clock) {
+        this.directory = directory;
+        this.offline = offline;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cache configured through system properties, or null if it is not enabled
+     */
+    static RemoteUrlCache fromSystemProperties() {
+        final String cacheDir = System.getProperty(CACHE_DIR);
+        if (StringUtils.isBlank(cacheDir)) {
+            return null;
+        }
+        return new RemoteUrlCache(Paths.get(cacheDir), Boolean.parseBoolean(System.getProperty(CACHE_OFFLINE)));
+    }
+
+    interface Fetcher {
+
+        RemoteUrl.Response fetch(Map<String, String> conditionalHeaders) throws Exception;
+    }
+
+    String get(String url, List<AuthorizationValue> auths, Fetcher fetcher) throws Exception {
+        final Path entryFile = directory.resolve("entries").resolve(sha256((url + '\n' + RemoteUrl.authFingerprint(url, auths))
+                .getBytes(StandardCharsets.UTF_8)) + ".properties");
+        final Properties entry = readEntry(entryFile);
+        final String cached = entry != null ? readObject(entry.getProperty(OBJECT)) : null;
+
+        if (cached != null && (offline || clock.getAsLong() < expiresOf(entry))) {
+            return cached;
+        }
+        if (offline) {
+            throw new IOException(String.format("%s is not in the remote url cache, which is in offline mode", url));
+        }
+
+        final Map<String, String> conditionalHeaders = new HashMap<>();
+        if (cached != null) {
+            if (entry.getProperty(ETAG) != null) {
+                conditionalHeaders.put("If-None-Match", entry.getProperty(ETAG));
+            }
+            if (entry.getProperty(LAST_MODIFIED) != null) {
+                conditionalHeaders.put("If-Modified-Since", entry.getProperty(LAST_MODIFIED));
+            }
+        }
+        final RemoteUrl.Response response = fetcher.fetch(conditionalHeaders);
+
+        if (response.isNotModified() && cached != null) {
+            updateValidators(entry, response);
+            writeEntry(entryFile, entry);
+            return cached;
+        }
+        final String body = response.getBody();
+        if (!response.isRedirected() && !hasDirective(response.getCacheControl(), "no-store")) {
+            final Properties newEntry = new Properties();
+            newEntry.setProperty(URL, url);
+            newEntry.setProperty(OBJECT, writeObject(body));
+            updateValidators(newEntry, response);
+            writeEntry(entryFile, newEntry);
+        }
+        return body;
+    }
+
+    private void updateValidators(Properties entry, RemoteUrl.Response response) {
+        if (response.getEtag() != null) {
+            entry.setProperty(ETAG, response.getEtag());
+        }
+        if (response.getLastModified() != null) {
+            entry.setProperty(LAST_MODIFIED, response.getLastModified());
+        }
+        entry.setProperty(EXPIRES, Long.toString(expires(response.getCacheControl())));
+    }
+
+    /**
+     * @return until when a response may be served without revalidation; now unless it carries a max-age
+     */
+    long expires(String cacheControl) {
+        final long now = clock.getAsLong();
+        if (cacheControl == null || hasDirective(cacheControl, "no-cache")) {
+            return now;
+        }
+        for (String directive : cacheControl.split(",")) {
+            final String[] nameAndValue = directive.trim().split("=", 2);
+            if (nameAndValue.length == 2 && "max-age".equalsIgnoreCase(nameAndValue[0].trim())) {
+                try {
+                    return now + Long.parseLong(nameAndValue[1].trim().replace("\"", "")) * 1000;
+                } catch (NumberFormatException e) {
+                    return now;
+                }
+            }
+        }
+        return now;
+    }
+
+    private static boolean hasDirective(String cacheControl, String name) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String directive : cacheControl.split(",")) {
+            if (directive.trim().toLowerCase(Locale.ROOT).startsWith(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long expiresOf(Properties entry) {
+        try {
+            return Long.parseLong(entry.getProperty(EXPIRES, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Properties readEntry(Path entryFile) {
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            final Properties entry = new Properties();
+            entry.load(in);
+            return OBJECT_NAME.matcher(entry.getProperty(OBJECT, "")).matches() ? entry : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Ignoring unreadable remote url cache entry {}: {}", entryFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeEntry(Path entryFile, Properties entry) {
+        try {
+            Files.createDirectories(entryFile.getParent());
+            final Path temp = Files.createTempFile(entryFile.getParent(), "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                entry.store(out, null);
+            }
+            move(temp, entryFile);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write remote url cache entry {}: {}", entryFile, e.getMessage());
+        }
+    }
+
+    private String readObject(String object) {
+        try {
+            return new String(Files.readAllBytes(objectFile(object)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the name of the object holding the body, which is the digest of its content
+     */
+    private String writeObject(String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        final String object = sha256(bytes);
+        final Path objectFile = objectFile(object);
+        if (!Files.exists(objectFile)) {
+            try {
+                Files.createDirectories(objectFile.getParent());
+                final Path temp = Files.createTempFile(objectFile.getParent(), "object", ".tmp");
+                Files.write(temp, bytes);
+                move(temp, objectFile);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to write remote url cache object {}: {}", objectFile, e.getMessage());
+            }
+        }
+        return object;
+    }
+
+    private Path objectFile(String object) {
+        return directory.resolve("objects").resolve(object);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(source);
+            throw e;
+        }
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
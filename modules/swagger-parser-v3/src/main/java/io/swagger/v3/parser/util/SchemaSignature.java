@@ -0,0 +1,284 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.ExternalDocumentation;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.XML;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structural signature of a {@link Schema} tree: equal for schemas that serialize to the same JSON, without
+ * serializing them.
+ *
+ * The signature is a snapshot of the properties {@link io.swagger.v3.core.util.Json#pretty(Object)} writes, so later
+ * changes to the schema do not affect it, with map entries and list items compared in order as in the JSON. Its hash
+ * is computed once, bottom up, and sub-schemas shared within the tree are only visited once. Values of other types
+ * than the JSON ones compare by {@code equals}, which may tell apart values written the same, never the reverse.
+ */
+@SuppressWarnings("rawtypes")
+final class SchemaSignature {
+
+    private static final Node NULL = new Node(Node.NULL, new Object[0]);
+
+    private final Node root;
+
+    private SchemaSignature(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return the signature of the schema, or null if the schema contains itself
+     */
+    static SchemaSignature of(Schema schema) {
+        try {
+            return new SchemaSignature(new Builder().schema(schema));
+        } catch (CycleException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SchemaSignature && root.equals(((SchemaSignature) o).root);
+    }
+
+    @Override
+    public int hashCode() {
+        return root.hash;
+    }
+
+    private static final class Node {
+
+        private static final int NULL = 0;
+        private static final int OBJECT = 1;
+        private static final int ARRAY = 2;
+
+        private final int kind;
+        // alternating names and values for objects
+        private final Object[] values;
+        private final int hash;
+
+        Node(int kind, Object[] values) {
+            this.kind = kind;
+            this.values = values;
+            this.hash = 31 * kind + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            return hash == other.hash && kind == other.kind && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class CycleException extends RuntimeException {
+
+        CycleException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<Schema, Node> visited = new IdentityHashMap<>();
+        private final Set<Schema> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Node schema(Schema schema) {
+            Node node = visited.get(schema);
+            if (node != null) {
+                return node;
+            }
+            if (!visiting.add(schema)) {
+                throw new CycleException();
+            }
+            List<Object> values = new ArrayList<>();
+            if (schema.get$ref() != null) {
+                // a reference is written on its own
+                values.add("$ref");
+                values.add(schema.get$ref());
+            } else {
+                add(values, "title", schema.getTitle());
+                add(values, "multipleOf", schema.getMultipleOf());
+                add(values, "maximum", schema.getMaximum());
+                add(values, "exclusiveMaximum", schema.getExclusiveMaximum());
+                add(values, "minimum", schema.getMinimum());
+                add(values, "exclusiveMinimum", schema.getExclusiveMinimum());
+                add(values, "maxLength", schema.getMaxLength());
+                add(values, "minLength", schema.getMinLength());
+                add(values, "pattern", schema.getPattern());
+                add(values, "maxItems", schema.getMaxItems());
+                add(values, "minItems", schema.getMinItems());
+                add(values, "uniqueItems", schema.getUniqueItems());
+                add(values, "maxProperties", schema.getMaxProperties());
+                add(values, "minProperties", schema.getMinProperties());
+                add(values, "required", schema.getRequired());
+                add(values, "type", schema.getType());
+                add(values, "not", schema.getNot());
+                add(values, "properties", schema.getProperties());
+                add(values, "additionalProperties", schema.getAdditionalProperties());
+                add(values, "description", schema.getDescription());
+                add(values, "format", schema.getFormat());
+                add(values, "nullable", schema.getNullable());
+                add(values, "readOnly", schema.getReadOnly());
+                add(values, "writeOnly", schema.getWriteOnly());
+                if (schema.getExample() != null || schema.getExampleSetFlag()) {
+                    values.add("example");
+                    values.add(value(schema.getExample()));
+                }
+                add(values, "externalDocs", schema.getExternalDocs());
+                add(values, "deprecated", schema.getDeprecated());
+                add(values, "xml", schema.getXml());
+                add(values, "discriminator", schema.getDiscriminator());
+                add(values, "allOf", schema.getAllOf());
+                add(values, "anyOf", schema.getAnyOf());
+                add(values, "oneOf", schema.getOneOf());
+                add(values, "items", schema.getItems());
+                add(values, "$vocabulary", schema.get$vocabulary());
+                add(values, "$dynamicAnchor", schema.get$dynamicAnchor());
+                add(values, "$dynamicRef", schema.get$dynamicRef());
+                if (schema.getDefault() != null || schema.getDefaultSetFlag()) {
+                    values.add("default");
+                    values.add(value(schema.getDefault()));
+                }
+                add(values, "enum", schema.getEnum());
+                addExtensions(values, schema.getExtensions());
+            }
+            node = new Node(Node.OBJECT, values.toArray());
+            visiting.remove(schema);
+            visited.put(schema, node);
+            return node;
+        }
+
+        private void add(List<Object> values, String name, Object value) {
+            if (value != null) {
+                values.add(name);
+                values.add(value(value));
+            }
+        }
+
+        // extensions are written as properties of the object itself
+        private void addExtensions(List<Object> values, Map<String, Object> extensions) {
+            if (extensions != null) {
+                for (Map.Entry<String, Object> extension : extensions.entrySet()) {
+                    values.add(extension.getKey());
+                    values.add(value(extension.getValue()));
+                }
+            }
+        }
+
+        private Object value(Object value) {
+            if (value == null) {
+                return NULL;
+            }
+            if (value instanceof Schema) {
+                return schema((Schema) value);
+            }
+            if (value instanceof Map) {
+                List<Object> values = new ArrayList<>();
+                for (Object entry : ((Map<?, ?>) value).entrySet()) {
+                    values.add(String.valueOf(((Map.Entry) entry).getKey()));
+                    values.add(value(((Map.Entry) entry).getValue()));
+                }
+                return new Node(Node.OBJECT, values.toArray());
+            }
+            if (value instanceof Collection) {
+                List<Object> values = new ArrayList<>();
+                for (Object item : (Collection<?>) value) {
+                    values.add(value(item));
+                }
+                return new Node(Node.ARRAY, values.toArray());
+            }
+            if (value instanceof Object[]) {
+                return value(Arrays.asList((Object[]) value));
+            }
+            if (value instanceof byte[]) {
+                return Base64.getEncoder().encodeToString((byte[]) value);
+            }
+            if (value instanceof JsonNode) {
+                return json((JsonNode) value);
+            }
+            if (value instanceof XML) {
+                XML xml = (XML) value;
+                List<Object> values = new ArrayList<>();
+                add(values, "name", xml.getName());
+                add(values, "namespace", xml.getNamespace());
+                add(values, "prefix", xml.getPrefix());
+                add(values, "attribute", xml.getAttribute());
+                add(values, "wrapped", xml.getWrapped());
+                addExtensions(values, xml.getExtensions());
+                return new Node(Node.OBJECT, values.toArray());
+            }
+            if (value instanceof Discriminator) {
+                Discriminator discriminator = (Discriminator) value;
+                List<Object> values = new ArrayList<>();
+                add(values, "propertyName", discriminator.getPropertyName());
+                add(values, "mapping", discriminator.getMapping());
+                addExtensions(values, discriminator.getExtensions());
+                return new Node(Node.OBJECT, values.toArray());
+            }
+            if (value instanceof ExternalDocumentation) {
+                ExternalDocumentation externalDocs = (ExternalDocumentation) value;
+                List<Object> values = new ArrayList<>();
+                add(values, "description", externalDocs.getDescription());
+                add(values, "url", externalDocs.getUrl());
+                addExtensions(values, externalDocs.getExtensions());
+                return new Node(Node.OBJECT, values.toArray());
+            }
+            return value;
+        }
+
+        private Object json(JsonNode node) {
+            if (node.isNull() || node.isMissingNode()) {
+                return NULL;
+            }
+            if (node.isObject()) {
+                List<Object> values = new ArrayList<>();
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    values.add(field.getKey());
+                    values.add(json(field.getValue()));
+                }
+                return new Node(Node.OBJECT, values.toArray());
+            }
+            if (node.isArray()) {
+                List<Object> values = new ArrayList<>();
+                for (JsonNode item : node) {
+                    values.add(json(item));
+                }
+                return new Node(Node.ARRAY, values.toArray());
+            }
+            if (node.isTextual()) {
+                return node.textValue();
+            }
+            if (node.isNumber()) {
+                return node.numberValue();
+            }
+            if (node.isBoolean()) {
+                return node.booleanValue();
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the root key declaring the version of a definition, {@code openapi} or {@code swagger}, by streaming over the
+ * root object: its other entries are skipped and the content after the key is not read.
+ */
+public final class VersionSniffer {
+
+    public static final String OPENAPI = "openapi";
+    public static final String SWAGGER = "swagger";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+
+    private VersionSniffer() {
+    }
+
+    /**
+     * @return {@link #OPENAPI} or {@link #SWAGGER}, whichever comes first in the root object, or null if the content
+     * has neither or could not be parsed up to it
+     */
+    public static String versionKey(String contents) {
+        if (contents == null) {
+            return null;
+        }
+        try (JsonParser parser = DeserializationUtils.isJson(contents) ?
+                JSON_FACTORY.createParser(contents) : YAML_FACTORY.createParser(contents)) {
+            return versionKey(parser);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link #versionKey(String)} for encoded content; the buffer's position is left unchanged.
+     */
+    public static String versionKey(ByteBuffer contents) {
+        if (contents == null) {
+            return null;
+        }
+        final JsonFactory factory = DeserializationUtils.isJson(contents) ? JSON_FACTORY : YAML_FACTORY;
+        try (JsonParser parser = contents.hasArray() ?
+                factory.createParser(contents.array(), contents.arrayOffset() + contents.position(), contents.remaining()) :
+                factory.createParser(new ByteBufferBackedInputStream(contents.duplicate()))) {
+            return versionKey(parser);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String versionKey(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            if (OPENAPI.equals(name) || SWAGGER.equals(name)) {
+                return name;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package io.swagger.v3.parser;
+
+import io.swagger.v3.parser.core.extensions.SwaggerParserExtension;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class OpenAPIV3ParserExtensionsTest {
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("extensions");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Test(description = "the extension types of a class loader are found once, and instantiated on each call")
+    public void testExtensionTypesFoundOnce() throws Exception {
+        ClassLoader loader = extensionLoader();
+
+        List<SwaggerParserExtension> first = OpenAPIV3Parser.getExtensions(loader);
+        List<SwaggerParserExtension> second = OpenAPIV3Parser.getExtensions(loader);
+
+        assertEquals(first.size(), 1);
+        assertEquals(second.size(), 1);
+        assertSame(first.get(0).getClass().getClassLoader(), loader);
+        assertSame(second.get(0).getClass(), first.get(0).getClass());
+        assertNotSame(second.get(0), first.get(0));
+    }
+
+    @Test(description = "the class loaders extensions were found with can be unloaded")
+    public void testClassLoaderNotRetained() throws Exception {
+        WeakReference<ClassLoader> loader = scanExtensionLoader();
+
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(loader.get());
+    }
+
+    private WeakReference<ClassLoader> scanExtensionLoader() throws IOException {
+        ClassLoader loader = extensionLoader();
+        assertEquals(OpenAPIV3Parser.getExtensions(loader).size(), 1);
+        return new WeakReference<>(loader);
+    }
+
+    /**
+     * A class loader registering {@link TestExtension}, which it defines itself as the class loader of a deployed
+     * application would.
+     */
+    private ClassLoader extensionLoader() throws IOException {
+        Path root = Files.createTempDirectory(dir, "loader");
+        Path file = root.resolve("META-INF/services/" + SwaggerParserExtension.class.getName());
+        Files.createDirectories(file.getParent());
+        Files.write(file, TestExtension.class.getName().getBytes(StandardCharsets.UTF_8));
+        URL classes = TestExtension.class.getProtectionDomain().getCodeSource().getLocation();
+        return new URLClassLoader(new URL[]{root.toUri().toURL(), classes}, getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.equals(TestExtension.class.getName())) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> type = findLoadedClass(name);
+                    return type != null ? type : findClass(name);
+                }
+            }
+        };
+    }
+
+    public static class TestExtension implements SwaggerParserExtension {
+
+        @Override
+        public SwaggerParseResult readLocation(String url, List<AuthorizationValue> auth, ParseOptions options) {
+            return null;
+        }
+
+        @Override
+        public SwaggerParseResult readContents(String swaggerAsString, List<AuthorizationValue> auth, ParseOptions options) {
+            return null;
+        }
+    }
+}
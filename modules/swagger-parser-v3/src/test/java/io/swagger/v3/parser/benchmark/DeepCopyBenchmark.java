@@ -0,0 +1,82 @@
+package io.swagger.v3.parser.benchmark;
+
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.reference.ReferenceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ReferenceUtils#deepCopy(Object, Class)} against the JSON string round trip previously used by the
+ * 3.1 traversers, copying every path item and component schema of a 3.1.0 test resource.
+ *
+ * Run with {@code mvn test-compile} followed by executing {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeepCopyBenchmark {
+
+    @Param({"src/test/resources/3.1.0/petstore-3.1_more.yaml", "src/test/resources/3.1.0/oas3.1.yaml"})
+    public String location;
+
+    private Collection<PathItem> pathItems;
+    private Collection<Schema> schemas;
+
+    @Setup
+    public void setUp() {
+        OpenAPI openAPI = new OpenAPIV3Parser().read(location, null, new ParseOptions());
+        pathItems = openAPI.getPaths() != null ? openAPI.getPaths().values() : Collections.emptyList();
+        schemas = openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null
+                ? openAPI.getComponents().getSchemas().values() : Collections.emptyList();
+    }
+
+    @Benchmark
+    public void tokenBuffer(Blackhole blackhole) {
+        for (PathItem pathItem : pathItems) {
+            blackhole.consume(ReferenceUtils.deepCopy(pathItem, PathItem.class));
+        }
+        for (Schema schema : schemas) {
+            blackhole.consume(ReferenceUtils.deepCopy(schema, Schema.class));
+        }
+    }
+
+    @Benchmark
+    public void jsonRoundTrip(Blackhole blackhole) throws Exception {
+        for (PathItem pathItem : pathItems) {
+            blackhole.consume(Json31.mapper().readValue(Json31.mapper().writeValueAsString(pathItem), PathItem.class));
+        }
+        for (Schema schema : schemas) {
+            blackhole.consume(Json31.mapper().readValue(Json31.mapper().writeValueAsString(schema), Schema.class));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DeepCopyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
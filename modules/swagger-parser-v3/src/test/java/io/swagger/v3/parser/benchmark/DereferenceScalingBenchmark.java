@@ -0,0 +1,80 @@
+package io.swagger.v3.parser.benchmark;
+
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses and dereferences generated OAS 3.1 documents of increasing size, each with {@code size} paths and
+ * {@code size} component schemas referencing a shared one. The time per operation should grow linearly with
+ * {@code size}; a super-linear curve points at lookups in the traversers that scale with the document size.
+ *
+ * Run with {@code mvn test-compile} followed by executing {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DereferenceScalingBenchmark {
+
+    @Param({"50", "200", "800"})
+    public int size;
+
+    private String contents;
+
+    private ParseOptions options;
+
+    @Setup
+    public void setUp() {
+        StringBuilder spec = new StringBuilder("{\"openapi\":\"3.1.0\",\"info\":{\"title\":\"scaling\",\"version\":\"1\"},\"paths\":{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                spec.append(',');
+            }
+            spec.append("\"/items").append(i).append("\":{\"get\":{\"responses\":{\"200\":{\"description\":\"ok\",")
+                    .append("\"content\":{\"application/json\":{\"schema\":{\"$ref\":\"#/components/schemas/Item")
+                    .append(i).append("\"}}}}}}}");
+        }
+        spec.append("},\"components\":{\"schemas\":{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                spec.append(',');
+            }
+            spec.append("\"Item").append(i).append("\":{\"type\":\"object\",\"properties\":{")
+                    .append("\"id\":{\"type\":\"integer\"},\"name\":{\"type\":\"string\"},")
+                    .append("\"tag\":{\"$ref\":\"#/components/schemas/Tag\"}}}");
+        }
+        spec.append(",\"Tag\":{\"type\":\"object\",\"properties\":{\"label\":{\"type\":\"string\"}}}}}}");
+        contents = spec.toString();
+        options = new ParseOptions();
+        options.setResolve(true);
+    }
+
+    @Benchmark
+    public SwaggerParseResult dereference() {
+        return new OpenAPIV3Parser().readContents(contents, null, options);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DereferenceScalingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
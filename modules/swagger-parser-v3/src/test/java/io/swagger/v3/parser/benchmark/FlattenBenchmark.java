@@ -0,0 +1,91 @@
+package io.swagger.v3.parser.benchmark;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.util.InlineModelResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link InlineModelResolver#flatten(OpenAPI)}, which matches generated models by their structural signature,
+ * against the previous matching by pretty printed JSON, on the flatten test resources.
+ *
+ * Run with {@code mvn test-compile} followed by executing {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FlattenBenchmark {
+
+    @Param({"src/test/resources/flatten.json", "src/test/resources/flattenArrayItems.yaml",
+            "src/test/resources/flattenComposedSchemaComplete.json", "src/test/resources/additionalPropertiesFlatten.yaml"})
+    public String location;
+
+    private OpenAPI openAPI;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        openAPI = new OpenAPIV3Parser().read(location, null, options);
+    }
+
+    @Benchmark
+    public OpenAPI structuralSignature() {
+        new InlineModelResolver(true, false).flatten(openAPI);
+        return openAPI;
+    }
+
+    @Benchmark
+    public OpenAPI prettyJsonSignature() {
+        new PrettyJsonInlineModelResolver().flatten(openAPI);
+        return openAPI;
+    }
+
+    static class PrettyJsonInlineModelResolver extends InlineModelResolver {
+
+        private final Map<String, String> generatedSignature = new HashMap<>();
+
+        PrettyJsonInlineModelResolver() {
+            super(true, false);
+        }
+
+        @Override
+        public String matchGenerated(Schema model) {
+            return generatedSignature.get(Json.pretty(model));
+        }
+
+        @Override
+        public void addGenerated(String name, Schema model) {
+            generatedSignature.put(Json.pretty(model), name);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FlattenBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
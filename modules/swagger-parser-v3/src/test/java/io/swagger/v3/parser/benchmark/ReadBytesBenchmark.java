@@ -0,0 +1,81 @@
+package io.swagger.v3.parser.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DeserializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing an encoded definition through {@link OpenAPIV3Parser#readBytes} against decoding it into a String
+ * and calling {@link OpenAPIV3Parser#readContents}, for the large YAML test resource and its JSON rendering.
+ *
+ * {@link #main(String[])} runs with the GC profiler: {@code gc.alloc.rate.norm} reports the bytes allocated per parse,
+ * which includes the UTF-16 copies of the document made by the String based path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ReadBytesBenchmark {
+
+    @Param({"yaml", "json"})
+    public String format;
+
+    private byte[] contents;
+
+    private ParseOptions options;
+
+    @Setup
+    public void setUp() throws Exception {
+        DeserializationUtils.getOptions().setMaxYamlCodePoints(Integer.MAX_VALUE);
+        byte[] yaml = Files.readAllBytes(Paths.get("src/test/resources/issue2059/largeFile.yaml"));
+        if ("json".equals(format)) {
+            JsonNode tree = DeserializationUtils.readYamlTree(new String(yaml, StandardCharsets.UTF_8));
+            contents = Json.mapper().writeValueAsBytes(tree);
+        } else {
+            contents = yaml;
+        }
+        options = new ParseOptions();
+        options.setResolve(false);
+    }
+
+    @Benchmark
+    public SwaggerParseResult readBytes() {
+        return new OpenAPIV3Parser().readBytes(contents, null, options);
+    }
+
+    @Benchmark
+    public SwaggerParseResult readContents() {
+        return new OpenAPIV3Parser().readContents(new String(contents, StandardCharsets.UTF_8), null, options);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ReadBytesBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package io.swagger.v3.parser.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.swagger.v3.parser.util.RemoteUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares {@link RemoteUrl#urlToString(String, java.util.List)} against the previous char by char response read,
+ * fetching the large YAML test resource (about 4 MB) from a local HTTP server.
+ *
+ * With {@code compression} set, the server gzips the response for clients sending {@code Accept-Encoding: gzip};
+ * the previous read never did, so it always gets the uncompressed body. Over loopback the transfer is nearly free, so
+ * this mostly shows the decoding cost; the bytes saved on a real network come on top.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RemoteUrlBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    private HttpServer server;
+
+    private String url;
+
+    @Setup
+    public void setUp() throws Exception {
+        final byte[] body = Files.readAllBytes(Paths.get("src/test/resources/issue2059/largeFile.yaml"));
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        }
+        final byte[] gzippedBody = gzipped.toByteArray();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/largeFile.yaml", exchange -> respond(exchange, body, gzippedBody));
+        server.start();
+        url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/largeFile.yaml";
+    }
+
+    private void respond(HttpExchange exchange, byte[] body, byte[] gzippedBody) throws IOException {
+        final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        final boolean gzip = compression && acceptEncoding != null && acceptEncoding.contains("gzip");
+        final byte[] response = gzip ? gzippedBody : body;
+        exchange.getResponseHeaders().add("Content-Type", "application/yaml");
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String urlToString() throws Exception {
+        return RemoteUrl.urlToString(url, null);
+    }
+
+    @Benchmark
+    public String charByChar() throws Exception {
+        final HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setRequestProperty("Accept", "application/json, application/yaml, */*");
+        try (InputStream in = conn.getInputStream();
+             BufferedReader input = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            final StringBuilder contents = new StringBuilder();
+            int ch;
+            while ((ch = input.read()) != -1) {
+                final char c = (char) ch;
+                if (!Character.isISOControl(c) || c == '\n') {
+                    contents.append(c);
+                }
+            }
+            return contents.toString();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RemoteUrlBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
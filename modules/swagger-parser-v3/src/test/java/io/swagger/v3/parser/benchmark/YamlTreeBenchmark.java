@@ -0,0 +1,70 @@
+package io.swagger.v3.parser.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.parser.util.DeserializationUtils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DeserializationUtils#readYamlTree(String)} against the previous snakeyaml load plus JSON string
+ * round trip.
+ *
+ * Run with {@code mvn test-compile} followed by executing {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class YamlTreeBenchmark {
+
+    @Param({"src/test/resources/issue2059/largeFile.yaml", "src/test/resources/3.1.0/petstore-3.1_more.yaml"})
+    public String location;
+
+    private String contents;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Setup
+    public void setUp() throws Exception {
+        DeserializationUtils.getOptions().setMaxYamlCodePoints(Integer.MAX_VALUE);
+        contents = FileUtils.readFileToString(new File(location), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonNode directTree() {
+        return DeserializationUtils.readYamlTree(contents);
+    }
+
+    @Benchmark
+    public JsonNode jsonRoundTrip() throws Exception {
+        org.yaml.snakeyaml.Yaml yaml = DeserializationUtils.buildSnakeYaml(new SafeConstructor(DeserializationUtils.buildLoaderOptions()));
+        Object o = yaml.load(contents);
+        return mapper.readTree(mapper.writeValueAsString(o));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(YamlTreeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
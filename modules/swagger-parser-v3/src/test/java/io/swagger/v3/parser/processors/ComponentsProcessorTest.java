@@ -8,6 +8,8 @@ import io.swagger.v3.parser.ResolverCache;
 import mockit.*;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+
 
 
 public class ComponentsProcessorTest {
@@ -77,6 +79,33 @@ public class ComponentsProcessorTest {
         }};
     }
 
+    @Test
+    public void testComponentsSchemasAddedDuringProcessingAreVisitedOnce() throws Exception {
+        final OpenAPI openAPI = new OpenAPI();
+        openAPI.components(new Components().addSchemas("foo", model1));
+        openAPI.getComponents().addSchemas("bar", model2);
+
+        new Expectations() {{
+            schemaProcessor.processSchema(model1);
+            result = new Delegate<Void>() {
+                void processSchema(Schema schema) {
+                    // simulates an external ref pulling a new model into the components map
+                    openAPI.getComponents().addSchemas("baz", new Schema());
+                }
+            };
+        }};
+
+        ComponentsProcessor componentsProcessor = new ComponentsProcessor(openAPI, cache, openapi31);
+        componentsProcessor.processComponents();
+
+        new Verifications() {{
+            schemaProcessor.processSchema((Schema) any);
+            times = 3;
+        }};
+        assertEquals(componentsProcessor.getPasses(), 2);
+        assertEquals(componentsProcessor.getItemsProcessed(), 3);
+    }
+
     @Test
     public void testNoComponentsDefined() throws Exception {
 
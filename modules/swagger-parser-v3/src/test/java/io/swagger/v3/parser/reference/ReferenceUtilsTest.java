@@ -0,0 +1,65 @@
+package io.swagger.v3.parser.reference;
+
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+public class ReferenceUtilsTest {
+
+    @DataProvider
+    public Object[][] specs() {
+        return new Object[][]{
+                {"src/test/resources/3.1.0/petstore-3.1_more.yaml"},
+                {"src/test/resources/3.1.0/oas3.1.yaml"},
+                {"src/test/resources/3.1.0/basic.yaml"},
+                {"src/test/resources/3.1.0/securitySchemes31.yaml"},
+        };
+    }
+
+    @Test(dataProvider = "specs")
+    public void testDeepCopyMatchesJsonRoundTrip(String location) throws Exception {
+        OpenAPI openAPI = new OpenAPIV3Parser().read(location, null, new ParseOptions());
+
+        if (openAPI.getPaths() != null) {
+            assertCopies(openAPI.getPaths(), PathItem.class);
+        }
+        if (openAPI.getComponents() != null) {
+            assertCopies(openAPI.getComponents().getSchemas(), Schema.class);
+            assertCopies(openAPI.getComponents().getResponses(), ApiResponse.class);
+            assertCopies(openAPI.getComponents().getParameters(), Parameter.class);
+            assertCopies(openAPI.getComponents().getSecuritySchemes(), SecurityScheme.class);
+        }
+    }
+
+    @Test
+    public void testDeepCopyNull() {
+        assertNull(ReferenceUtils.deepCopy(null, Schema.class));
+    }
+
+    private <T> void assertCopies(Map<String, ? extends T> entities, Class<T> clazz) throws Exception {
+        if (entities == null) {
+            return;
+        }
+        for (T entity : entities.values()) {
+            T copy = ReferenceUtils.deepCopy(entity, clazz);
+            T roundTrip = Json31.mapper().readValue(Json31.mapper().writeValueAsString(entity), clazz);
+            assertNotSame(copy, entity);
+            assertEquals(Json31.pretty(copy), Json31.pretty(roundTrip));
+            assertEquals(copy, roundTrip);
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package io.swagger.v3.parser.reference;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DocumentCache;
 import org.testng.annotations.Test;
 import org.yaml.snakeyaml.error.YAMLException;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertFalse;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 public class ReferenceVisitorTest {
 
@@ -53,6 +72,111 @@ public class ReferenceVisitorTest {
         }
     }
 
+    @Test
+    public void idsShouldBeIndexedOnceAndServedAsTrees() throws Exception {
+        String rootUri = new File("src/test/resources/3.1.0/dereference/schema/$id-uri-direct/root.json").toURI().toString();
+        ParseOptions options = new ParseOptions();
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(rootUri, null, options);
+        Map<String, Reference> referenceSet = new LinkedHashMap<>();
+        DereferencerContext context = new DereferencerContext(result, null, rootUri, options, null, referenceSet, true);
+        Reference reference = new Reference()
+                .uri(rootUri)
+                .referenceSet(referenceSet)
+                .messages(new LinkedHashSet<>());
+        ReferenceVisitor visitor = new ReferenceVisitor(reference, new OpenAPI31Traverser(context), new HashSet<>(), new HashMap<>(), context);
+
+        String idUri = ReferenceUtils.resolve("./nested/", rootUri);
+        JsonNode first = visitor.parse(idUri, null);
+
+        assertFalse(context.isIdsCacheStale());
+        assertEquals(first.get("$id").textValue(), "./nested/");
+        assertSame(visitor.parse(idUri, null), first);
+    }
+
+    @Test
+    public void localFilesShouldBeReadThroughOverriddenReadFile() throws Exception {
+        String rootUri = new File("src/test/resources/3.1.0/dereference/schema/$id-uri-direct/root.json").toURI().toString();
+        String file = new File("src/test/resources/3.1.0/dereference/schema/$id-uri-direct/nested/ex.json").getAbsolutePath();
+        ParseOptions options = new ParseOptions();
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(rootUri, null, options);
+
+        for (DocumentCache documentCache : Arrays.asList(null, new DocumentCache(1 << 20))) {
+            Map<String, Reference> referenceSet = new LinkedHashMap<>();
+            DereferencerContext context = new DereferencerContext(result, null, rootUri, options, null, referenceSet, true)
+                    .documentCache(documentCache);
+            Reference reference = new Reference().uri(rootUri).referenceSet(referenceSet).messages(new LinkedHashSet<>());
+            List<String> read = new ArrayList<>();
+            ReferenceVisitor visitor = new ReferenceVisitor(reference, new OpenAPI31Traverser(context), new HashSet<>(), new HashMap<>(), context) {
+                @Override
+                public String readFile(String path) {
+                    read.add(path);
+                    return "{\"virtual\": true}";
+                }
+            };
+
+            JsonNode node = visitor.parse(file, null);
+
+            assertEquals(read, Collections.singletonList(file));
+            assertTrue(node.get("virtual").booleanValue());
+        }
+    }
+
+    @Test
+    public void prefetchedTreesShouldBeTakenInsteadOfParsed() throws Exception {
+        String rootUri = new File("src/test/resources/3.1.0/dereference/schema/$id-uri-direct/root.json").toURI().toString();
+        File file = new File("src/test/resources/3.1.0/dereference/schema/$id-uri-direct/nested/ex.json");
+        String url = "http://prefetched.invalid/remote.yaml";
+        ParseOptions options = new ParseOptions();
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(rootUri, null, options);
+
+        for (DocumentCache documentCache : Arrays.asList(null, new DocumentCache(1 << 20))) {
+            JsonNode local = new ObjectMapper().readTree("{\"prefetched\": \"local\"}");
+            JsonNode remote = new ObjectMapper().readTree("{\"prefetched\": \"remote\"}");
+            Map<String, DocumentCache.Document> prefetched = new HashMap<>();
+            prefetched.put(file.toPath().toUri().toString(), new DocumentCache.Document(null, local, null, file.length()));
+            prefetched.put(url, new DocumentCache.Document("prefetched: remote", remote, null, 18));
+            Map<String, Reference> referenceSet = new LinkedHashMap<>();
+            DereferencerContext context = new DereferencerContext(result, null, rootUri, options, null, referenceSet, true)
+                    .documentCache(documentCache)
+                    .prefetchedDocuments(prefetched);
+            Reference reference = new Reference().uri(rootUri).referenceSet(referenceSet).messages(new LinkedHashSet<>());
+            ReferenceVisitor visitor = new ReferenceVisitor(reference, new OpenAPI31Traverser(context), new HashSet<>(), new HashMap<>(), context);
+
+            JsonNode localNode = visitor.parse(file.getAbsolutePath(), null);
+            JsonNode remoteNode = visitor.parse(url, null);
+
+            assertEquals(localNode, local);
+            assertEquals(remoteNode, remote);
+            assertTrue(prefetched.isEmpty());
+            if (documentCache == null) {
+                assertSame(localNode, local);
+                assertSame(remoteNode, remote);
+            } else {
+                assertEquals(documentCache.size(), 2);
+            }
+        }
+    }
+
+    @Test
+    public void anchorsShouldBeIndexedPerReference() throws Exception {
+        JsonNode tree = new ObjectMapper().readTree("{\"$defs\": {" +
+                "\"a\": {\"$anchor\": \"foo\", \"type\": \"string\"}," +
+                "\"b\": {\"$anchor\": \"foo\", \"type\": \"integer\"}," +
+                "\"c\": {\"$dynamicAnchor\": \"node\", \"items\": [{\"$anchor\": \"item\"}]}}}");
+        Reference reference = new Reference().jsonNode(tree);
+
+        assertSame(reference.getAnchor("foo"), tree.get("$defs").get("a"));
+        assertSame(reference.getAnchor("item"), tree.get("$defs").get("c").get("items").get(0));
+        assertSame(reference.getAnchor("node"), tree.get("$defs").get("c"));
+        assertSame(reference.getDynamicAnchor("node"), tree.get("$defs").get("c"));
+        assertNull(reference.getDynamicAnchor("foo"));
+        assertNull(reference.getAnchor("missing"));
+        assertNull(ReferenceUtils.jsonPointerFind("/$defs/c/items/1", tree));
+
+        reference.setJsonNode(new ObjectMapper().readTree("{\"$anchor\": \"foo\"}"));
+        assertSame(reference.getAnchor("foo"), reference.getJsonNode());
+    }
+
     private String readResourceAsString(String resourceName) throws IOException {
         try (InputStream is = this.getClass().getResourceAsStream(resourceName)) {
             if (is == null) {
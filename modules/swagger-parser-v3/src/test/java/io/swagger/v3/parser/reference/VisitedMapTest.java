@@ -0,0 +1,37 @@
+package io.swagger.v3.parser.reference;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.Schema;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class VisitedMapTest {
+
+    @Test
+    public void testContainersAreKeyedByIdentity() {
+        Map<Object, Object> visited = new VisitedMap<>();
+        Components components = new Components().addSchemas("Pet", new Schema().type("object"));
+        visited.put(components, components);
+
+        assertTrue(visited.containsKey(components));
+        assertFalse(visited.containsKey(new Components().addSchemas("Pet", new Schema().type("object"))));
+    }
+
+    @Test
+    public void testReferenceableObjectsAreKeyedByValue() {
+        Map<Object, Object> visited = new VisitedMap<>();
+        Schema schema = new Schema().$ref("#/components/schemas/Pet");
+        visited.put(schema, schema);
+
+        // a freshly deserialized copy of a ref target must be recognized as visited to stop circular refs
+        assertTrue(visited.containsKey(new Schema().$ref("#/components/schemas/Pet")));
+        assertEquals(visited.size(), 1);
+        visited.remove(schema);
+        assertTrue(visited.isEmpty());
+    }
+}
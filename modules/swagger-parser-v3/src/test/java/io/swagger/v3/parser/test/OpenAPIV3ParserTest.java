@@ -31,6 +31,9 @@ import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -3504,4 +3507,66 @@ public class OpenAPIV3ParserTest {
         SwaggerParseResult parseResult = openApiParser.readLocation("version-missing.yaml", null, options);
         assertEquals(parseResult.getMessages().get(0), "attribute info.version is missing");
     }
+
+    @Test(description = "a single parser instance can be shared by concurrent callers")
+    public void testSharedParserConcurrentReads() throws Exception {
+        final OpenAPIV3Parser openApiParser = new OpenAPIV3Parser();
+        final ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        final String expected = Json.pretty(openApiParser.readLocation("src/test/resources/relative-file-references/yaml/parent.yaml", null, options).getOpenAPI());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(pool.submit(() -> Json.pretty(openApiParser.readLocation("src/test/resources/relative-file-references/yaml/parent.yaml", null, options).getOpenAPI())));
+            }
+            for (Future<String> future : futures) {
+                assertEquals(future.get(), expected);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(description = "byte based entry points parse like readLocation, resolving relative refs against the file")
+    public void testReadPathBytesAndStream() throws Exception {
+        final OpenAPIV3Parser openApiParser = new OpenAPIV3Parser();
+        final ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        final String location = "src/test/resources/relative-file-references/yaml/parent.yaml";
+        final String expected = Json.pretty(openApiParser.readLocation(location, null, options).getOpenAPI());
+        final byte[] bytes = java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(location));
+
+        assertEquals(Json.pretty(openApiParser.readPath(java.nio.file.Paths.get(location), null, options).getOpenAPI()), expected);
+        assertEquals(Json.pretty(openApiParser.readBytes(bytes, null, options, location).getOpenAPI()), expected);
+        try (FileInputStream in = new FileInputStream(location)) {
+            assertEquals(Json.pretty(openApiParser.readStream(in, null, options, location).getOpenAPI()), expected);
+        }
+    }
+
+    @Test
+    public void testReadBytesJsonWithByteOrderMark() throws Exception {
+        final String json = "{\"openapi\": \"3.0.1\", \"info\": {\"title\": \"bom\", \"version\": \"1\"}, \"paths\": {}}";
+        final byte[] withBom = ("\uFEFF  \n" + json).getBytes("UTF-8");
+
+        final String encoding = OpenAPIV3Parser.getEncoding();
+        OpenAPIV3Parser.setEncoding("UTF-8");
+        try {
+            SwaggerParseResult result = new OpenAPIV3Parser().readBytes(withBom, null, new ParseOptions());
+
+            assertEquals(result.getOpenAPI().getInfo().getTitle(), "bom");
+            assertEquals(result.getMessages(), emptyList());
+        } finally {
+            OpenAPIV3Parser.setEncoding(encoding);
+        }
+    }
+
+    @Test
+    public void testReadBytesEmpty() {
+        SwaggerParseResult result = new OpenAPIV3Parser().readBytes(" \n\t".getBytes(), null, new ParseOptions());
+
+        assertNull(result.getOpenAPI());
+        assertEquals(result.getMessages(), Collections.singletonList("Null or empty definition"));
+    }
 }
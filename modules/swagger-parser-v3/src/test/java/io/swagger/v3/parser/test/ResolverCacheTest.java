@@ -124,6 +124,36 @@ public class ResolverCacheTest {
 
     }
 
+    @Test
+    public void testLoadExternalRefFragmentsParseFileOnce() throws JsonProcessingException {
+
+        final RefFormat format = RefFormat.URL;
+        final String ref = "http://my.company.com/path/to/file.json";
+        final String contentsOfExternalFile = "really good json";
+
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        parseOptions.setValidateExternalRefs(true);
+
+        new Expectations(deserializationUtils) {{
+            RefUtils.readExternalUrlRef(ref, format, auths, "http://my.company.com/path/parent.json", (PermittedUrlsChecker) any);
+            times = 1;
+            result = contentsOfExternalFile;
+
+            DeserializationUtils.deserializeIntoTree(contentsOfExternalFile, ref, parseOptions, (SwaggerParseResult) any);
+            times = 1;
+            result = new ObjectMapper().readTree("{\"components\": {\"schemas\": {\"Foo\": {\"type\": \"string\"}, \"Bar\": {\"type\": \"integer\"}}}}");
+        }};
+
+        ResolverCache cache = new ResolverCache(openAPI, auths, "http://my.company.com/path/parent.json", new HashSet<>(), parseOptions);
+
+        Schema foo = cache.loadRef(ref + "#/components/schemas/Foo", format, Schema.class);
+        Schema bar = cache.loadRef(ref + "#/components/schemas/Bar", format, Schema.class);
+
+        assertEquals(foo.getType(), "string");
+        assertEquals(bar.getType(), "integer");
+    }
+
     @Test
     public void testLoadExternalRefWithEscapedCharacters() {
         final RefFormat format = RefFormat.URL;
@@ -0,0 +1,72 @@
+package io.swagger.v3.parser.util;
+
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class ComponentNameIndexTest {
+
+    @Test
+    public void testUniqueNameSkipsTakenNames() {
+        Map<String, Object> components = new LinkedHashMap<>();
+        ComponentNameIndex index = new ComponentNameIndex();
+
+        assertEquals(index.uniqueName(components, "Pet"), "Pet");
+        put(index, components, "Pet");
+        put(index, components, "Pet_2");
+        assertEquals(index.uniqueName(components, "Pet"), "Pet_1");
+        put(index, components, "Pet_1");
+        assertEquals(index.uniqueName(components, "Pet"), "Pet_3");
+        assertEquals(index.uniqueName(null, "Pet"), "Pet");
+    }
+
+    @Test
+    public void testUnusedNameIsHandedOutAgain() {
+        Map<String, Object> components = new LinkedHashMap<>();
+        ComponentNameIndex index = new ComponentNameIndex();
+        put(index, components, "Pet");
+
+        assertEquals(index.uniqueName(components, "Pet"), "Pet_1");
+        assertEquals(index.uniqueName(components, "Pet"), "Pet_1");
+    }
+
+    @Test
+    public void testNamesAddedWithoutTheIndexAreSeen() {
+        Map<String, Object> components = new LinkedHashMap<>();
+        ComponentNameIndex index = new ComponentNameIndex();
+        assertEquals(index.uniqueName(components, "Pet"), "Pet");
+
+        components.put("Pet", "");
+        components.put("pet_1", "");
+
+        assertEquals(index.uniqueName(components, "Pet"), "Pet_1");
+        assertEquals(index.findIgnoreCase(components, "PET_1"), "pet_1");
+        assertEquals(index.uniqueName(new HashMap<>(), "Pet"), "Pet");
+    }
+
+    @Test
+    public void testFindIgnoreCase() {
+        Map<String, Object> components = new LinkedHashMap<>();
+        ComponentNameIndex index = new ComponentNameIndex();
+        put(index, components, "pet");
+        put(index, components, "Pet");
+        put(index, components, "Straße");
+
+        assertEquals(index.findIgnoreCase(components, "Pet"), "Pet");
+        assertEquals(index.findIgnoreCase(components, "PET"), "pet");
+        assertEquals(index.findIgnoreCase(components, "STRAßE"), "Straße");
+        assertNull(index.findIgnoreCase(components, "STRASSE"));
+        assertNull(index.findIgnoreCase(components, "Tag"));
+    }
+
+    private static void put(ComponentNameIndex index, Map<String, Object> components, String name) {
+        index.uniqueName(components, name);
+        components.put(name, "");
+        index.added(components, name);
+    }
+}
@@ -0,0 +1,97 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.Test;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class DeserializationUtilsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonNode readWithJsonRoundTrip(String contents) throws Exception {
+        org.yaml.snakeyaml.Yaml yaml = DeserializationUtils.buildSnakeYaml(new SafeConstructor(DeserializationUtils.buildLoaderOptions()));
+        return MAPPER.readTree(MAPPER.writeValueAsString(yaml.load(contents)));
+    }
+
+    @Test
+    public void testReadYamlTreeScalars() throws Exception {
+        String yaml = "string: value\n" +
+                "quoted: '1'\n" +
+                "int: 1\n" +
+                "hex: 0x1F\n" +
+                "long: 5000000000\n" +
+                "big: 123456789012345678901234567890\n" +
+                "float: 1.5\n" +
+                "bool: true\n" +
+                "yes: yes\n" +
+                "nothing: ~\n" +
+                "date: 2001-12-14\n" +
+                "binary: !!binary aGVsbG8=\n" +
+                "200: ok\n" +
+                "list: [a, 1, false]\n";
+
+        JsonNode tree = DeserializationUtils.readYamlTree(yaml);
+
+        assertEquals(tree, readWithJsonRoundTrip(yaml));
+        assertTrue(tree.get("int").isInt());
+        assertTrue(tree.get("long").isLong());
+        assertTrue(tree.get("big").isBigInteger());
+        assertTrue(tree.get("date").isTextual());
+        assertEquals(tree.get("binary").textValue(), "aGVsbG8=");
+        assertEquals(tree.get("200").textValue(), "ok");
+    }
+
+    @Test
+    public void testReadYamlTreeAliasesAndMerge() throws Exception {
+        String yaml = "base: &base\n" +
+                "  type: object\n" +
+                "  properties:\n" +
+                "    id: {type: integer}\n" +
+                "first: *base\n" +
+                "second:\n" +
+                "  <<: *base\n" +
+                "  description: merged\n";
+
+        JsonNode tree = DeserializationUtils.readYamlTree(yaml);
+
+        assertEquals(tree, readWithJsonRoundTrip(yaml));
+        assertEquals(tree.get("first"), tree.get("base"));
+        assertEquals(tree.get("second").get("type").textValue(), "object");
+        assertEquals(tree.get("second").get("description").textValue(), "merged");
+    }
+
+    @Test
+    public void testReadYamlTreeLargeFile() throws Exception {
+        DeserializationUtils.getOptions().setMaxYamlCodePoints(10000000);
+        try {
+            String yaml = FileUtils.readFileToString(new File("src/test/resources/issue2059/largeFile.yaml"), StandardCharsets.UTF_8);
+            assertEquals(DeserializationUtils.readYamlTree(yaml), readWithJsonRoundTrip(yaml));
+        } finally {
+            DeserializationUtils.getOptions().setMaxYamlCodePoints(3 * 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void testReadYamlTreeMaxReferences() {
+        DeserializationUtils.getOptions().setMaxYamlReferences(10L);
+        try {
+            String yaml = "a: &a [x]\n" +
+                    "b: &b [*a,*a,*a,*a]\n" +
+                    "c: [*b,*b,*b,*b]\n";
+            SwaggerParseResult result = new SwaggerParseResult();
+            DeserializationUtils.readYamlTree(yaml, null, result);
+            assertTrue(result.getMessages().get(0).startsWith("snake-yaml result exceeds max references 10"));
+        } finally {
+            DeserializationUtils.getOptions().setMaxYamlReferences(10000000L);
+        }
+    }
+}
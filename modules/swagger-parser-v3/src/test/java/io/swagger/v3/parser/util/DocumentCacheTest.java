@@ -0,0 +1,288 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class DocumentCacheTest {
+
+    private static final String ROOT_BODY =
+            "info:\n" +
+            "  title: shared\n" +
+            "  version: '1'\n" +
+            "paths:\n" +
+            "  /pets:\n" +
+            "    get:\n" +
+            "      responses:\n" +
+            "        '200':\n" +
+            "          description: ok\n" +
+            "          content:\n" +
+            "            application/json:\n" +
+            "              schema:\n" +
+            "                $ref: './common/pet.yaml#/Pet'\n" +
+            "        default:\n" +
+            "          description: error\n" +
+            "          content:\n" +
+            "            application/json:\n" +
+            "              schema:\n" +
+            "                $ref: './common/pet.yaml#/Error'\n";
+
+    private static final String PET =
+            "Pet:\n" +
+            "  type: object\n" +
+            "  example:\n" +
+            "    name: rex\n" +
+            "  properties:\n" +
+            "    name:\n" +
+            "      type: string\n" +
+            "Error:\n" +
+            "  type: object\n" +
+            "  properties:\n" +
+            "    message:\n" +
+            "      type: string\n";
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("document-cache");
+        Files.createDirectories(directory.resolve("common"));
+        write("openapi30.yaml", "openapi: 3.0.3\n" + ROOT_BODY);
+        write("openapi31.yaml", "openapi: 3.1.0\n" + ROOT_BODY);
+        write("common/pet.yaml", PET);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    private Path write(String name, String contents) throws Exception {
+        return Files.write(directory.resolve(name), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DocumentCache.Document document(long bytes) {
+        return new DocumentCache.Document(null, TextNode.valueOf("x"), null, bytes);
+    }
+
+    @Test
+    public void testHitForSameVersion() throws Exception {
+        DocumentCache cache = new DocumentCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        DocumentCache.Document first = cache.get("http://host/a.yaml", null, false, null, "1", () -> {
+            loads.incrementAndGet();
+            return document(10);
+        });
+        DocumentCache.Document second = cache.get("http://host/a.yaml", null, false, null, "1", () -> {
+            loads.incrementAndGet();
+            return document(10);
+        });
+
+        assertSame(second, first);
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testNewVersionReplacesEntry() throws Exception {
+        DocumentCache cache = new DocumentCache();
+
+        cache.get("http://host/a.yaml", null, false, null, "1", () -> document(10));
+        DocumentCache.Document updated = cache.get("http://host/a.yaml", null, false, null, "2", () -> document(30));
+
+        assertSame(cache.get("http://host/a.yaml", null, false, null, "2", () -> document(0)), updated);
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.getBytes(), 30);
+    }
+
+    @Test
+    public void testEntriesAreKeyedByAuthorizationAndVersion() throws Exception {
+        DocumentCache cache = new DocumentCache();
+        List<AuthorizationValue> auths = Collections.singletonList(
+                new AuthorizationValue("Authorization", "secret", "header", u -> true));
+
+        DocumentCache.Document anonymous = cache.get("http://host/a.yaml", null, false, null, "1", () -> document(10));
+        DocumentCache.Document authorized = cache.get("http://host/a.yaml", auths, false, null, "1", () -> document(10));
+        DocumentCache.Document openapi31 = cache.get("http://host/a.yaml", null, true, null, "1", () -> document(10));
+
+        assertEquals(cache.size(), 3);
+        assertSame(cache.get("http://host/a.yaml", auths, false, null, "1", () -> null), authorized);
+        assertSame(cache.get("http://host/a.yaml", null, false, null, "1", () -> null), anonymous);
+        assertSame(cache.get("http://host/a.yaml", null, true, null, "1", () -> null), openapi31);
+    }
+
+    @Test
+    public void testEntriesAreKeyedByTreeAffectingOptions() throws Exception {
+        DocumentCache cache = new DocumentCache();
+        ParseOptions legacy = new ParseOptions();
+        legacy.setLegacyYamlDeserialization(true);
+
+        DocumentCache.Document current = cache.get("http://host/a.yaml", null, false, new ParseOptions(), "1", () -> document(10));
+        DocumentCache.Document legacyTree = cache.get("http://host/a.yaml", null, false, legacy, "1", () -> document(10));
+        DeserializationUtils.Options yaml = DeserializationUtils.getOptions();
+        Integer maxYamlDepth = yaml.getMaxYamlDepth();
+        DocumentCache.Document limited;
+        try {
+            yaml.setMaxYamlDepth(10);
+            limited = cache.get("http://host/a.yaml", null, false, new ParseOptions(), "1", () -> document(10));
+        } finally {
+            yaml.setMaxYamlDepth(maxYamlDepth);
+        }
+
+        assertEquals(cache.size(), 3);
+        assertNotSame(legacyTree, current);
+        assertNotSame(limited, current);
+        assertSame(cache.get("http://host/a.yaml", null, false, null, "1", () -> null), current);
+        assertSame(cache.get("http://host/a.yaml", null, false, legacy, "1", () -> null), legacyTree);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreEvicted() throws Exception {
+        DocumentCache cache = new DocumentCache(100);
+
+        cache.get("a", null, false, null, "1", () -> document(40));
+        cache.get("b", null, false, null, "1", () -> document(40));
+        cache.get("a", null, false, null, "1", () -> null);
+        cache.get("c", null, false, null, "1", () -> document(40));
+
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getBytes(), 80);
+        assertNotNull(cache.get("a", null, false, null, "1", () -> null));
+        assertNull(cache.get("b", null, false, null, "1", () -> null));
+    }
+
+    @Test
+    public void testDocumentsLargerThanTheCacheAreNotStored() throws Exception {
+        DocumentCache cache = new DocumentCache(100);
+
+        assertNotNull(cache.get("a", null, false, null, "1", () -> document(101)));
+
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.getBytes(), 0);
+    }
+
+    @DataProvider
+    public Object[][] versions() {
+        return new Object[][]{{"openapi30.yaml"}, {"openapi31.yaml"}};
+    }
+
+    @Test(dataProvider = "versions")
+    public void testSharedBetweenParses(String spec) throws Exception {
+        DocumentCache cache = new DocumentCache();
+        String location = directory.resolve(spec).toString();
+
+        OpenAPI first = parse(new OpenAPIV3Parser(cache), location);
+        long misses = cache.getMissCount();
+        OpenAPI second = parse(new OpenAPIV3Parser(cache), location);
+
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.getMissCount(), misses);
+        assertEquals(Json.pretty(second), Json.pretty(first));
+        assertEquals(Json.pretty(second), Json.pretty(parse(new OpenAPIV3Parser(), location)));
+    }
+
+    @Test(dataProvider = "versions")
+    public void testModifiedFileIsParsedAgain(String spec) throws Exception {
+        DocumentCache cache = new DocumentCache();
+        String location = directory.resolve(spec).toString();
+        parse(new OpenAPIV3Parser(cache), location);
+
+        Path pet = write("common/pet.yaml", PET.replace("name:", "nickname:"));
+        Files.setLastModifiedTime(pet, FileTime.fromMillis(Files.getLastModifiedTime(pet).toMillis() + 2000));
+        OpenAPI updated = parse(new OpenAPIV3Parser(cache), location);
+
+        assertNotNull(petSchema(updated).getProperties().get("nickname"));
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test(dataProvider = "versions", description = "changes to a parsed definition don't show in later parses")
+    public void testParsesGetTheirOwnTrees(String spec) throws Exception {
+        DocumentCache cache = new DocumentCache();
+        String location = directory.resolve(spec).toString();
+
+        OpenAPI first = parse(new OpenAPIV3Parser(cache), location);
+        ((ObjectNode) petSchema(first).getExample()).put("name", "changed");
+        OpenAPI second = parse(new OpenAPIV3Parser(cache), location);
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(((JsonNode) petSchema(second).getExample()).get("name").asText(), "rex");
+    }
+
+    @Test
+    public void testSizesAreCountedInBytes() throws Exception {
+        String contents = "name: caf\u00e9 \u20ac \ud834\udd1e";
+        DocumentCache cache = new DocumentCache();
+
+        cache.get("a", null, false, null, "1", () -> document(DocumentCache.encodedLength(contents)));
+
+        assertEquals(DocumentCache.encodedLength(contents), contents.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(cache.getBytes(), contents.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test(dataProvider = "versions")
+    public void testConcurrentParses(String spec) throws Exception {
+        DocumentCache cache = new DocumentCache();
+        String location = directory.resolve(spec).toString();
+        String expected = Json.pretty(parse(new OpenAPIV3Parser(), location));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OpenAPI>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> parse(new OpenAPIV3Parser(cache), location)));
+            }
+            for (Future<OpenAPI> result : results) {
+                assertEquals(Json.pretty(result.get()), expected);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(cache.size(), 1);
+    }
+
+    private static Schema petSchema(OpenAPI openAPI) {
+        Schema petSchema = openAPI.getPaths().get("/pets").getGet().getResponses().get("200")
+                .getContent().get("application/json").getSchema();
+        return petSchema.get$ref() != null ? openAPI.getComponents().getSchemas().get("Pet") : petSchema;
+    }
+
+    private static OpenAPI parse(OpenAPIV3Parser parser, String location) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        SwaggerParseResult result = parser.readLocation(location, null, options);
+        assertNotNull(result.getOpenAPI(), String.valueOf(result.getMessages()));
+        return result.getOpenAPI();
+    }
+}
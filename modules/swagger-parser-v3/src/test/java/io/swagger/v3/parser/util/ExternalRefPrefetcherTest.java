@@ -0,0 +1,345 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.ResolverCache;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.models.RefFormat;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ExternalRefPrefetcherTest {
+
+    private static final int DELAY = 500;
+
+    private static final String ROOT_BODY =
+            "info:\n" +
+            "  title: prefetch\n" +
+            "  version: '1'\n" +
+            "paths:\n" +
+            "  /pets:\n" +
+            "    get:\n" +
+            "      responses:\n" +
+            "        '200':\n" +
+            "          description: ok\n" +
+            "          content:\n" +
+            "            application/json:\n" +
+            "              schema:\n" +
+            "                $ref: './models/pet.yaml'\n" +
+            "        default:\n" +
+            "          description: error\n" +
+            "          content:\n" +
+            "            application/json:\n" +
+            "              schema:\n" +
+            "                $ref: './models/error.yaml'\n" +
+            "components:\n" +
+            "  schemas:\n" +
+            "    Tag:\n" +
+            "      $ref: './models/tag.yaml'\n" +
+            "    Local:\n" +
+            "      $ref: '#/components/schemas/Tag'\n";
+
+    private WireMockServer wireMockServer;
+
+    @BeforeClass
+    public void startServer() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        wireMockServer.start();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    @BeforeMethod
+    public void resetServer() {
+        wireMockServer.resetAll();
+        stub("/api/openapi30.yaml", "openapi: 3.0.3\n" + ROOT_BODY, 0);
+        stub("/api/openapi31.yaml", "openapi: 3.1.0\n" + ROOT_BODY, 0);
+        stub("/api/models/pet.yaml",
+                "type: object\n" +
+                "properties:\n" +
+                "  category:\n" +
+                "    $ref: './category.yaml'\n" +
+                "  name:\n" +
+                "    type: string\n", DELAY);
+        stub("/api/models/category.yaml",
+                "type: object\n" +
+                "properties:\n" +
+                "  id:\n" +
+                "    type: integer\n", DELAY);
+        stub("/api/models/error.yaml",
+                "type: object\n" +
+                "properties:\n" +
+                "  message:\n" +
+                "    type: string\n", DELAY);
+        stub("/api/models/tag.yaml",
+                "type: string\n", DELAY);
+    }
+
+    private void stub(String path, String body, int delay) {
+        wireMockServer.stubFor(get(urlPathEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-type", "application/yaml")
+                        .withBody(body)
+                        .withFixedDelay(delay)));
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + wireMockServer.port() + path;
+    }
+
+    private static ParseOptions prefetchOptions(int threads, int maxPerHost) {
+        ParseOptions options = new ParseOptions();
+        options.setPrefetchExternalRefs(true);
+        options.setPrefetchThreads(threads);
+        options.setPrefetchMaxRequestsPerHost(maxPerHost);
+        return options;
+    }
+
+    private JsonNode rootTree() throws Exception {
+        String location = url("/api/openapi30.yaml");
+        return DeserializationUtils.deserializeIntoTree(RemoteUrl.urlToString(location, null), location,
+                new ParseOptions(), new SwaggerParseResult());
+    }
+
+    @Test
+    public void testPrefetchFollowsReferencesTransitively() throws Exception {
+        Map<String, DocumentCache.Document> documents = new ExternalRefPrefetcher(null, prefetchOptions(8, 8))
+                .prefetch(rootTree(), url("/api/openapi30.yaml"));
+
+        assertEquals(documents.keySet().size(), 4);
+        assertTrue(documents.get(url("/api/models/pet.yaml")).getContents().contains("category.yaml"));
+        assertEquals(documents.get(url("/api/models/pet.yaml")).getTree().path("type").asText(), "object");
+        assertNotNull(documents.get(url("/api/models/category.yaml")));
+        assertNotNull(documents.get(url("/api/models/error.yaml")));
+        assertNotNull(documents.get(url("/api/models/tag.yaml")));
+    }
+
+    @Test
+    public void testPrefetchFetchesConcurrently() throws Exception {
+        long start = System.currentTimeMillis();
+        new ExternalRefPrefetcher(null, prefetchOptions(8, 8)).prefetch(rootTree(), url("/api/openapi30.yaml"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        // pet, error and tag in parallel, then category: two rounds instead of four
+        assertTrue(elapsed < 4 * DELAY, "took " + elapsed + "ms");
+    }
+
+    @Test
+    public void testPrefetchHonoursPerHostLimit() throws Exception {
+        long start = System.currentTimeMillis();
+        new ExternalRefPrefetcher(null, prefetchOptions(8, 1)).prefetch(rootTree(), url("/api/openapi30.yaml"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed >= 4 * DELAY, "took " + elapsed + "ms");
+    }
+
+    @Test
+    public void testPrefetchSkipsUnreachableDocuments() throws Exception {
+        wireMockServer.stubFor(get(urlPathEqualTo("/api/models/error.yaml"))
+                .willReturn(aResponse().withStatus(404)));
+
+        Map<String, DocumentCache.Document> documents = new ExternalRefPrefetcher(null, prefetchOptions(8, 8))
+                .prefetch(rootTree(), url("/api/openapi30.yaml"));
+
+        assertNull(documents.get(url("/api/models/error.yaml")));
+        assertNotNull(documents.get(url("/api/models/pet.yaml")));
+    }
+
+    @Test
+    public void testPrefetchOnSharedExecutor() throws Exception {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+            threads.incrementAndGet();
+            return new Thread(runnable);
+        });
+        try {
+            ParseOptions options = prefetchOptions(8, 8);
+            options.setPrefetchExecutor(executor);
+
+            for (int i = 0; i < 2; i++) {
+                Map<String, DocumentCache.Document> documents = new ExternalRefPrefetcher(null, options)
+                        .prefetch(rootTree(), url("/api/openapi30.yaml"));
+                assertEquals(documents.keySet().size(), 4);
+                assertFalse(executor.isShutdown());
+            }
+            assertTrue(threads.get() > 0 && threads.get() <= 4, threads.get() + " threads");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(description = "only references the resolvers follow are prefetched, not those in literal values")
+    public void testScanSkipsLiteralValues() throws Exception {
+        String spec = "openapi: 3.1.0\n" +
+                "paths:\n" +
+                "  /pets:\n" +
+                "    x-sample:\n" +
+                "      $ref: 'http://host/extension.yaml'\n" +
+                "    get:\n" +
+                "      parameters:\n" +
+                "        - $ref: 'http://host/parameter.yaml'\n" +
+                "      responses:\n" +
+                "        default:\n" +
+                "          $ref: 'http://host/response.yaml'\n" +
+                "        '200':\n" +
+                "          description: ok\n" +
+                "          content:\n" +
+                "            application/json:\n" +
+                "              example:\n" +
+                "                $ref: 'http://host/example.yaml'\n" +
+                "              examples:\n" +
+                "                literal:\n" +
+                "                  value:\n" +
+                "                    $ref: 'http://host/example-value.yaml'\n" +
+                "                referenced:\n" +
+                "                  $ref: 'http://host/example-object.yaml'\n" +
+                "              schema:\n" +
+                "                type: object\n" +
+                "                default:\n" +
+                "                  $ref: 'http://host/default.yaml'\n" +
+                "                enum:\n" +
+                "                  - $ref: 'http://host/enum.yaml'\n" +
+                "                const:\n" +
+                "                  $ref: 'http://host/const.yaml'\n" +
+                "                examples:\n" +
+                "                  - $ref: 'http://host/schema-example.yaml'\n" +
+                "                properties:\n" +
+                "                  default:\n" +
+                "                    $ref: 'http://host/default-property.yaml'\n" +
+                "                  x-name:\n" +
+                "                    $ref: 'http://host/extension-property.yaml'\n" +
+                "components:\n" +
+                "  parameters:\n" +
+                "    enum:\n" +
+                "      $ref: 'http://host/enum-parameter.yaml'\n";
+        JsonNode root = DeserializationUtils.deserializeIntoTree(spec, "http://host/openapi.yaml", new ParseOptions(),
+                new SwaggerParseResult());
+
+        ExternalRefPrefetcher.Scan scan = ExternalRefPrefetcher.scan(root, "http://host/openapi.yaml", true);
+
+        assertEquals(scan.targets, new LinkedHashSet<>(Arrays.asList("http://host/parameter.yaml",
+                "http://host/response.yaml", "http://host/example-object.yaml", "http://host/default-property.yaml",
+                "http://host/extension-property.yaml", "http://host/enum-parameter.yaml")));
+    }
+
+    @Test
+    public void testResolve() {
+        assertEquals(ExternalRefPrefetcher.resolve("http://host/a/b.yaml", "../c.yaml"), "http://host/c.yaml");
+        assertEquals(ExternalRefPrefetcher.resolve("/specs/root.yaml", "http://host/c.yaml"), "http://host/c.yaml");
+        assertEquals(ExternalRefPrefetcher.resolve("/specs/root.yaml", "./models/c.yaml"), "/specs/models/c.yaml");
+        assertNull(ExternalRefPrefetcher.resolve(null, "./models/c.yaml"));
+        assertNull(ExternalRefPrefetcher.resolve("/specs/root.yaml", "classpath:c.yaml"));
+        assertNull(ExternalRefPrefetcher.resolve("jar:file:/specs.jar!/root.yaml", "c.yaml"));
+    }
+
+    @Test(description = "local files are parsed once, by the prefetcher, and their trees handed to the resolver")
+    public void testResolverTakesPrefetchedTrees30() throws Exception {
+        Path dir = Files.createTempDirectory("prefetch");
+        try {
+            Path root = dir.resolve("root.yaml");
+            Path pet = dir.resolve("pet.yaml");
+            Files.write(root, ("openapi: 3.0.3\n" +
+                    "info:\n" +
+                    "  title: prefetch\n" +
+                    "  version: '1'\n" +
+                    "paths: {}\n" +
+                    "components:\n" +
+                    "  schemas:\n" +
+                    "    Pet:\n" +
+                    "      $ref: './pet.yaml'\n").getBytes(StandardCharsets.UTF_8));
+            Files.write(pet, ("type: object\n" +
+                    "properties:\n" +
+                    "  category:\n" +
+                    "    $ref: '" + url("/api/models/category.yaml") + "'\n").getBytes(StandardCharsets.UTF_8));
+            ParseOptions options = prefetchOptions(8, 8);
+            OpenAPI openAPI = new OpenAPIV3Parser().read(root.toString(), null, new ParseOptions());
+
+            Map<String, DocumentCache.Document> documents = new ExternalRefPrefetcher(null, options)
+                    .prefetch(Json.mapper().valueToTree(openAPI), root.toString());
+            assertEquals(documents.keySet(), new HashSet<>(Arrays.asList(pet.toUri().toString(),
+                    url("/api/models/category.yaml"))));
+
+            ResolverCache cache = new ResolverCache(openAPI, null, root.toString(), new HashSet<>(), options);
+            cache.prefetchExternalRefs();
+            // neither is read again
+            Files.delete(pet);
+            wireMockServer.resetAll();
+
+            Schema resolved = cache.loadRef("./pet.yaml", RefFormat.RELATIVE, Schema.class);
+            assertNotNull(resolved);
+            assertNotNull(resolved.getProperties().get("category"));
+            assertNotNull(cache.loadRef(url("/api/models/category.yaml"), RefFormat.URL, Schema.class));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testResolverUsesPrefetchedDocuments30() {
+        ParseOptions options = prefetchOptions(8, 2);
+        options.setResolve(true);
+
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(url("/api/openapi30.yaml"), null, options);
+
+        OpenAPI openAPI = result.getOpenAPI();
+        assertNotNull(openAPI, String.valueOf(result.getMessages()));
+        assertNotNull(openAPI.getComponents().getSchemas().get("pet"));
+        assertNotNull(openAPI.getComponents().getSchemas().get("category"));
+        assertRequestedOnce();
+    }
+
+    @Test
+    public void testDereferencerUsesPrefetchedDocuments31() {
+        ParseOptions options = prefetchOptions(8, 2);
+        options.setResolve(true);
+
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(url("/api/openapi31.yaml"), null, options);
+
+        OpenAPI openAPI = result.getOpenAPI();
+        assertNotNull(openAPI, String.valueOf(result.getMessages()));
+        Schema pet = openAPI.getPaths().get("/pets").getGet().getResponses().get("200")
+                .getContent().get("application/json").getSchema();
+        assertNotNull(((Schema) pet.getProperties().get("category")).getProperties().get("id"));
+        assertRequestedOnce();
+    }
+
+    private void assertRequestedOnce() {
+        for (String path : new String[]{"/api/models/pet.yaml", "/api/models/category.yaml", "/api/models/error.yaml", "/api/models/tag.yaml"}) {
+            wireMockServer.verify(1, getRequestedFor(urlPathEqualTo(path)));
+        }
+    }
+}
@@ -1510,4 +1510,32 @@ public class InlineModelResolverTest {
 
     }
 
+    @Test
+    public void testManyInlineResponsesGetSequentialNames() {
+        OpenAPI openAPI = new OpenAPI();
+        openAPI.setComponents(new Components());
+        openAPI.getComponents().addSchemas("inline_response_200_2", new StringSchema());
+        openAPI.getComponents().addSchemas("Inline_Response_200_3", new StringSchema());
+        openAPI.setPaths(new io.swagger.v3.oas.models.Paths());
+        int operations = 3000;
+        for (int i = 0; i < operations; i++) {
+            Schema schema = new ObjectSchema().addProperties("field" + i, new StringSchema());
+            openAPI.getPaths().addPathItem("/path" + i, new PathItem().get(new Operation().responses(new ApiResponses()
+                    .addApiResponse("200", new ApiResponse().content(new Content()
+                            .addMediaType("application/json", new MediaType().schema(schema)))))));
+        }
+
+        new InlineModelResolver().flatten(openAPI);
+
+        Map<String, Schema> schemas = openAPI.getComponents().getSchemas();
+        assertEquals(operations + 2, schemas.size());
+        assertEquals("#/components/schemas/inline_response_200", ((Schema) openAPI.getPaths().get("/path0").getGet()
+                .getResponses().get("200").getContent().get("application/json").getSchema()).get$ref());
+        assertEquals("#/components/schemas/inline_response_200_1", ((Schema) openAPI.getPaths().get("/path1").getGet()
+                .getResponses().get("200").getContent().get("application/json").getSchema()).get$ref());
+        assertEquals("#/components/schemas/inline_response_200_3", ((Schema) openAPI.getPaths().get("/path2").getGet()
+                .getResponses().get("200").getContent().get("application/json").getSchema()).get$ref());
+        assertNotNull(schemas.get("inline_response_200_" + operations).getProperties().get("field" + (operations - 1)));
+    }
+
 }
@@ -0,0 +1,223 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.ResolverCache;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.extensions.JsonSchemaParserExtension;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class JsonSchemaParserExtensionTest {
+
+    private static final String SPEC = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"pets\",\"version\":\"1\"},"
+            + "\"paths\":{\"/pets\":{\"get\":{\"responses\":{\"200\":{\"description\":\"ok\",\"content\":{\"application/json\":"
+            + "{\"schema\":{\"$ref\":\"#/components/schemas/Pet\"}}}}}}}},"
+            + "\"components\":{\"schemas\":{\"Pet\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}},"
+            + "\"Tag\":{\"type\":\"string\",\"x-order\":[1,2.5,null,true]}}}}";
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("extensions");
+        RecordingExtension.rootMaps.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Test(description = "the root map is not converted when no extension reads it")
+    public void testRootMapNotConvertedWithoutExtension() throws Exception {
+        CountingNode root = countingRoot();
+
+        SwaggerParseResult result = new OpenAPIDeserializer().deserialize(root);
+
+        assertNotNull(result.getOpenAPI());
+        assertEquals(result.getOpenAPI().getComponents().getSchemas().size(), 2);
+        assertEquals(root.serialized, 0);
+
+        new ObjectMapper().convertValue(root, Map.class);
+        assertEquals(root.serialized, 1);
+    }
+
+    @Test(description = "extensions see the root map converted once, with the entries of the eager conversion")
+    public void testExtensionSeesRootEntries() throws Exception {
+        CountingNode root = countingRoot();
+        Map<?, ?> expected = new ObjectMapper().convertValue(Json.mapper().readTree(SPEC), Map.class);
+
+        withContextClassLoader(extensionLoader(RecordingExtension.class), () -> new OpenAPIDeserializer().deserialize(root));
+
+        assertEquals(RecordingExtension.rootMaps.size(), 4);
+        for (Map<String, Object> rootMap : RecordingExtension.rootMaps) {
+            assertEquals(rootMap, expected);
+        }
+        assertEquals(root.serialized, 1);
+    }
+
+    @Test(description = "extensions registered while other threads deserialize are found by the threads using them")
+    public void testRegisterWhileDeserializing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> titles = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+            // more class loaders than the registry keeps, so that loaders are also evicted meanwhile
+            for (int i = 0; i < 48; i++) {
+                ClassLoader loader = i % 2 == 0 ? extensionLoader(TitleExtension.class) : extensionLoader();
+                expected.add(i % 2 == 0 ? TitleExtension.TITLE : null);
+                titles.add(executor.submit(() -> withContextClassLoader(loader, () -> {
+                    String title = null;
+                    for (int parse = 0; parse < 5; parse++) {
+                        OpenAPI openAPI = new OpenAPIDeserializer().deserialize(Json.mapper().readTree(SPEC)).getOpenAPI();
+                        title = openAPI.getComponents().getSchemas().get("Pet").getTitle();
+                    }
+                    return title;
+                })));
+            }
+            for (int i = 0; i < titles.size(); i++) {
+                assertEquals(titles.get(i).get(), expected.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(description = "the extensions of a class loader are looked up once, and never copied nor modified")
+    public void testExtensionListsNotCopied() throws Exception {
+        List<JsonSchemaParserExtension> empty = OpenAPIDeserializer.getJsonSchemaParserExtensions();
+        assertTrue(empty.isEmpty());
+
+        ClassLoader loader = extensionLoader(TitleExtension.class, RecordingExtension.class);
+        withContextClassLoader(loader, () -> {
+            List<JsonSchemaParserExtension> extensions = OpenAPIDeserializer.getJsonSchemaParserExtensions();
+            assertEquals(extensions.size(), 2);
+            assertTrue(extensions.get(0) instanceof TitleExtension);
+            assertTrue(extensions.get(1) instanceof RecordingExtension);
+            for (int i = 0; i < 10; i++) {
+                new OpenAPIDeserializer().deserialize(Json.mapper().readTree(SPEC));
+                assertSame(OpenAPIDeserializer.getJsonSchemaParserExtensions(), extensions);
+            }
+            assertEquals(extensions.size(), 2);
+            try {
+                extensions.add(new TitleExtension());
+                fail("the extensions of a class loader are shared, and can't be modified");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            return null;
+        });
+
+        assertSame(OpenAPIDeserializer.getJsonSchemaParserExtensions(), empty);
+        assertTrue(empty.isEmpty());
+        assertNull(new OpenAPIDeserializer().deserialize(Json.mapper().readTree(SPEC))
+                .getOpenAPI().getComponents().getSchemas().get("Pet").getTitle());
+    }
+
+    private static CountingNode countingRoot() throws IOException {
+        CountingNode root = new CountingNode();
+        root.setAll((ObjectNode) Json.mapper().readTree(SPEC));
+        return root;
+    }
+
+    /**
+     * A class loader registering the given extensions, loaded by the class loader of this test.
+     */
+    private ClassLoader extensionLoader(Class<?>... extensions) throws IOException {
+        Path root = Files.createTempDirectory(dir, "loader");
+        StringBuilder services = new StringBuilder();
+        for (Class<?> extension : extensions) {
+            services.append(extension.getName()).append('\n');
+        }
+        Path file = root.resolve("META-INF/services/" + JsonSchemaParserExtension.class.getName());
+        Files.createDirectories(file.getParent());
+        Files.write(file, services.toString().getBytes(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{root.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static <T> T withContextClassLoader(ClassLoader loader, Callable<T> callable) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            return callable.call();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    static class CountingNode extends ObjectNode {
+        int serialized;
+
+        CountingNode() {
+            super(JsonNodeFactory.instance);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            serialized++;
+            super.serialize(generator, provider);
+        }
+    }
+
+    public static class TitleExtension implements JsonSchemaParserExtension {
+        static final String TITLE = "from extension";
+
+        @Override
+        public Schema getSchema(JsonNode node, String location, OpenAPIDeserializer.ParseResult result, Map<String, Object> rootMap, String basePath) {
+            return node.has("properties") ? new Schema().title(TITLE) : null;
+        }
+
+        @Override
+        public boolean resolveSchema(Schema schema, ResolverCache cache, OpenAPI openAPI, boolean openapi31) {
+            return false;
+        }
+    }
+
+    public static class RecordingExtension implements JsonSchemaParserExtension {
+        static final List<Map<String, Object>> rootMaps = new ArrayList<>();
+
+        @Override
+        public Schema getSchema(JsonNode node, String location, OpenAPIDeserializer.ParseResult result, Map<String, Object> rootMap, String basePath) {
+            rootMaps.add(new LinkedHashMap<>(rootMap));
+            return null;
+        }
+
+        @Override
+        public boolean resolveSchema(Schema schema, ResolverCache cache, OpenAPI openAPI, boolean openapi31) {
+            return false;
+        }
+    }
+}
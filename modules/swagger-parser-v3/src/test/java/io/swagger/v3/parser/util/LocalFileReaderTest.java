@@ -0,0 +1,122 @@
+package io.swagger.v3.parser.util;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class LocalFileReaderTest {
+
+    @Test
+    public void testSmallFileIsReadIntoArray() throws Exception {
+        Path path = Paths.get("src/test/resources/3.1.0/basic.yaml");
+
+        ByteBuffer contents = LocalFileReader.read(path);
+
+        assertTrue(contents.hasArray());
+        assertEquals(contents.remaining(), Files.size(path));
+        assertEquals(LocalFileReader.readToString(path, StandardCharsets.UTF_8),
+                FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLargeFileIsReadIntoArray() throws Exception {
+        Path path = Paths.get("src/test/resources/issue2059/largeFile.yaml");
+
+        ByteBuffer contents = LocalFileReader.read(path);
+
+        assertTrue(contents.hasArray());
+        assertEquals(contents.remaining(), Files.size(path));
+        assertEquals(LocalFileReader.readToString(path, StandardCharsets.UTF_8),
+                FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8));
+    }
+
+    @Test(description = "files are released once read, so that they can be regenerated in place or deleted, even on Windows")
+    public void testFileReleasedAfterRead() throws Exception {
+        Path path = Files.createTempFile("large", ".json");
+        try {
+            Files.write(path, ("{\"openapi\": \"3.0.1\", \"info\": {\"title\": \"large\", \"version\": \"1\"}, \"paths\": {},\n" +
+                    "\"components\": {\"schemas\": {\n" + paddingSchemas() + "\n}}}").getBytes(StandardCharsets.UTF_8));
+            assertNotNull(new OpenAPIV3Parser().readPath(path, null, new ParseOptions()).getOpenAPI());
+
+            Files.write(path, "openapi: 3.0.1\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals(LocalFileReader.readToString(path, StandardCharsets.UTF_8), "openapi: 3.0.1\n");
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @DataProvider
+    public Object[][] versions() {
+        return new Object[][]{
+                {"3.0.3"},
+                {"3.1.0"},
+        };
+    }
+
+    @Test(dataProvider = "versions")
+    public void testLargeSpecWithRelativeRefs(String version) throws Exception {
+        File dir = Files.createTempDirectory("large").toFile();
+        try {
+            String schemas = paddingSchemas();
+            FileUtils.writeStringToFile(new File(dir, "domain.json"),
+                    "{\n\"components\": {\"schemas\": {\n" + schemas + ",\n" +
+                            "    \"Pet\": {\"type\": \"object\", \"properties\": {\"name\": {\"type\": \"string\"}}}\n}}}",
+                    StandardCharsets.UTF_8);
+            FileUtils.writeStringToFile(new File(dir, "root.yaml"),
+                    "openapi: " + version + "\n" +
+                            "info:\n  title: large\n  version: '1'\n" +
+                            "paths:\n  /pets:\n    get:\n      responses:\n        '200':\n" +
+                            "          description: ok\n          content:\n            application/json:\n" +
+                            "              schema:\n                $ref: './domain.json#/components/schemas/Pet'\n",
+                    StandardCharsets.UTF_8);
+
+            ParseOptions options = new ParseOptions();
+            options.setResolve(true);
+            String location = new File(dir, "root.yaml").getAbsolutePath();
+            SwaggerParseResult result = new OpenAPIV3Parser().readLocation(location, null, options);
+            SwaggerParseResult fromPath = new OpenAPIV3Parser().readPath(Paths.get(location), null, options);
+
+            OpenAPI openAPI = result.getOpenAPI();
+            assertNotNull(openAPI, String.valueOf(result.getMessages()));
+            Schema schema = openAPI.getPaths().get("/pets").getGet().getResponses().get("200")
+                    .getContent().get("application/json").getSchema();
+            if (version.startsWith("3.1")) {
+                assertNotNull(schema.getProperties().get("name"));
+            } else {
+                assertEquals(schema.get$ref(), "#/components/schemas/Pet");
+                assertNotNull(openAPI.getComponents().getSchemas().get("Pet").getProperties().get("name"));
+            }
+            assertEquals(fromPath.getOpenAPI(), openAPI);
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private static String paddingSchemas() {
+        StringBuilder schemas = new StringBuilder();
+        while (schemas.length() < 256 * 1024) {
+            if (schemas.length() > 0) {
+                schemas.append(",\n");
+            }
+            schemas.append("    \"Padding").append(schemas.length())
+                    .append("\": {\"type\": \"object\", \"description\": \"padding to make a large file\"}");
+        }
+        return schemas.toString();
+    }
+}
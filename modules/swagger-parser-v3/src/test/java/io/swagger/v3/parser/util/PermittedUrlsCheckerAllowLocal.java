@@ -1,10 +1,19 @@
 package io.swagger.v3.parser.util;
 
 import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
 
 import java.net.InetAddress;
 
 class PermittedUrlsCheckerAllowLocal extends PermittedUrlsChecker {
+
+    PermittedUrlsCheckerAllowLocal() {
+    }
+
+    PermittedUrlsCheckerAllowLocal(HostAddressCache hostAddressCache) {
+        super(null, null, hostAddressCache);
+    }
+
     @Override
     protected boolean isRestrictedIpRange(InetAddress ip) {
         // Allow all IPs for testing purposes
@@ -0,0 +1,208 @@
+package io.swagger.v3.parser.util;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class RemoteUrlCacheTest {
+
+    private static final String BODY = "openapi: 3.0.3\n";
+
+    private WireMockServer wireMockServer;
+    private Path cacheDir;
+
+    @BeforeClass
+    public void startServer() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        wireMockServer.start();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        wireMockServer.stop();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        wireMockServer.resetAll();
+        cacheDir = Files.createTempDirectory("remote-url-cache");
+        System.setProperty(RemoteUrlCache.CACHE_DIR, cacheDir.toString());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        System.clearProperty(RemoteUrlCache.CACHE_DIR);
+        System.clearProperty(RemoteUrlCache.CACHE_OFFLINE);
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    private String url() {
+        return "http://localhost:" + wireMockServer.port() + "/spec.yaml";
+    }
+
+    private void stub(String cacheControl) {
+        wireMockServer.stubFor(get(urlEqualTo("/spec.yaml"))
+                .willReturn(aResponse()
+                        .withBody(BODY)
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT")
+                        .withHeader("Cache-Control", cacheControl)));
+    }
+
+    @Test
+    public void testFreshEntryIsServedWithoutRequest() throws Exception {
+        stub("max-age=3600");
+
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/spec.yaml")));
+    }
+
+    @Test
+    public void testStaleEntryIsRevalidated() throws Exception {
+        stub("no-cache");
+        wireMockServer.stubFor(get(urlEqualTo("/spec.yaml"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .withHeader("If-Modified-Since", equalTo("Wed, 21 Oct 2015 07:28:00 GMT"))
+                .willReturn(aResponse().withStatus(304)));
+
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/spec.yaml")).withHeader("If-None-Match", absent()));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/spec.yaml")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    public void testChangedDocumentReplacesEntry() throws Exception {
+        stub("no-cache");
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+
+        wireMockServer.stubFor(get(urlEqualTo("/spec.yaml"))
+                .willReturn(aResponse().withBody("openapi: 3.1.0\n").withHeader("ETag", "\"v2\"")));
+
+        assertEquals(RemoteUrl.urlToString(url(), null), "openapi: 3.1.0\n");
+        System.setProperty(RemoteUrlCache.CACHE_OFFLINE, "true");
+        assertEquals(RemoteUrl.urlToString(url(), null), "openapi: 3.1.0\n");
+    }
+
+    @Test
+    public void testOfflineMode() throws Exception {
+        stub("no-cache");
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+        wireMockServer.resetAll();
+
+        System.setProperty(RemoteUrlCache.CACHE_OFFLINE, "true");
+        assertEquals(RemoteUrl.urlToString(url(), null), BODY);
+        try {
+            RemoteUrl.urlToString(url() + "?other", null);
+            fail("Documents missing from the cache can't be read offline");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("offline mode"));
+        }
+        wireMockServer.verify(0, getRequestedFor(urlEqualTo("/spec.yaml")));
+    }
+
+    @Test
+    public void testEntriesAreKeyedByAuthorization() throws Exception {
+        stub("max-age=3600");
+        List<AuthorizationValue> first = Collections.singletonList(
+                new AuthorizationValue("Authorization", "first", "header", u -> true));
+        List<AuthorizationValue> second = Collections.singletonList(
+                new AuthorizationValue("Authorization", "second", "header", u -> true));
+
+        RemoteUrl.urlToString(url(), first);
+        RemoteUrl.urlToString(url(), second);
+        RemoteUrl.urlToString(url(), first);
+
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/spec.yaml")));
+        // both entries share the body, which is stored once
+        assertEquals(new File(cacheDir.toFile(), "entries").list().length, 2);
+        assertEquals(new File(cacheDir.toFile(), "objects").list().length, 1);
+        assertTrue(FileUtils.readFileToString(new File(new File(cacheDir.toFile(), "entries"),
+                new File(cacheDir.toFile(), "entries").list()[0]), "UTF-8").contains("spec.yaml"));
+    }
+
+    @Test
+    public void testDeclinedAuthorizationDoesNotSplitEntries() throws Exception {
+        stub("max-age=3600");
+        List<AuthorizationValue> declined = Collections.singletonList(new DeclinedValue());
+
+        RemoteUrl.urlToString(url(), null);
+        RemoteUrl.urlToString(url(), declined);
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/spec.yaml")));
+    }
+
+    @Test
+    public void testRedirectedResponseIsNotCached() throws Exception {
+        stub("max-age=3600");
+        wireMockServer.stubFor(get(urlEqualTo("/old.yaml"))
+                .willReturn(aResponse().withStatus(302).withHeader("Location", "/spec.yaml")));
+        String oldUrl = "http://localhost:" + wireMockServer.port() + "/old.yaml";
+
+        assertEquals(RemoteUrl.urlToString(oldUrl, null), BODY);
+        assertEquals(RemoteUrl.urlToString(oldUrl, null), BODY);
+
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/old.yaml")));
+        assertTrue(!new File(cacheDir.toFile(), "entries").exists());
+    }
+
+    @Test
+    public void testNoStoreIsNotCached() throws Exception {
+        stub("no-store");
+
+        RemoteUrl.urlToString(url(), null);
+        RemoteUrl.urlToString(url(), null);
+
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/spec.yaml")));
+        assertTrue(!new File(cacheDir.toFile(), "entries").exists());
+    }
+
+    @Test
+    public void testExpires() {
+        RemoteUrlCache cache = new RemoteUrlCache(cacheDir, false, () -> 1000L);
+
+        assertEquals(cache.expires(null), 1000L);
+        assertEquals(cache.expires("public, max-age=60"), 61000L);
+        assertEquals(cache.expires("max-age=60, no-cache"), 1000L);
+        assertEquals(cache.expires("max-age=soon"), 1000L);
+    }
+
+    static class DeclinedValue extends AuthorizationValue implements ManagedValue {
+
+        DeclinedValue() {
+            super("Authorization", "declined", "header", u -> true);
+        }
+
+        @Override
+        public boolean process(URL url) {
+            return false;
+        }
+    }
+}
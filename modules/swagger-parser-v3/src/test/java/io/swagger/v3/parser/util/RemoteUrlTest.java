@@ -5,19 +5,32 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.urlresolver.PermittedUrlsChecker;
 import io.swagger.v3.parser.urlresolver.exceptions.HostDeniedException;
+import io.swagger.v3.parser.urlresolver.models.ResolvedUrl;
+import io.swagger.v3.parser.urlresolver.utils.HostAddressCache;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import javax.net.ssl.HttpsURLConnection;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
 import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
@@ -27,7 +40,9 @@ import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static io.swagger.v3.parser.util.RemoteUrl.CONNECTION_TIMEOUT;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class RemoteUrlTest {
 
@@ -212,4 +227,258 @@ public class RemoteUrlTest {
 
         RemoteUrl.urlToString(startUrl, null, new PermittedUrlsCheckerAllowLocal());
     }
+
+    @Test
+    public void testAcceptEncodingHeader() throws Exception {
+        setupStub();
+
+        RemoteUrl.urlToString(getUrl(), null);
+
+        verify(getRequestedFor(urlEqualTo("/v2/pet/1"))
+                .withHeader("Accept-Encoding", equalTo("gzip, deflate")));
+    }
+
+    @DataProvider
+    public Object[][] encodings() {
+        return new Object[][]{
+                {"gzip"},
+                {"deflate"},
+                {"raw-deflate"},
+        };
+    }
+
+    @Test(dataProvider = "encodings")
+    public void testCompressedResponse(String encoding) throws Exception {
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            body.append("line ").append(i).append(": a really good body\n");
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(encoding) ? new GZIPOutputStream(compressed) :
+                new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, "raw-deflate".equals(encoding)))) {
+            out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        stubFor(get(urlEqualTo("/v2/pet/1"))
+                .willReturn(aResponse()
+                        .withBody(compressed.toByteArray())
+                        .withHeader("Content-Type", "application/yaml")
+                        .withHeader("Content-Encoding", encoding.replace("raw-", ""))
+                ));
+
+        assertEquals(RemoteUrl.urlToString(getUrl(), null), body.toString());
+    }
+
+    @Test
+    public void testControlCharactersAreDropped() throws Exception {
+        stubFor(get(urlEqualTo("/v2/pet/1"))
+                .willReturn(aResponse()
+                        .withBody("a:\r\n  b: \u0000c\td\n")
+                        .withHeader("Content-Type", "application/yaml")
+                ));
+
+        assertEquals(RemoteUrl.urlToString(getUrl(), null), "a:\n  b: cd\n");
+    }
+
+    @Test
+    public void testAppendWithoutControlChars() {
+        final char[] chunk = "\u0001ab\rc\n\u007fd\u0085".toCharArray();
+        final StringBuilder contents = new StringBuilder("x");
+
+        RemoteUrl.appendWithoutControlChars(contents, chunk, chunk.length - 1);
+
+        assertEquals(contents.toString(), "xabc\nd");
+    }
+
+    @Test
+    public void testInitialCapacityCapped() {
+        assertEquals(RemoteUrl.initialCapacity(-1, 0), 8192);
+        assertEquals(RemoteUrl.initialCapacity(0, 0), 8192);
+        assertEquals(RemoteUrl.initialCapacity(1000, 0), 1000);
+        assertEquals(RemoteUrl.initialCapacity(2_000_000_000L, 0), 1 << 20);
+        assertEquals(RemoteUrl.initialCapacity(2_000_000_000L, 4096), 4096);
+        assertEquals(RemoteUrl.initialCapacity(2_000_000_000L, 10_000_000), 1 << 20);
+    }
+
+    @Test
+    public void testMaxBodySizeEnforced() throws Exception {
+        final String property = "io.swagger.v3.parser.util.RemoteUrl.maxBodySize";
+        final char[] body = new char[4096];
+        Arrays.fill(body, 'a');
+        stubFor(get(urlEqualTo("/v2/pet/1"))
+                .willReturn(aResponse()
+                        .withBody(new String(body))
+                        .withHeader("Content-Type", "application/yaml")
+                ));
+
+        System.setProperty(property, "4096");
+        try {
+            assertEquals(RemoteUrl.urlToString(getUrl(), null).length(), 4096);
+
+            System.setProperty(property, "4095");
+            RemoteUrl.urlToString(getUrl(), null);
+            fail("Body larger than the maximum size should not be read");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("exceeds the maximum size of 4095 bytes"), e.getMessage());
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    /**
+     * Resolves every host to the loopback address, so that a host only reachable through the verified address can
+     * stand for one resolving differently when connecting.
+     */
+    private static HostAddressCache loopbackAddressCache() {
+        return new HostAddressCache(HostAddressCache.DEFAULT_TTL_MILLIS, host -> InetAddress.getByName("127.0.0.1"),
+                System::currentTimeMillis);
+    }
+
+    @Test
+    public void testHttpConnectsToVerifiedAddress() throws Exception {
+        WireMockServer httpServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        httpServer.start();
+        try {
+            httpServer.stubFor(get(urlEqualTo("/v2/pet/1")).willReturn(aResponse().withBody("pinned")));
+            String url = "http://pinned.invalid:" + httpServer.port() + "/v2/pet/1";
+            PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+
+            checker.verify(url);
+            assertEquals(RemoteUrl.urlToString(url, null, checker), "pinned");
+
+            httpServer.verify(getRequestedFor(urlEqualTo("/v2/pet/1"))
+                    .withHeader("Host", equalTo("pinned.invalid:" + httpServer.port())));
+        } finally {
+            httpServer.stop();
+        }
+    }
+
+    @Test
+    public void testRedirectConnectsToVerifiedAddress() throws Exception {
+        WireMockServer httpServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        httpServer.start();
+        try {
+            String target = "http://pinned.invalid:" + httpServer.port() + "/v2/pet/1";
+            httpServer.stubFor(get(urlEqualTo("/redirect"))
+                    .willReturn(aResponse().withStatus(302).withHeader("Location", target)));
+            httpServer.stubFor(get(urlEqualTo("/v2/pet/1")).willReturn(aResponse().withBody("pinned")));
+
+            String startUrl = "http://127.0.0.1:" + httpServer.port() + "/redirect";
+            PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+
+            checker.verify(startUrl);
+            assertEquals(RemoteUrl.urlToString(startUrl, null, checker), "pinned");
+        } finally {
+            httpServer.stop();
+        }
+    }
+
+    @Test
+    public void testRelativeRedirectFromVerifiedUrl() throws Exception {
+        WireMockServer httpServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        httpServer.start();
+        try {
+            httpServer.stubFor(get(urlEqualTo("/redirect"))
+                    .willReturn(aResponse().withStatus(301).withHeader("Location", "/v3/openapi.json")));
+            httpServer.stubFor(get(urlEqualTo("/v3/openapi.json")).willReturn(aResponse().withBody("relative")));
+
+            String startUrl = "http://pinned.invalid:" + httpServer.port() + "/redirect";
+            PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+
+            checker.verify(startUrl);
+            assertEquals(RemoteUrl.urlToString(startUrl, null, checker), "relative");
+
+            httpServer.verify(getRequestedFor(urlEqualTo("/v3/openapi.json"))
+                    .withHeader("Host", equalTo("pinned.invalid:" + httpServer.port())));
+        } finally {
+            httpServer.stop();
+        }
+    }
+
+    @Test
+    public void testConditionalHeadersOnlySentToFirstUrl() throws Exception {
+        WireMockServer httpServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        httpServer.start();
+        try {
+            httpServer.stubFor(get(urlEqualTo("/redirect"))
+                    .willReturn(aResponse().withStatus(302).withHeader("Location", "/v3/openapi.json")));
+            httpServer.stubFor(get(urlEqualTo("/v3/openapi.json")).willReturn(aResponse().withBody("moved")));
+
+            String startUrl = "http://127.0.0.1:" + httpServer.port() + "/redirect";
+            PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+            checker.verify(startUrl);
+
+            RemoteUrl.Response response = RemoteUrl.fetch(startUrl, null, checker,
+                    Collections.singletonMap("If-None-Match", "\"v1\""));
+
+            assertEquals(response.getBody(), "moved");
+            httpServer.verify(getRequestedFor(urlEqualTo("/redirect")).withHeader("If-None-Match", equalTo("\"v1\"")));
+            httpServer.verify(getRequestedFor(urlEqualTo("/v3/openapi.json")).withHeader("If-None-Match", absent()));
+        } finally {
+            httpServer.stop();
+        }
+    }
+
+    @Test
+    public void testHttpsConnectsToVerifiedAddress() throws Exception {
+        final String expectedBody = setupStub();
+        PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+
+        checker.verify(getUrl());
+        assertEquals(RemoteUrl.urlToString(getUrl(), null, checker), expectedBody);
+
+        verify(getRequestedFor(urlEqualTo("/v2/pet/1"))
+                .withHeader("Host", equalTo(LOCALHOST + ":" + WIRE_MOCK_PORT)));
+    }
+
+    @Test
+    public void testHttpsConnectsToVerifiedAddressWithoutResolvingHost() throws Exception {
+        final String expectedBody = setupStub();
+        String url = "https://pinned.invalid:" + WIRE_MOCK_PORT + "/v2/pet/1";
+        PermittedUrlsChecker checker = new PermittedUrlsCheckerAllowLocal(loopbackAddressCache());
+
+        checker.verify(url);
+        assertEquals(RemoteUrl.urlToString(url, null, checker), expectedBody);
+
+        verify(getRequestedFor(urlEqualTo("/v2/pet/1"))
+                .withHeader("Host", equalTo("pinned.invalid:" + WIRE_MOCK_PORT)));
+    }
+
+    @Test
+    public void testUnverifiedUrlVerifiedBeforeFetch() throws Exception {
+        final String expectedBody = setupStub();
+        String url = "https://pinned.invalid:" + WIRE_MOCK_PORT + "/v2/pet/1";
+
+        // not verified by the caller, or expired since: verified and pinned by the fetch
+        assertEquals(RemoteUrl.urlToString(url, null, new PermittedUrlsCheckerAllowLocal(loopbackAddressCache())), expectedBody);
+
+        try {
+            RemoteUrl.urlToString(url, null, new PermittedUrlsChecker(null, null, loopbackAddressCache()));
+            fail("an unverified url is verified, and not fetched if denied");
+        } catch (HostDeniedException e) {
+            assertTrue(e.getMessage().contains("IP is restricted"));
+        }
+        verify(1, getRequestedFor(urlEqualTo("/v2/pet/1")));
+    }
+
+    @Test
+    public void testPinnedSocketFactoriesBounded() throws Exception {
+        URL url = new URL(getUrl());
+        for (int i = 0; i < 300; i++) {
+            HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
+            AddressPinning.pinTls(connection, new ResolvedUrl(getUrl(), LOCALHOST,
+                    InetAddress.getByAddress(new byte[]{127, 0, (byte) (i >> 8), (byte) i})));
+            assertTrue(AddressPinning.factoryCount() <= 256);
+        }
+    }
+
+    @Test
+    public void testPinnableOnlyForResolvedHostnames() throws Exception {
+        ResolvedUrl resolved = new ResolvedUrl("http://127.0.0.1/a", "example.com", InetAddress.getByName("127.0.0.1"));
+
+        assertEquals(AddressPinning.pinnable(new URL("http://example.com/a"), resolved), resolved);
+        assertNull(AddressPinning.pinnable(new URL("http://127.0.0.1/a"), resolved));
+        assertNull(AddressPinning.pinnable(new URL("http://[::1]/a"), resolved));
+        assertNull(AddressPinning.pinnable(new URL("http://example.com/a"), new ResolvedUrl("http://example.com/a", "example.com")));
+        assertNull(AddressPinning.pinnable(new URL("http://example.com/a"), null));
+    }
 }
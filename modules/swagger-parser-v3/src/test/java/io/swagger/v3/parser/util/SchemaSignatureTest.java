@@ -0,0 +1,199 @@
+package io.swagger.v3.parser.util;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SchemaSignatureTest {
+
+    @Test
+    public void testEqualForSameJson() {
+        Schema first = new ObjectSchema().addProperty("id", new StringSchema()).description("pet");
+        Schema second = new Schema().type("object").addProperty("id", new Schema().type("string")).description("pet");
+        second.setName("ignored");
+
+        assertEquals(SchemaSignature.of(first), SchemaSignature.of(second));
+        assertEquals(SchemaSignature.of(first).hashCode(), SchemaSignature.of(second).hashCode());
+        assertEquals(Json.pretty(first), Json.pretty(second));
+    }
+
+    @Test
+    public void testPropertyOrderMatters() {
+        Schema first = new ObjectSchema().addProperty("a", new StringSchema()).addProperty("b", new StringSchema());
+        Schema second = new ObjectSchema().addProperty("b", new StringSchema()).addProperty("a", new StringSchema());
+
+        assertNotEquals(SchemaSignature.of(first), SchemaSignature.of(second));
+    }
+
+    @Test
+    public void testReferenceIsComparedOnItsOwn() {
+        Schema first = new Schema().$ref("Pet").description("one");
+        Schema second = new Schema().$ref("Pet").description("two");
+
+        assertEquals(SchemaSignature.of(first), SchemaSignature.of(second));
+        assertNotEquals(SchemaSignature.of(first), SchemaSignature.of(new Schema().$ref("Tag")));
+    }
+
+    @Test
+    public void testExplicitNullExample() {
+        Schema withNull = new StringSchema();
+        withNull.setExample(null);
+
+        assertNotEquals(SchemaSignature.of(withNull), SchemaSignature.of(new StringSchema()));
+    }
+
+    @Test
+    public void testExamplesCompareAsJson() {
+        ObjectNode node = JsonNodeFactory.instance.objectNode().put("a", 1).put("b", "x");
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", "x");
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("b", "x");
+        reversed.put("a", 1);
+
+        assertEquals(SchemaSignature.of(new Schema().example(node)), SchemaSignature.of(new Schema().example(map)));
+        assertEquals(Json.pretty(new Schema().example(node)), Json.pretty(new Schema().example(map)));
+        assertNotEquals(SchemaSignature.of(new Schema().example(map)), SchemaSignature.of(new Schema().example(reversed)));
+        assertNotEquals(SchemaSignature.of(new StringSchema().example("1")), SchemaSignature.of(new Schema().example(1)));
+    }
+
+    @Test
+    public void testSignatureIsASnapshot() {
+        Schema schema = new ObjectSchema().addProperty("id", new StringSchema());
+        SchemaSignature before = SchemaSignature.of(schema);
+
+        schema.addProperty("name", new StringSchema());
+
+        assertNotEquals(SchemaSignature.of(schema), before);
+        assertEquals(SchemaSignature.of(new ObjectSchema().addProperty("id", new StringSchema())), before);
+    }
+
+    @Test
+    public void testSharedSubSchemas() {
+        Schema shared = new ObjectSchema().addProperty("id", new StringSchema());
+        Schema schema = new ObjectSchema().addProperty("a", shared).addProperty("b", new ArraySchema().items(shared));
+        Schema copy = new ObjectSchema()
+                .addProperty("a", new ObjectSchema().addProperty("id", new StringSchema()))
+                .addProperty("b", new ArraySchema().items(new ObjectSchema().addProperty("id", new StringSchema())));
+
+        assertEquals(SchemaSignature.of(schema), SchemaSignature.of(copy));
+    }
+
+    @Test
+    public void testNoSignatureForCycles() {
+        Schema node = new ObjectSchema();
+        node.addProperty("next", node);
+
+        assertNull(SchemaSignature.of(node));
+    }
+
+    @DataProvider
+    public Object[][] specs() {
+        return new Object[][]{
+                {"flatten.json"},
+                {"flattenComposedSchemaComplete.json"},
+                {"flattenArrayItems.yaml"},
+                {"3.1.0/petstore-3.1_more.yaml"},
+                {"petstore-codegen.yaml"}
+        };
+    }
+
+    @Test(dataProvider = "specs")
+    public void testGroupsSchemasLikeTheirJson(String location) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        OpenAPI openAPI = new OpenAPIV3Parser().read(location, null, options);
+        assertNotNull(openAPI);
+        List<Schema> schemas = collect(openAPI);
+
+        Map<String, Set<Integer>> byJson = new HashMap<>();
+        Map<SchemaSignature, Set<Integer>> bySignature = new HashMap<>();
+        for (int i = 0; i < schemas.size(); i++) {
+            byJson.computeIfAbsent(Json.pretty(schemas.get(i)), k -> new HashSet<>()).add(i);
+            bySignature.computeIfAbsent(SchemaSignature.of(schemas.get(i)), k -> new HashSet<>()).add(i);
+        }
+
+        assertEquals(new HashSet<>(bySignature.values()), new HashSet<>(byJson.values()));
+    }
+
+    private static List<Schema> collect(OpenAPI openAPI) {
+        Set<Schema> schemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+            openAPI.getComponents().getSchemas().values().forEach(schema -> collect(schema, schemas));
+        }
+        if (openAPI.getPaths() != null) {
+            for (PathItem path : openAPI.getPaths().values()) {
+                for (Operation operation : path.readOperations()) {
+                    if (operation.getParameters() != null) {
+                        for (Parameter parameter : operation.getParameters()) {
+                            collect(parameter.getSchema(), schemas);
+                        }
+                    }
+                    if (operation.getRequestBody() != null && operation.getRequestBody().getContent() != null) {
+                        operation.getRequestBody().getContent().values().forEach(media -> collect(media.getSchema(), schemas));
+                    }
+                    if (operation.getResponses() != null) {
+                        for (ApiResponse response : operation.getResponses().values()) {
+                            if (response.getContent() != null) {
+                                for (MediaType media : response.getContent().values()) {
+                                    collect(media.getSchema(), schemas);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(schemas);
+    }
+
+    private static void collect(Schema schema, Set<Schema> schemas) {
+        if (schema == null || !schemas.add(schema)) {
+            return;
+        }
+        if (schema.getProperties() != null) {
+            ((Map<String, Schema>) schema.getProperties()).values().forEach(property -> collect(property, schemas));
+        }
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            collect((Schema) schema.getAdditionalProperties(), schemas);
+        }
+        collect(schema.getItems(), schemas);
+        collect(schema.getNot(), schemas);
+        for (List<Schema> composed : new List[]{schema.getAllOf(), schema.getAnyOf(), schema.getOneOf()}) {
+            if (composed != null) {
+                composed.forEach(item -> collect(item, schemas));
+            }
+        }
+    }
+}
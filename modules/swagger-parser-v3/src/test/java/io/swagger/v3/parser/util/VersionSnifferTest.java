@@ -0,0 +1,62 @@
+package io.swagger.v3.parser.util;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class VersionSnifferTest {
+
+    @Test
+    public void testYaml() {
+        assertEquals(VersionSniffer.versionKey("openapi: 3.0.1\ninfo:\n  title: x\n"), VersionSniffer.OPENAPI);
+        assertEquals(VersionSniffer.versionKey("# comment\n---\nswagger: '2.0'\n"), VersionSniffer.SWAGGER);
+    }
+
+    @Test
+    public void testJson() {
+        assertEquals(VersionSniffer.versionKey("  {\"openapi\": \"3.1.0\"}"), VersionSniffer.OPENAPI);
+        assertEquals(VersionSniffer.versionKey("{\"swagger\": \"2.0\"}"), VersionSniffer.SWAGGER);
+    }
+
+    @Test
+    public void testSkipsOtherEntries() {
+        assertEquals(VersionSniffer.versionKey("info:\n  openapi: nested\n  list: [1, {swagger: x}]\nswagger: '2.0'\n"),
+                VersionSniffer.SWAGGER);
+        assertEquals(VersionSniffer.versionKey("{\"info\": {\"swagger\": \"2.0\"}, \"openapi\": \"3.0.0\"}"),
+                VersionSniffer.OPENAPI);
+    }
+
+    @Test
+    public void testStopsAtTheKey() {
+        assertEquals(VersionSniffer.versionKey("openapi: 3.0.0\npaths: [unterminated\n"), VersionSniffer.OPENAPI);
+        assertEquals(VersionSniffer.versionKey("{\"swagger\": \"2.0\", \"paths\": {"), VersionSniffer.SWAGGER);
+    }
+
+    @Test
+    public void testNoVersionKey() {
+        assertNull(VersionSniffer.versionKey((String) null));
+        assertNull(VersionSniffer.versionKey(""));
+        assertNull(VersionSniffer.versionKey("swaggerVersion: '1.2'\n"));
+        assertNull(VersionSniffer.versionKey("- openapi\n"));
+        assertNull(VersionSniffer.versionKey("{\"info\": {\"openapi\": \"3.0.0\"}}"));
+        assertNull(VersionSniffer.versionKey("info: [unterminated\nopenapi: 3.0.0\n"));
+    }
+
+    @Test
+    public void testBytes() {
+        byte[] contents = "xxswagger: '2.0'\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(contents, 2, contents.length - 2);
+
+        assertEquals(VersionSniffer.versionKey(buffer), VersionSniffer.SWAGGER);
+        assertEquals(buffer.position(), 2);
+        assertEquals(VersionSniffer.versionKey(ByteBuffer.wrap("\uFEFF{\"openapi\": \"3.0.0\"}".getBytes(StandardCharsets.UTF_8))),
+                VersionSniffer.OPENAPI);
+        ByteBuffer direct = ByteBuffer.allocateDirect(contents.length);
+        direct.put(contents).position(2);
+        assertEquals(VersionSniffer.versionKey(direct), VersionSniffer.SWAGGER);
+    }
+}
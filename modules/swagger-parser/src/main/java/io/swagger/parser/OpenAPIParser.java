@@ -1,32 +1,138 @@
 package io.swagger.parser;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.parser.core.extensions.SwaggerParserExtension;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.exception.ReadContentException;
+import io.swagger.v3.parser.extensions.TreeParserExtension;
+import io.swagger.v3.parser.util.LocalFileReader;
+import io.swagger.v3.parser.util.VersionSniffer;
+import org.apache.commons.io.IOUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Function;
 
+/**
+ * Parses OpenAPI definitions with the first {@link SwaggerParserExtension} able to handle them.
+ *
+ * The definition is read once and its version found from its root key with {@link VersionSniffer}. It is then parsed
+ * into a tree once, and handed to the {@link TreeParserExtension}s reading that version, skipping the ones which
+ * don't. Other extensions, and all of them when the version is not found, are tried with the definition as before.
+ *
+ * Instances hold no state and can be shared by concurrent callers, see {@link OpenAPIV3Parser}.
+ */
 public class OpenAPIParser {
     public SwaggerParseResult readLocation(String url, List<AuthorizationValue> auth, ParseOptions options) {
-        SwaggerParseResult output = null;
+        Definition definition;
+        try {
+            definition = new Definition(new OpenAPIV3Parser().readLocationContents(url, auth));
+        } catch (ReadContentException e) {
+            // each extension reports the failure in its own way
+            definition = null;
+        }
+        return read(definition, url, auth, options, extension -> extension.readLocation(url, auth, options));
+    }
 
-        for(SwaggerParserExtension extension : OpenAPIV3Parser.getExtensions()) {
-            output = extension.readLocation(url, auth, options);
-            if(output != null && output.getOpenAPI() != null) {
-                return output;
+    public SwaggerParseResult readContents(String swaggerAsString, List<AuthorizationValue> auth, ParseOptions options) {
+        final Definition definition = swaggerAsString == null ? null : new Definition(swaggerAsString);
+        return read(definition, null, auth, options, extension -> extension.readContents(swaggerAsString, auth, options));
+    }
+
+    /**
+     * Parses an encoded definition. {@link OpenAPIV3Parser} reads the bytes directly; other extensions get the
+     * content decoded with {@link OpenAPIV3Parser#getEncoding()}.
+     */
+    public SwaggerParseResult readBytes(byte[] contents, List<AuthorizationValue> auth, ParseOptions options) {
+        final Definition definition = contents == null ? null : new Definition(ByteBuffer.wrap(contents));
+        return read(definition, null, auth, options, extension -> {
+            if (extension instanceof OpenAPIV3Parser) {
+                return ((OpenAPIV3Parser) extension).readBytes(contents, auth, options);
             }
+            return extension.readContents(definition == null ? null : definition.text(), auth, options);
+        });
+    }
+
+    /**
+     * Reads the stream to its end and parses it as with {@link #readBytes(byte[], List, ParseOptions)}. The stream is
+     * not closed.
+     */
+    public SwaggerParseResult readStream(InputStream contents, List<AuthorizationValue> auth, ParseOptions options) {
+        if (contents == null) {
+            return SwaggerParseResult.ofError("Null or empty definition");
+        }
+        try {
+            return readBytes(IOUtils.toByteArray(contents), auth, options);
+        } catch (IOException e) {
+            return SwaggerParseResult.ofError(e.getMessage());
         }
+    }
 
-        return output;
+    /**
+     * Parses a local file, resolving relative references against it. {@link OpenAPIV3Parser} reads the file as bytes;
+     * other extensions read it from its location.
+     */
+    public SwaggerParseResult readPath(Path path, List<AuthorizationValue> auth, ParseOptions options) {
+        final Function<SwaggerParserExtension, SwaggerParseResult> fallback = extension -> {
+            if (extension instanceof OpenAPIV3Parser) {
+                return ((OpenAPIV3Parser) extension).readPath(path, auth, options);
+            }
+            return extension.readLocation(path.toString(), auth, options);
+        };
+        Definition definition = null;
+        if (path != null) {
+            try {
+                definition = new Definition(LocalFileReader.read(path));
+            } catch (IOException e) {
+                // each extension reports the failure in its own way
+            }
+        }
+        final String location = path == null ? null : path.toString().replace('\\', '/');
+        return read(definition, location, auth, options, fallback);
     }
 
-    public SwaggerParseResult readContents(String swaggerAsString, List<AuthorizationValue> auth, ParseOptions options) {
+    /**
+     * @param definition the definition, or null to try each extension with {@code fallback}
+     * @param fallback   parses the definition with an extension not given its tree
+     */
+    private SwaggerParseResult read(Definition definition, String location, List<AuthorizationValue> auth,
+                                    ParseOptions options, Function<SwaggerParserExtension, SwaggerParseResult> fallback) {
+        final String versionKey = definition == null ? null : definition.versionKey();
         SwaggerParseResult output = null;
+        JsonNode tree = null;
+        SwaggerParseResult treeMessages = null;
 
         for(SwaggerParserExtension extension : OpenAPIV3Parser.getExtensions()) {
-            output = extension.readContents(swaggerAsString, auth, options);
+            if (versionKey != null && extension instanceof TreeParserExtension) {
+                final TreeParserExtension treeExtension = (TreeParserExtension) extension;
+                if (!treeExtension.canRead(versionKey)) {
+                    continue;
+                }
+                if (tree == null) {
+                    treeMessages = new SwaggerParseResult();
+                    try {
+                        tree = definition.tree(options, location, treeMessages);
+                    } catch (Exception e) {
+                        // let the extension report the problem as it would have without the tree
+                        output = fallback.apply(extension);
+                        if(output != null && output.getOpenAPI() != null) {
+                            return output;
+                        }
+                        continue;
+                    }
+                }
+                output = treeExtension.readTree(tree, treeMessages, location, auth, options);
+            } else {
+                output = fallback.apply(extension);
+            }
             if(output != null && output.getOpenAPI() != null) {
                 return output;
             }
@@ -35,4 +141,38 @@ public class OpenAPIParser {
         return output;
     }
 
+    /**
+     * A definition read as text or bytes, decoded as needed.
+     */
+    private static final class Definition {
+        private String text;
+        private final ByteBuffer bytes;
+
+        Definition(String text) {
+            this.text = text;
+            this.bytes = null;
+        }
+
+        Definition(ByteBuffer bytes) {
+            final Charset charset = Charset.forName(OpenAPIV3Parser.getEncoding());
+            this.text = StandardCharsets.UTF_8.equals(charset) ? null : charset.decode(bytes.duplicate()).toString();
+            this.bytes = text == null ? bytes : null;
+        }
+
+        String versionKey() {
+            return bytes != null ? VersionSniffer.versionKey(bytes) : VersionSniffer.versionKey(text);
+        }
+
+        JsonNode tree(ParseOptions options, String location, SwaggerParseResult messages) throws IOException {
+            return bytes != null ? OpenAPIV3Parser.parseTree(bytes, options, location, messages) :
+                    OpenAPIV3Parser.parseTree(text, options, location, messages);
+        }
+
+        String text() {
+            if (text == null) {
+                text = StandardCharsets.UTF_8.decode(bytes.duplicate()).toString();
+            }
+            return text;
+        }
+    }
 }
@@ -12,15 +12,24 @@ import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.converter.SwaggerConverter;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import io.swagger.v3.core.util.Json;
 import java.math.BigDecimal;
 import java.math.MathContext;
 
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.testng.Assert;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.List;
 
@@ -798,5 +807,94 @@ public class OpenAPIParserTest {
                 "openapi31: false\n");
     }
 
+    @Test
+    public void testReadBytesAndPath() throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        Path path = Paths.get("src/test/resources/issue749-main.yaml");
+
+        SwaggerParseResult fromPath = new OpenAPIParser().readPath(path, null, options);
+        assertNotNull(fromPath.getOpenAPI());
+        assertNotNull(fromPath.getOpenAPI().getPaths().get("/some/ping").getGet().getParameters());
+
+        SwaggerParseResult fromContents = new OpenAPIParser().readContents(new String(Files.readAllBytes(path), "UTF-8"), null, options);
+        SwaggerParseResult fromBytes = new OpenAPIParser().readBytes(Files.readAllBytes(path), null, options);
+        assertEquals(fromBytes.getOpenAPI(), fromContents.getOpenAPI());
+    }
+
+    @Test
+    public void testReadStreamConvertsSwagger2() throws Exception {
+        byte[] spec = Files.readAllBytes(Paths.get("src/test/resources/spec.yaml"));
+        SwaggerParseResult result = new OpenAPIParser().readStream(new ByteArrayInputStream(spec), null, new ParseOptions());
+
+        assertNotNull(result.getOpenAPI());
+        assertEquals(result.getOpenAPI().getInfo().getTitle(), "Swagger Petstore (Simple)");
+        assertEquals(result.getOpenAPI().getExtensions().get("x-original-swagger-version"), "2.0");
+    }
+
+
+    @DataProvider
+    public Object[][] swagger2Specs() {
+        return new Object[][]{
+                {"spec.yaml", false},
+                {"spec.yaml", true},
+                {"issue1608.json", true},
+                {"issue2269.yaml", true},
+                {"issue-1143.json", false},
+                {"Issue-783/issue-783.yaml", true}
+        };
+    }
+
+    @Test(dataProvider = "swagger2Specs")
+    public void testSwagger2DispatchedToConverter(String location, boolean flatten) throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        options.setFlatten(flatten);
+
+        SwaggerParseResult fromLocation = new OpenAPIParser().readLocation(location, null, options);
+        SwaggerParseResult expectedFromLocation = new SwaggerConverter().readLocation(location, null, options);
+        assertNotNull(fromLocation.getOpenAPI());
+        assertEquals(Yaml.pretty(fromLocation.getOpenAPI()), Yaml.pretty(expectedFromLocation.getOpenAPI()));
+        assertEquals(fromLocation.getMessages(), expectedFromLocation.getMessages());
+
+        String contents = new String(Files.readAllBytes(Paths.get("src/test/resources", location)), "UTF-8");
+        SwaggerParseResult fromContents = new OpenAPIParser().readContents(contents, null, options);
+        SwaggerParseResult expectedFromContents = new SwaggerConverter().readContents(contents, null, options);
+        assertEquals(Yaml.pretty(fromContents.getOpenAPI()), Yaml.pretty(expectedFromContents.getOpenAPI()));
+        assertEquals(fromContents.getMessages(), expectedFromContents.getMessages());
+    }
+
+    @Test
+    public void testInvalidOpenAPIReportedByV3Parser() {
+        SwaggerParseResult result = new OpenAPIParser().readContents("openapi: 4.0.0\ninfo:\n  title: x\n", null, null);
+
+        assertNull(result.getOpenAPI());
+        assertEquals(result.getMessages(), new OpenAPIV3Parser().readContents("openapi: 4.0.0\ninfo:\n  title: x\n", null, null).getMessages());
+    }
+
+    @Test
+    public void testDuplicateKeyReportedAsByV3Parser() throws Exception {
+        String definition = "openapi: 3.0.1\n" +
+                "info:\n  title: duplicates\n  version: 1.0.0\n" +
+                "paths:\n  /whatever:\n    get:\n      responses:\n" +
+                "        '200':\n          description: OK\n" +
+                "        '200':\n          description: duplicate\n";
+        Path file = Files.createTempFile("duplicates", ".yaml");
+        try {
+            Files.write(file, definition.getBytes(StandardCharsets.UTF_8));
+            String location = file.toString().replace('\\', '/');
+            ParseOptions options = new ParseOptions();
+            options.setResolve(true);
+
+            SwaggerParseResult fromLocation = new OpenAPIParser().readLocation(location, null, options);
+            assertEquals(fromLocation.getMessages(), new OpenAPIV3Parser().readLocation(location, null, options).getMessages());
+            assertEquals(fromLocation.getMessages(), Arrays.asList("Duplicate field 200 in `" + location + "`"));
+            assertEquals(new OpenAPIParser().readContents(definition, null, options).getMessages(),
+                    new OpenAPIV3Parser().readContents(definition, null, options).getMessages());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
 }
 